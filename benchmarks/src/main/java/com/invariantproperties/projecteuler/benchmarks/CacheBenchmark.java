@@ -0,0 +1,110 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.benchmarks;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.invariantproperties.projecteuler.CheckpointSequenceCache;
+import com.invariantproperties.projecteuler.InMemorySequenceCache;
+import com.invariantproperties.projecteuler.SequenceCache;
+import com.invariantproperties.projecteuler.WeightedSequenceCache;
+
+/**
+ * Cache benchmarks. Lookups cycle through 'span' indexes so a span larger
+ * than the cache measures misses and evictions.
+ *
+ * @author bgiles
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark {
+    @Param({ "IN_MEMORY", "CHECKPOINT", "WEIGHTED" })
+    public String cache;
+
+    @Param({ "500", "5000" })
+    public int span;
+
+    private SequenceCache<BigInteger> instance;
+
+    @Setup
+    public void setup() {
+        if ("IN_MEMORY".equals(cache)) {
+            instance = new InMemorySequenceCache<BigInteger>(1000);
+        } else if ("WEIGHTED".equals(cache)) {
+            // roughly the same footprint as the 1000-entry in-memory cache.
+            instance = WeightedSequenceCache.forBigIntegers(null, 1000 * 64, true);
+        } else {
+            instance = new CheckpointSequenceCache<BigInteger>(100, 2);
+        }
+        instance.initialize(new ArrayList<BigInteger>());
+    }
+
+    /**
+     * Per-thread index position.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int position;
+    }
+
+    private BigInteger getOrPut(Cursor cursor) {
+        int n = cursor.position++ % span;
+        BigInteger value = instance.get(n);
+        if (value == null) {
+            value = BigInteger.valueOf(n);
+            instance.put(n, value);
+        }
+
+        return value;
+    }
+
+    @Benchmark
+    public BigInteger getOrPut1(Cursor cursor) {
+        return getOrPut(cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public BigInteger getOrPut4(Cursor cursor) {
+        return getOrPut(cursor);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.benchmarks;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.invariantproperties.projecteuler.prime.SloanesUtil;
+
+/**
+ * Factorization benchmarks.
+ *
+ * @author bgiles
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FactorizationBenchmark {
+    private static final int QUERIES = 1 << 16;
+
+    @Param({ "1000", "10000000" })
+    public int limit;
+
+    private final int[] queries = new int[QUERIES];
+    private int position;
+
+    @Setup
+    public void setup() {
+        Random r = new Random(limit);
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = 2 + r.nextInt(limit - 2);
+        }
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> factor() {
+        position = (position + 1) & (QUERIES - 1);
+        return SloanesUtil.factor(queries[position]);
+    }
+
+    @Benchmark
+    public long totient() {
+        position = (position + 1) & (QUERIES - 1);
+        return SloanesUtil.getTotient(queries[position]);
+    }
+}
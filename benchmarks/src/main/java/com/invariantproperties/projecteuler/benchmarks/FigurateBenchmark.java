@@ -0,0 +1,131 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.invariantproperties.projecteuler.figurate.HeptagonalNumber;
+import com.invariantproperties.projecteuler.figurate.HexagonalNumber;
+import com.invariantproperties.projecteuler.figurate.OctagonalNumber;
+import com.invariantproperties.projecteuler.figurate.PentagonalNumber;
+import com.invariantproperties.projecteuler.figurate.PolygonalNumber;
+import com.invariantproperties.projecteuler.figurate.SquareNumber;
+import com.invariantproperties.projecteuler.figurate.TriangularNumber;
+
+/**
+ * Figurate number benchmarks. Half of the queries are members of the
+ * sequence and half are not.
+ *
+ * @author bgiles
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FigurateBenchmark {
+    private static final int QUERIES = 1 << 16;
+
+    @Param({ "3", "5", "8" })
+    public int sides;
+
+    private PolygonalNumber sequence;
+    private final Long[] queries = new Long[QUERIES];
+    private int position;
+
+    @Setup
+    public void setup() {
+        switch (sides) {
+        case 3:
+            sequence = new TriangularNumber();
+            break;
+        case 4:
+            sequence = new SquareNumber();
+            break;
+        case 5:
+            sequence = new PentagonalNumber();
+            break;
+        case 6:
+            sequence = new HexagonalNumber();
+            break;
+        case 7:
+            sequence = new HeptagonalNumber();
+            break;
+        case 8:
+            sequence = new OctagonalNumber();
+            break;
+        default:
+            throw new IllegalArgumentException("unsupported polygon: " + sides);
+        }
+
+        Random r = new Random(sides);
+        for (int i = 0; i < QUERIES; i++) {
+            long x = PolygonalNumber.get(sides, 1 + r.nextInt(1000000));
+            queries[i] = ((i & 1) == 0) ? x : x + 1;
+        }
+    }
+
+    @Benchmark
+    public int indexOf() {
+        position = (position + 1) & (QUERIES - 1);
+        return sequence.indexOf(queries[position]);
+    }
+
+    @Benchmark
+    public Long get() {
+        position = (position + 1) & (QUERIES - 1);
+        return sequence.get(position);
+    }
+
+    /**
+     * Scan the first 10,000 terms with the iterator.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public long iteratorScan() {
+        long sum = 0;
+        int count = 0;
+        for (Long x : sequence) {
+            sum += x;
+            if (++count == 10000) {
+                break;
+            }
+        }
+
+        return sum;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.benchmarks;
+
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.invariantproperties.projecteuler.CheckpointSequenceCache;
+import com.invariantproperties.projecteuler.Sequence;
+import com.invariantproperties.projecteuler.WeightedSequenceCache;
+import com.invariantproperties.projecteuler.recurrence.FactorialNumber;
+import com.invariantproperties.projecteuler.recurrence.FibonacciNumber;
+import com.invariantproperties.projecteuler.recurrence.LucasNumber;
+import com.invariantproperties.projecteuler.recurrence.PadovanSequence;
+import com.invariantproperties.projecteuler.recurrence.PellNumber;
+import com.invariantproperties.projecteuler.recurrence.PerrinSequence;
+
+/**
+ * Recurrence benchmarks. A cold lookup creates a new sequence with a new
+ * private cache for every call, bypassing the shared term store, a warm
+ * lookup repeats the same query against a sequence that has already
+ * answered it.
+ *
+ * @author bgiles
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecurrenceBenchmark {
+    @Param({ "FIBONACCI", "LUCAS", "PELL", "PADOVAN", "PERRIN", "FACTORIAL" })
+    public String sequence;
+
+    @Param({ "1000", "100000" })
+    public int n;
+
+    // same sizes as the default caches.
+    private static final long CACHE_BYTES = 32L * 1024 * 1024;
+    private static final int CHECKPOINT_INTERVAL = 100;
+
+    private Sequence<BigInteger> warm;
+
+    @Setup
+    public void setup() {
+        warm = create(sequence);
+        warm.get(n);
+    }
+
+    /**
+     * Create a sequence with a private cache like the default one. The
+     * default constructors share a process-wide term store so every
+     * instance after the first would already be warm.
+     */
+    static Sequence<BigInteger> create(String name) {
+        switch (name) {
+        case "FIBONACCI":
+            return new FibonacciNumber(WeightedSequenceCache.forBigIntegers(null, CACHE_BYTES, true));
+        case "LUCAS":
+            return new LucasNumber(WeightedSequenceCache.forBigIntegers(null, CACHE_BYTES, true));
+        case "PELL":
+            return new PellNumber(new CheckpointSequenceCache<BigInteger>(CHECKPOINT_INTERVAL, 2));
+        case "PADOVAN":
+            return new PadovanSequence(new CheckpointSequenceCache<BigInteger>(CHECKPOINT_INTERVAL, 3));
+        case "PERRIN":
+            return new PerrinSequence(WeightedSequenceCache.forBigIntegers(null, CACHE_BYTES, true));
+        case "FACTORIAL":
+            return new FactorialNumber(new CheckpointSequenceCache<BigInteger>(CHECKPOINT_INTERVAL, 1));
+        default:
+            throw new IllegalArgumentException("unknown sequence: " + name);
+        }
+    }
+
+    @Benchmark
+    public BigInteger cold() {
+        return create(sequence).get(n);
+    }
+
+    @Benchmark
+    public BigInteger warm() {
+        return warm.get(n);
+    }
+
+    /**
+     * Scan the first n terms with the iterator.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public int iteratorScan() {
+        Iterator<BigInteger> iter = warm.iterator();
+        int bits = 0;
+        for (int i = 0; i < n; i++) {
+            bits ^= iter.next().bitLength();
+        }
+
+        return bits;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.invariantproperties.projecteuler.prime.SieveOfAtkin;
+import com.invariantproperties.projecteuler.prime.SieveOfEratosthenes;
+
+/**
+ * Sieve benchmarks. Queries are drawn from a fixed pseudo-random table so
+ * every run sees the same workload. The contended benchmark runs the same
+ * queries from several threads to expose lock overhead in the sieves.
+ *
+ * @author bgiles
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SieveBenchmark {
+    private static final int QUERIES = 1 << 16;
+
+    @Param({ "ATKIN", "ERATOSTHENES" })
+    public String sieve;
+
+    @Param({ "100000", "10000000" })
+    public int limit;
+
+    private final int[] queries = new int[QUERIES];
+
+    @Setup
+    public void setup() {
+        Random r = new Random(limit);
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = r.nextInt(limit);
+        }
+
+        // extend the sieve before measuring
+        isPrime(limit);
+    }
+
+    /**
+     * Per-thread query position.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int position;
+
+        int next() {
+            position = (position + 1) & (QUERIES - 1);
+            return position;
+        }
+    }
+
+    private boolean isPrime(int n) {
+        return "ATKIN".equals(sieve) ? SieveOfAtkin.SIEVE.isPrime(n) : SieveOfEratosthenes.SIEVE.isPrime(n);
+    }
+
+    @Benchmark
+    public boolean isPrime(Cursor cursor) {
+        return isPrime(queries[cursor.next()]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean isPrimeContended(Cursor cursor) {
+        return isPrime(queries[cursor.next()]);
+    }
+
+    /**
+     * Scan the first 10,000 primes with the iterator.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public long iteratorScan() {
+        Iterable<Integer> primes = "ATKIN".equals(sieve) ? SieveOfAtkin.SIEVE : SieveOfEratosthenes.SIEVE;
+        long sum = 0;
+        int count = 0;
+        for (Integer p : primes) {
+            sum += p;
+            if (++count == 10000) {
+                break;
+            }
+        }
+
+        return sum;
+    }
+}
@@ -72,6 +72,62 @@ public abstract class AbstractListIterator<T> implements ListIterator<T> {
         return idx - 1;
     }
 
+    /**
+     * Reposition the iterator so the next call to next() returns the element
+     * at the specified index.
+     *
+     * @param index
+     * @throws IllegalArgumentException
+     *             if negative index
+     */
+    public void seek(int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("index must be non-negative");
+        }
+
+        if (index != idx) {
+            seekTo(index);
+        }
+    }
+
+    /**
+     * Move the iterator forwards (or backwards if negative) by the specified
+     * number of elements.
+     *
+     * @param k
+     * @throws IllegalArgumentException
+     *             if this would move the iterator before the first element.
+     */
+    public void skip(int k) {
+        seek(idx + k);
+    }
+
+    /**
+     * Reposition the iterator. The default implementation steps through the
+     * intermediate elements. Subclasses should override this method if they
+     * can compute the state at an arbitrary index directly.
+     *
+     * @param index
+     */
+    protected void seekTo(int index) {
+        step(index);
+    }
+
+    /**
+     * Reposition the iterator by stepping through the intermediate elements.
+     *
+     * @param index
+     */
+    protected final void step(int index) {
+        while (idx < index) {
+            next();
+        }
+
+        while (idx > index) {
+            previous();
+        }
+    }
+
     public void remove() {
         throw new UnsupportedOperationException();
     }
@@ -0,0 +1,378 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler;
+
+import com.invariantproperties.projecteuler.recurrence.AbstractRecurrenceNumber;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous facade over a sequence. Expensive terms are computed on a
+ * bounded executor so the calling thread never blocks.
+ * 
+ * Concurrent requests for the same term share a single computation. Each
+ * caller gets its own future so cancelling it doesn't affect other callers;
+ * the computation is skipped if every caller cancels before it starts.
+ * 
+ * A batch of indices is computed by a single task in ascending order so
+ * sequences that step from a cached neighbor reuse the earlier terms.
+ * Batches for recurrence sequences are passed to getAll() so shared
+ * intermediate terms are only computed once.
+ * 
+ * @author Bear Giles <bgiles@coyotesong.com>
+ */
+public class AsyncSequence<E> {
+    private static final int DEFAULT_QUEUE_SIZE = 1024;
+    private static final ExecutorService DEFAULT_EXECUTOR = newBoundedExecutor(Runtime.getRuntime()
+            .availableProcessors(), DEFAULT_QUEUE_SIZE);
+
+    private final Sequence<E> sequence;
+    private final ExecutorService executor;
+    private final Map<Integer, Flight<E>> inFlight = new HashMap<Integer, Flight<E>>();
+
+    /**
+     * Constructor using the shared default executor.
+     * 
+     * @param sequence
+     */
+    public AsyncSequence(Sequence<E> sequence) {
+        this(sequence, DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param sequence
+     * @param executor
+     *            executor used for computations. It should be bounded since
+     *            each term may take seconds to compute.
+     */
+    public AsyncSequence(Sequence<E> sequence, ExecutorService executor) {
+        if (sequence == null) {
+            throw new IllegalArgumentException("sequence must not be null");
+        }
+
+        if (executor == null) {
+            throw new IllegalArgumentException("executor must not be null");
+        }
+
+        this.sequence = sequence;
+        this.executor = executor;
+    }
+
+    /**
+     * Create an executor with a fixed number of daemon threads and a bounded
+     * queue. Tasks submitted when the queue is full are rejected and the
+     * corresponding futures fail with a RejectedExecutionException.
+     * 
+     * @param threads
+     * @param queueSize
+     */
+    public static ExecutorService newBoundedExecutor(int threads, int queueSize) {
+        final AtomicInteger count = new AtomicInteger();
+
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(queueSize), r -> {
+                    Thread thread = new Thread(r, "async-sequence-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Get the underlying sequence.
+     */
+    public Sequence<E> getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Get specified value asynchronously.
+     * 
+     * @param n
+     */
+    public CompletableFuture<E> getAsync(int n) {
+        if (n < 0) {
+            return failed(new IllegalArgumentException("index must be non-negative"));
+        }
+
+        final List<Flight<E>> created = new ArrayList<Flight<E>>(1);
+        final Flight<E> flight;
+
+        synchronized (inFlight) {
+            flight = join(n, created);
+        }
+
+        submit(created);
+
+        final CompletableFuture<E> future = new CompletableFuture<E>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                boolean cancelled = super.cancel(mayInterruptIfRunning);
+                if (cancelled) {
+                    release(flight);
+                }
+                return cancelled;
+            }
+        };
+
+        flight.result.whenComplete((value, t) -> {
+            if (t == null) {
+                future.complete(value);
+            } else {
+                future.completeExceptionally(t);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Get specified values asynchronously. The values that aren't already
+     * being computed are computed by a single task in ascending order. The
+     * results are in the same order as the indices.
+     * 
+     * @param indices
+     */
+    public CompletableFuture<List<E>> getAllAsync(final int... indices) {
+        for (int n : indices) {
+            if (n < 0) {
+                return failed(new IllegalArgumentException("index must be non-negative"));
+            }
+        }
+
+        final int[] sorted = Arrays.stream(indices).distinct().sorted().toArray();
+        final List<Flight<E>> created = new ArrayList<Flight<E>>(sorted.length);
+        final Map<Integer, Flight<E>> flights = new HashMap<Integer, Flight<E>>();
+
+        synchronized (inFlight) {
+            for (int n : sorted) {
+                flights.put(n, join(n, created));
+            }
+        }
+
+        submit(created);
+
+        final CompletableFuture<List<E>> future = new CompletableFuture<List<E>>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                boolean cancelled = super.cancel(mayInterruptIfRunning);
+                if (cancelled) {
+                    for (Flight<E> flight : flights.values()) {
+                        release(flight);
+                    }
+                }
+                return cancelled;
+            }
+        };
+
+        CompletableFuture<?>[] results = new CompletableFuture<?>[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            results[i] = flights.get(sorted[i]).result;
+        }
+
+        CompletableFuture.allOf(results).whenComplete((ignored, t) -> {
+            if (t != null) {
+                future.completeExceptionally(t);
+            } else {
+                List<E> values = new ArrayList<E>(indices.length);
+                for (int n : indices) {
+                    values.add(flights.get(n).result.join());
+                }
+                future.complete(values);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Get number of values being computed or waiting to be computed.
+     */
+    public int getInFlightCount() {
+        synchronized (inFlight) {
+            return inFlight.size();
+        }
+    }
+
+    /**
+     * Join an existing computation or create a new one. This must be called
+     * while holding the inFlight lock.
+     */
+    private Flight<E> join(int n, List<Flight<E>> created) {
+        Flight<E> flight = inFlight.get(n);
+
+        if (flight == null) {
+            flight = new Flight<E>(n);
+            inFlight.put(n, flight);
+            created.add(flight);
+        }
+
+        flight.waiters++;
+
+        return flight;
+    }
+
+    /**
+     * Release a caller's interest in a computation, cancelling it if nobody
+     * else is waiting for it.
+     */
+    private void release(Flight<E> flight) {
+        boolean cancel = false;
+
+        synchronized (inFlight) {
+            flight.waiters--;
+            if ((flight.waiters == 0) && (inFlight.get(flight.n) == flight)) {
+                inFlight.remove(flight.n);
+                cancel = true;
+            }
+        }
+
+        if (cancel) {
+            flight.result.cancel(false);
+        }
+    }
+
+    /**
+     * Submit a single task that computes the new flights in order.
+     */
+    private void submit(final List<Flight<E>> created) {
+        if (created.isEmpty()) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                if ((created.size() > 1) && (sequence instanceof AbstractRecurrenceNumber)) {
+                    computeAll(created);
+                } else {
+                    for (Flight<E> flight : created) {
+                        compute(flight);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            for (Flight<E> flight : created) {
+                finish(flight);
+                flight.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Compute a single value unless all callers have cancelled it.
+     */
+    private void compute(Flight<E> flight) {
+        if (flight.result.isDone()) {
+            return;
+        }
+
+        try {
+            E value = sequence.get(flight.n);
+            finish(flight);
+            flight.result.complete(value);
+        } catch (Throwable t) {
+            finish(flight);
+            flight.result.completeExceptionally(t);
+        }
+    }
+
+    /**
+     * Compute several values with a single call to getAll() so intermediate
+     * values shared by several indices are only computed once. Values that
+     * all callers have cancelled are skipped.
+     */
+    private void computeAll(List<Flight<E>> created) {
+        final List<Flight<E>> pending = new ArrayList<Flight<E>>(created.size());
+        for (Flight<E> flight : created) {
+            if (!flight.result.isDone()) {
+                pending.add(flight);
+            }
+        }
+
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        final int[] indices = new int[pending.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = pending.get(i).n;
+        }
+
+        try {
+            // the values come from the same sequence so they're all E.
+            @SuppressWarnings("unchecked")
+            List<E> values = (List<E>) ((AbstractRecurrenceNumber<?>) sequence).getAll(indices);
+            for (int i = 0; i < indices.length; i++) {
+                finish(pending.get(i));
+                pending.get(i).result.complete(values.get(i));
+            }
+        } catch (Throwable t) {
+            for (Flight<E> flight : pending) {
+                finish(flight);
+                flight.result.completeExceptionally(t);
+            }
+        }
+    }
+
+    /**
+     * Remove a completed computation so later requests start a new one.
+     */
+    private void finish(Flight<E> flight) {
+        synchronized (inFlight) {
+            if (inFlight.get(flight.n) == flight) {
+                inFlight.remove(flight.n);
+            }
+        }
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable t) {
+        CompletableFuture<T> future = new CompletableFuture<T>();
+        future.completeExceptionally(t);
+        return future;
+    }
+
+    /**
+     * Computation shared by all callers requesting the same index.
+     */
+    private static final class Flight<E> {
+        private final int n;
+        private final CompletableFuture<E> result = new CompletableFuture<E>();
+        private int waiters;
+
+        Flight(int n) {
+            this.n = n;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Cache that only retains sparse checkpoints. A checkpoint is a window of
+ * 'width' consecutive values starting at every k-th index (or at every power
+ * of two). The width should match the order of the recurrence so a sequence
+ * can restart its iterator from the nearest checkpoint and reconstruct any
+ * other value by stepping. Memory is bounded by O(n/k) windows.
+ *
+ * The most recent window of values is also retained so sequential access
+ * doesn't have to step from the last checkpoint on every call.
+ *
+ * @author Bear Giles <bgiles@coyotesong.com>
+ */
+public class CheckpointSequenceCache<E> implements SequenceCache<E> {
+    private final List<E> staticCache = new ArrayList<E>();
+    private final TreeMap<Integer, E> checkpoints = new TreeMap<Integer, E>();
+    private final TreeMap<Integer, E> recent = new TreeMap<Integer, E>();
+    private final int interval;
+    private final int width;
+    private boolean isReadOnly = false;
+    private boolean isInitialized = false;
+
+    /**
+     * Constructor for checkpoints at every k-th index.
+     *
+     * @param interval
+     *            distance between checkpoints
+     * @param width
+     *            number of consecutive values retained at each checkpoint
+     */
+    public CheckpointSequenceCache(int interval, int width) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+
+        if ((width < 1) || (width > interval)) {
+            throw new IllegalArgumentException("width must be between 1 and interval");
+        }
+
+        this.interval = interval;
+        this.width = width;
+    }
+
+    /**
+     * Create cache with checkpoints at every power of two. This keeps
+     * O(log n) windows but lookups may need O(n) steps so it should only be
+     * used with sequences that can double from a checkpoint.
+     *
+     * @param width
+     *            number of consecutive values retained at each checkpoint
+     */
+    public static <E> CheckpointSequenceCache<E> powersOfTwo(int width) {
+        if (width < 1) {
+            throw new IllegalArgumentException("width must be positive");
+        }
+
+        return new CheckpointSequenceCache<E>(width);
+    }
+
+    private CheckpointSequenceCache(int width) {
+        this.interval = 0;
+        this.width = width;
+    }
+
+    /**
+     * Get number of consecutive values retained at each checkpoint.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Get the index of the checkpoint at or below n. This is the start of the
+     * checkpoint window whether or not it's been cached.
+     */
+    public int checkpointIndex(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("index must be non-negative");
+        }
+
+        if (interval == 0) {
+            return Integer.highestOneBit(n);
+        }
+
+        return n - (n % interval);
+    }
+
+    /**
+     * Get the highest index at or below n where the cache holds 'width'
+     * consecutive values, or -1 if there's no such index.
+     */
+    public synchronized int floorCheckpoint(int n) {
+        int best = -1;
+
+        if (!recent.isEmpty() && (recent.size() == width) && (recent.firstKey() <= n)
+                && (recent.lastKey() - recent.firstKey() == width - 1)) {
+            best = recent.firstKey();
+        }
+
+        Integer key = checkpoints.floorKey(n);
+
+        while ((key != null) && (key > best)) {
+            if (isWindow(key)) {
+                best = key;
+                break;
+            }
+            key = checkpoints.lowerKey(key);
+        }
+
+        if ((best < 0) && (staticCache.size() >= width)) {
+            best = Math.min(n, staticCache.size() - width);
+        }
+
+        return best;
+    }
+
+    /**
+     * Does the cache hold the window starting at n?
+     */
+    private boolean isWindow(int n) {
+        for (int i = 0; i < width; i++) {
+            if (get(n + i) == null) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Is index part of a checkpoint window?
+     */
+    private boolean isCheckpoint(int n) {
+        return (n - checkpointIndex(n)) < width;
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.SequenceCache#isReadOnly()
+     */
+    @Override
+    public boolean isReadOnly() {
+        return isReadOnly;
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.SequenceCache#setReadOnly(boolean)
+     */
+    @Override
+    public void setReadOnly(boolean isReadOnly) {
+        this.isReadOnly = isReadOnly;
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.SequenceCache#isInitialized()
+     */
+    @Override
+    public boolean isInitialized() {
+        return isInitialized;
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.SequenceCache#initialize(java.util.List)
+     */
+    @Override
+    public synchronized boolean initialize(final List<E> values) {
+        return initialize(values.iterator(), values.size());
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.SequenceCache#initialize(java.util.Iterator,
+     *      long)
+     */
+    @Override
+    public synchronized boolean initialize(final Iterator<E> iterator, long count) {
+        if (isInitialized) {
+            throw new IllegalStateException("Cache is already initialized");
+        }
+
+        for (int i = 0; (i < count) && iterator.hasNext(); i++) {
+            staticCache.add(iterator.next());
+        }
+
+        isInitialized = true;
+
+        return true;
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.SequenceCache#get(int)
+     */
+    @Override
+    public synchronized E get(final int n) {
+        if (n < 0) {
+            return null;
+        }
+
+        if (n < staticCache.size()) {
+            return staticCache.get(n);
+        }
+
+        E value = checkpoints.get(n);
+
+        if (value == null) {
+            value = recent.get(n);
+        }
+
+        return value;
+    }
+
+    /**
+     * Put value into the cache. Values outside of the checkpoint windows are
+     * only retained until 'width' more values have been added.
+     *
+     * @see com.invariantproperties.projecteuler.SequenceCache#put(int,
+     *      Object)
+     */
+    @Override
+    public synchronized void put(final int n, final E value) {
+        if ((n < staticCache.size()) || (n < 0)) {
+            return;
+        }
+
+        if (isCheckpoint(n)) {
+            checkpoints.put(n, value);
+        }
+
+        if (!recent.isEmpty() && (Math.abs(n - recent.lastKey()) > width)) {
+            recent.clear();
+        }
+
+        recent.put(n, value);
+
+        while (recent.size() > width) {
+            recent.remove(recent.firstKey());
+        }
+    }
+
+    /**
+     * Get number of checkpoint values held in the cache.
+     */
+    public synchronized int size() {
+        return checkpoints.size();
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.SequenceCache#reset()
+     */
+    @Override
+    public synchronized void reset() {
+        checkpoints.clear();
+        recent.clear();
+    }
+}
@@ -29,6 +29,9 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.invariantproperties.projecteuler.metrics.Metrics;
+import com.invariantproperties.projecteuler.metrics.SequenceMetrics;
+
 /**
  * Utility class to cache sequence values.
  * 
@@ -37,6 +40,7 @@ import java.util.Map;
 public class InMemorySequenceCache<E> implements SequenceCache<E> {
     private final List<E> staticCache = new ArrayList<E>();
     private final Map<Integer, E> dynamicCache;
+    private final SequenceMetrics metrics;
     private boolean isReadOnly = false;
     private boolean isInitialized = false;
 
@@ -55,12 +59,32 @@ public class InMemorySequenceCache<E> implements SequenceCache<E> {
      *            dynamic cache size
      */
     public InMemorySequenceCache(final int size) {
+        this(null, size);
+    }
+
+    /**
+     * Constructor for named cache. Named caches record hits, misses and
+     * evictions when metrics are enabled.
+     * 
+     * @param name
+     *            cache name, or null for unmonitored cache
+     * @param size
+     *            dynamic cache size
+     */
+    public InMemorySequenceCache(final String name, final int size) {
+        metrics = (name == null) ? null : Metrics.cache(name);
         dynamicCache = Collections.synchronizedMap(new LinkedHashMap<Integer, E>() {
             private static final long serialVersionUID = 1L;
 
             @Override
             protected boolean removeEldestEntry(Map.Entry<Integer, E> entry) {
-                return dynamicCache.size() > size;
+                boolean evict = dynamicCache.size() > size;
+
+                if (evict && (metrics != null) && Metrics.isEnabled()) {
+                    metrics.recordEviction(entry.getKey());
+                }
+
+                return evict;
             }
         });
     }
@@ -128,16 +152,24 @@ public class InMemorySequenceCache<E> implements SequenceCache<E> {
      */
     @Override
     public synchronized E get(final int n) {
+        E value = null;
+
         if (n < staticCache.size()) {
-            return staticCache.get(n);
+            value = staticCache.get(n);
+        } else {
+            // is value in larger (dynamic) cache?
+            value = dynamicCache.get(n);
         }
 
-        // is value in larger (dynamic) cache?
-        if (dynamicCache.containsKey(n)) {
-            return dynamicCache.get(n);
+        if ((metrics != null) && Metrics.isEnabled()) {
+            if (value == null) {
+                metrics.recordMiss(n);
+            } else {
+                metrics.recordHit(n);
+            }
         }
 
-        return null;
+        return value;
     }
 
     /**
@@ -0,0 +1,222 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler;
+
+import java.math.BigInteger;
+
+/**
+ * Exact integer arithmetic utilities.
+ * 
+ * @author Bear Giles <bgiles@coyotesong.com>
+ */
+public final class IntegerMath {
+    /**
+     * Largest value whose square fits in a long.
+     */
+    private static final long MAX_SQRT = 3037000499L;
+
+    /**
+     * Bit i is set if i is a quadratic residue mod 64.
+     */
+    private static final long SQUARES_MOD_64;
+
+    /**
+     * Quadratic residues mod 63, 65 and 11. Together with the residues mod 64
+     * these reject over 99% of non-squares without computing a square root.
+     */
+    private static final boolean[] SQUARES_MOD_63 = residues(63);
+    private static final boolean[] SQUARES_MOD_65 = residues(65);
+    private static final boolean[] SQUARES_MOD_11 = residues(11);
+
+    static {
+        long mask = 0;
+        for (int i = 0; i < 64; i++) {
+            mask |= 1L << ((i * i) & 63);
+        }
+        SQUARES_MOD_64 = mask;
+    }
+
+    private IntegerMath() {
+    }
+
+    /**
+     * Exact integer square root, floor(sqrt(x)). The floating point estimate
+     * can be off by one for large values so it's corrected with exact
+     * integer arithmetic.
+     * 
+     * @param x
+     * @return largest r such that r * r <= x
+     * @throws IllegalArgumentException
+     *             if x is negative
+     */
+    public static long isqrt(long x) {
+        if (x < 0) {
+            throw new IllegalArgumentException("value must be non-negative");
+        }
+
+        long r = Math.min((long) Math.sqrt((double) x), MAX_SQRT);
+
+        while ((r * r) > x) {
+            r--;
+        }
+
+        while ((r < MAX_SQRT) && (((r + 1) * (r + 1)) <= x)) {
+            r++;
+        }
+
+        return r;
+    }
+
+    /**
+     * Exact ceiling of the square root.
+     * 
+     * @param x
+     * @return smallest r such that r * r >= x
+     * @throws IllegalArgumentException
+     *             if x is negative
+     */
+    public static long ceilSqrt(long x) {
+        long r = isqrt(x);
+
+        return ((r * r) == x) ? r : r + 1;
+    }
+
+    /**
+     * Exact integer square root of a BigInteger, floor(sqrt(x)).
+     * 
+     * @param x
+     * @return largest r such that r * r <= x
+     * @throws IllegalArgumentException
+     *             if x is negative
+     */
+    public static BigInteger isqrt(BigInteger x) {
+        if (x.signum() < 0) {
+            throw new IllegalArgumentException("value must be non-negative");
+        }
+
+        if (x.bitLength() < 63) {
+            return BigInteger.valueOf(isqrt(x.longValue()));
+        }
+
+        return PlatformMath.sqrt(x);
+    }
+
+    /**
+     * Is x a perfect square? Most non-squares are rejected by quadratic
+     * residue tests mod 64, 63, 65 and 11 before the square root is computed.
+     * 
+     * @param x
+     * @return true if x = r * r for some integer r
+     */
+    public static boolean isPerfectSquare(long x) {
+        return sqrtExact(x) >= 0;
+    }
+
+    /**
+     * Exact square root. Most non-squares are rejected by quadratic residue
+     * tests mod 64, 63, 65 and 11 before the square root is computed, and the
+     * square root is computed at most once.
+     * 
+     * @param x
+     * @return r such that r * r = x, or -1 if x is not a perfect square
+     */
+    public static long sqrtExact(long x) {
+        if (x < 0) {
+            return -1;
+        }
+
+        if (((SQUARES_MOD_64 >>> (x & 63)) & 1) == 0) {
+            return -1;
+        }
+
+        // 45045 = 63 * 65 * 11
+        int r = (int) (x % 45045);
+
+        if (!SQUARES_MOD_63[r % 63] || !SQUARES_MOD_65[r % 65] || !SQUARES_MOD_11[r % 11]) {
+            return -1;
+        }
+
+        long s = isqrt(x);
+
+        return ((s * s) == x) ? s : -1;
+    }
+
+    /**
+     * Exact integer cube root, floor(cbrt(x)).
+     * 
+     * @param x
+     * @return largest r such that r * r * r <= x
+     * @throws IllegalArgumentException
+     *             if x is negative
+     */
+    public static long icbrt(long x) {
+        if (x < 0) {
+            throw new IllegalArgumentException("value must be non-negative");
+        }
+
+        // 2097151^3 is the largest cube that fits in a long.
+        long r = Math.min((long) Math.cbrt((double) x), 2097151L);
+
+        while ((r * r * r) > x) {
+            r--;
+        }
+
+        while ((r < 2097151L) && (((r + 1) * (r + 1) * (r + 1)) <= x)) {
+            r++;
+        }
+
+        return r;
+    }
+
+    /**
+     * Multiply two longs, throwing an exception on overflow.
+     * 
+     * @throws ArithmeticException
+     *             if the result overflows a long
+     */
+    public static long multiplyExact(long x, long y) {
+        return Math.multiplyExact(x, y);
+    }
+
+    /**
+     * Add two longs, throwing an exception on overflow.
+     * 
+     * @throws ArithmeticException
+     *             if the result overflows a long
+     */
+    public static long addExact(long x, long y) {
+        return Math.addExact(x, y);
+    }
+
+    /**
+     * Compute quadratic residues for the modulus.
+     */
+    private static boolean[] residues(int m) {
+        boolean[] residues = new boolean[m];
+        for (int i = 0; i < m; i++) {
+            residues[(i * i) % m] = true;
+        }
+
+        return residues;
+    }
+}
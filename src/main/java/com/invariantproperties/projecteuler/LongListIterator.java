@@ -0,0 +1,49 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler;
+
+import java.util.ListIterator;
+
+/**
+ * List iterator over primitive long values.
+ * 
+ * @author Bear Giles <bgiles@coyotesong.com>
+ */
+public interface LongListIterator extends LongIterator, ListIterator<Long> {
+    /**
+     * Get previous value without boxing it.
+     * 
+     * @throws java.util.NoSuchElementException
+     *             if there are no previous elements
+     */
+    long previousLong();
+
+    /**
+     * Get next value. This resolves the boxed next() inherited from both
+     * PrimitiveIterator.OfLong and ListIterator.
+     */
+    @Override
+    default Long next() {
+        return Long.valueOf(nextLong());
+    }
+}
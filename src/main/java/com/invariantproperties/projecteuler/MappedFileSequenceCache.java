@@ -0,0 +1,471 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Persistent cache backed by a pair of local files. Values are appended to a
+ * data file and located through a memory-mapped index file that holds the
+ * offset of the n-th value. Both files are read through FileChannel.map() so
+ * values survive JVM restarts and several processes can share the same files
+ * (one writer, any number of readers).
+ *
+ * Data file: a sequence of records (int n, int length, byte[length] value).
+ * Records are never modified or removed except by reset().
+ *
+ * Index file: a 32-byte header followed by one long per index. The long is
+ * the offset of the record in the data file plus one, or zero if the value
+ * is not cached. The index file is sparse on most file systems.
+ *
+ * Implementation note: a single mapping can't exceed 2 GB so indexes beyond
+ * roughly 268 million are silently not cached, and records beyond the first
+ * 2 GB of the data file are read with a positional read instead of the
+ * mapping.
+ *
+ * @author Bear Giles <bgiles@coyotesong.com>
+ */
+public class MappedFileSequenceCache implements SequenceCache<BigInteger>, Closeable {
+    private static final int MAGIC = 0x53455143;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int STATIC_COUNT = 8;
+    private static final int STATIC_LENGTH = 16;
+    private static final int RECORD_HEADER = 8;
+    private static final int MIN_SLOTS = 1024;
+    private static final long MAX_MAPPING = Integer.MAX_VALUE;
+
+    private final File dataFile;
+    private final File indexFile;
+    private final boolean isWritable;
+    private final FileChannel data;
+    private final FileChannel index;
+    private MappedByteBuffer dataMap;
+    private MappedByteBuffer indexMap;
+    private boolean isReadOnly;
+
+    /**
+     * Constructor for writable cache. The files are created if necessary.
+     *
+     * @param file
+     *            data file. The index file has the same name plus ".idx".
+     * @throws IllegalStateException
+     *             if the files can't be opened
+     */
+    public MappedFileSequenceCache(File file) {
+        this(file, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param file
+     *            data file. The index file has the same name plus ".idx".
+     * @param readOnly
+     *            open the files read-only. The files must already exist.
+     * @throws IllegalStateException
+     *             if the files can't be opened
+     */
+    public MappedFileSequenceCache(File file, boolean readOnly) {
+        this.dataFile = file;
+        this.indexFile = new File(file.getPath() + ".idx");
+        this.isWritable = !readOnly;
+        this.isReadOnly = readOnly;
+
+        FileChannel d = null;
+        FileChannel i = null;
+
+        try {
+            if (readOnly) {
+                d = FileChannel.open(dataFile.toPath(), StandardOpenOption.READ);
+                i = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ);
+            } else {
+                d = FileChannel.open(dataFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE,
+                        StandardOpenOption.CREATE);
+                i = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE,
+                        StandardOpenOption.CREATE);
+            }
+        } catch (IOException e) {
+            closeQuietly(d);
+            throw new IllegalStateException("unable to open cache " + file, e);
+        }
+
+        this.data = d;
+        this.index = i;
+
+        boolean isOpen = false;
+
+        try {
+            if (readOnly && (index.size() < HEADER_SIZE)) {
+                throw new IllegalArgumentException("not a sequence cache index: " + indexFile);
+            }
+
+            mapIndex(0);
+            mapData();
+
+            if (isWritable && (indexMap.getInt(0) != MAGIC)) {
+                indexMap.putInt(0, MAGIC);
+                indexMap.putInt(4, VERSION);
+                indexMap.putLong(STATIC_COUNT, -1L);
+                indexMap.putLong(STATIC_LENGTH, 0L);
+            }
+
+            if (indexMap.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException("not a sequence cache index: " + indexFile);
+            }
+
+            isOpen = true;
+        } catch (IOException e) {
+            throw new IllegalStateException("unable to open cache " + file, e);
+        } finally {
+            if (!isOpen) {
+                closeQuietly(data);
+                closeQuietly(index);
+            }
+        }
+    }
+
+    /**
+     * Get the data file.
+     */
+    public File getFile() {
+        return dataFile;
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.SequenceCache#isReadOnly()
+     */
+    @Override
+    public synchronized boolean isReadOnly() {
+        return isReadOnly;
+    }
+
+    /**
+     * Set cache read-only. A cache that was opened read-only can't be made
+     * writable.
+     *
+     * @see com.invariantproperties.projecteuler.SequenceCache#setReadOnly(boolean)
+     */
+    @Override
+    public synchronized void setReadOnly(boolean isReadOnly) {
+        this.isReadOnly = isReadOnly || !isWritable;
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.SequenceCache#isInitialized()
+     */
+    @Override
+    public synchronized boolean isInitialized() {
+        return indexMap.getLong(STATIC_COUNT) >= 0;
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.SequenceCache#initialize(java.util.List)
+     */
+    @Override
+    public synchronized boolean initialize(List<BigInteger> values) {
+        return initialize(values.iterator(), values.size());
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.SequenceCache#initialize(java.util.Iterator,
+     *      long)
+     */
+    @Override
+    public synchronized boolean initialize(Iterator<BigInteger> iterator, long count) {
+        if (isInitialized()) {
+            throw new IllegalStateException("Cache is already initialized");
+        }
+
+        if (isReadOnly) {
+            throw new UnsupportedOperationException("Cache is read-only");
+        }
+
+        int n = 0;
+
+        for (; (n < count) && iterator.hasNext(); n++) {
+            append(n, iterator.next());
+        }
+
+        try {
+            indexMap.putLong(STATIC_LENGTH, data.size());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        indexMap.putLong(STATIC_COUNT, n);
+
+        return true;
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.SequenceCache#get(int)
+     */
+    @Override
+    public synchronized BigInteger get(int n) {
+        long offset = getOffset(n);
+
+        if (offset < 0) {
+            return null;
+        }
+
+        try {
+            ByteBuffer header = read(offset, RECORD_HEADER);
+            int m = header.getInt();
+            int length = header.getInt();
+
+            if (m != n) {
+                throw new IllegalStateException("corrupted cache index at " + n);
+            }
+
+            byte[] bytes = new byte[length];
+            read(offset + RECORD_HEADER, length).get(bytes);
+
+            return new BigInteger(bytes);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Put value into the cache. The value is silently discarded if this is a
+     * read-only cache, the value is already cached, or the index is too large
+     * for the index file.
+     *
+     * @see com.invariantproperties.projecteuler.SequenceCache#put(int,
+     *      Object)
+     */
+    @Override
+    public synchronized void put(int n, BigInteger value) {
+        if (isReadOnly || (n < 0) || (n >= maxSlots()) || (getOffset(n) >= 0)) {
+            return;
+        }
+
+        append(n, value);
+    }
+
+    /**
+     * Reset the cache to its newly-initialized state. This discards every
+     * value added after initialization.
+     *
+     * @see com.invariantproperties.projecteuler.SequenceCache#reset()
+     */
+    @Override
+    public synchronized void reset() {
+        if (isReadOnly) {
+            throw new UnsupportedOperationException("Cache is read-only");
+        }
+
+        long staticCount = Math.max(0L, indexMap.getLong(STATIC_COUNT));
+        long length = indexMap.getLong(STATIC_LENGTH);
+
+        try {
+            FileLock lock = data.lock();
+
+            try {
+                for (long pos = HEADER_SIZE + (8 * staticCount); pos < indexMap.capacity(); pos += 8) {
+                    indexMap.putLong((int) pos, 0L);
+                }
+
+                data.truncate(length);
+                mapData();
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Flush changes and close the files.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (isWritable) {
+            indexMap.force();
+            data.force(false);
+        }
+
+        data.close();
+        index.close();
+    }
+
+    /**
+     * Append a record and update the index.
+     */
+    private void append(int n, BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER + bytes.length);
+        buffer.putInt(n).putInt(bytes.length).put(bytes).flip();
+
+        // the lock prevents other processes from appending at the same time.
+        try {
+            FileLock lock = data.lock();
+
+            try {
+                // another process may have appended the value since we
+                // last checked.
+                if (getOffset(n) >= 0) {
+                    return;
+                }
+
+                long offset = data.size();
+
+                while (buffer.hasRemaining()) {
+                    data.write(buffer, offset + buffer.position());
+                }
+
+                ensureIndexCapacity(n);
+                indexMap.putLong(HEADER_SIZE + (8 * n), offset + 1);
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Get the offset of the n-th record in the data file, or -1 if it's not
+     * cached. Other processes may have extended the index since we mapped it.
+     */
+    private long getOffset(int n) {
+        if (n < 0) {
+            return -1;
+        }
+
+        long pos = HEADER_SIZE + (8L * n);
+
+        if ((pos + 8) > indexMap.capacity()) {
+            try {
+                if ((pos + 8) > index.size()) {
+                    return -1;
+                }
+
+                mapIndex(0);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        return indexMap.getLong((int) pos) - 1;
+    }
+
+    /**
+     * Get a view of 'length' bytes of the data file starting at 'offset'.
+     * We remap the data file if another writer has extended it.
+     */
+    private ByteBuffer read(long offset, int length) throws IOException {
+        if ((offset + length) > dataMap.capacity()) {
+            mapData();
+        }
+
+        if ((offset + length) > dataMap.capacity()) {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+
+            while (buffer.hasRemaining()) {
+                if (data.read(buffer, offset + buffer.position()) < 0) {
+                    throw new IOException("unexpected end of file " + dataFile);
+                }
+            }
+
+            buffer.flip();
+
+            return buffer;
+        }
+
+        ByteBuffer buffer = dataMap.duplicate();
+        buffer.position((int) offset);
+        buffer.limit((int) offset + length);
+
+        return buffer.slice();
+    }
+
+    /**
+     * Make sure the index can hold the n-th slot.
+     */
+    private void ensureIndexCapacity(int n) throws IOException {
+        long required = HEADER_SIZE + (8L * (n + 1));
+
+        if (required > indexMap.capacity()) {
+            mapIndex(required);
+        }
+    }
+
+    /**
+     * Maximum number of slots in the index.
+     */
+    private static long maxSlots() {
+        return (MAX_MAPPING - HEADER_SIZE) / 8;
+    }
+
+    /**
+     * (Re)map the index file. Writable indexes grow in powers of two.
+     */
+    private void mapIndex(long required) throws IOException {
+        if (isWritable) {
+            long slots = MIN_SLOTS;
+            long size = Math.max(required, index.size());
+
+            while ((HEADER_SIZE + (8 * slots)) < size) {
+                slots *= 2;
+            }
+
+            size = Math.min(HEADER_SIZE + (8 * slots), MAX_MAPPING);
+            indexMap = index.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } else {
+            indexMap = index.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(index.size(), MAX_MAPPING));
+        }
+    }
+
+    /**
+     * Close channel, ignoring errors. This is only used on failure paths.
+     */
+    private static void closeQuietly(Closeable channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // ignored
+            }
+        }
+    }
+
+    /**
+     * (Re)map the data file.
+     */
+    private void mapData() throws IOException {
+        dataMap = data.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(data.size(), MAX_MAPPING));
+    }
+}
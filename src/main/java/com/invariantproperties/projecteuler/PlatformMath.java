@@ -0,0 +1,75 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler;
+
+import java.math.BigInteger;
+
+/**
+ * Arithmetic primitives whose fastest implementation depends on the JDK
+ * release. This is the Java 8 implementation. The multi-release jar contains
+ * an implementation for Java 9 and later, in src/main/java9, that uses
+ * BigInteger.sqrt() and Math.multiplyHigh(). Both implementations must have
+ * the same public API.
+ * 
+ * Most callers should use {@link IntegerMath} instead.
+ * 
+ * @author Bear Giles <bgiles@coyotesong.com>
+ */
+public final class PlatformMath {
+
+    private PlatformMath() {
+    }
+
+    /**
+     * Integer square root of a non-negative BigInteger, floor(sqrt(x)).
+     * Newton's method from an initial value above the root converges
+     * monotonically from above.
+     */
+    public static BigInteger sqrt(BigInteger x) {
+        if (x.signum() == 0) {
+            return x;
+        }
+
+        BigInteger r = BigInteger.ONE.shiftLeft((x.bitLength() + 1) / 2);
+
+        while (true) {
+            BigInteger y = r.add(x.divide(r)).shiftRight(1);
+            if (y.compareTo(r) >= 0) {
+                return r;
+            }
+            r = y;
+        }
+    }
+
+    /**
+     * Compute (a * b) % m for 0 &lt;= a, b &lt; m. There is no 128-bit
+     * product before Java 9 so large moduli fall back to BigInteger.
+     */
+    public static long mulmod(long a, long b, long m) {
+        if ((a < 3037000499L) && (b < 3037000499L)) {
+            return (a * b) % m;
+        }
+
+        return BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)).mod(BigInteger.valueOf(m)).longValue();
+    }
+}
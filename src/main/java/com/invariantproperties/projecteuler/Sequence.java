@@ -23,6 +23,10 @@
 package com.invariantproperties.projecteuler;
 
 import java.util.ListIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Semi-infinite sequence. That is, a sequence with elements at 0, 1, 2,...
@@ -95,4 +99,38 @@ public interface Sequence<E> extends Iterable<E> {
      * Get a finite sublist.
      */
     SequenceList<E> subList(int startIndex, int lastIndex);
+
+    /**
+     * Get a sequential stream of the entire semi-infinite sequence. The stream
+     * must be bounded, e.g., with limit(), before it is consumed.
+     */
+    default Stream<E> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(listIterator(), Spliterator.ORDERED
+                | Spliterator.IMMUTABLE | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Get a sequential stream of the elements in the specified range.
+     * 
+     * @param startIndex
+     *            first index, inclusive
+     * @param endIndex
+     *            last index, exclusive
+     */
+    default Stream<E> stream(int startIndex, int endIndex) {
+        return StreamSupport.stream(new SequenceSpliterator<E>(this, startIndex, endIndex), false);
+    }
+
+    /**
+     * Get a parallel stream of the elements in the specified range. The range
+     * is split by index so it is evenly distributed across the workers.
+     * 
+     * @param startIndex
+     *            first index, inclusive
+     * @param endIndex
+     *            last index, exclusive
+     */
+    default Stream<E> parallelStream(int startIndex, int endIndex) {
+        return StreamSupport.stream(new SequenceSpliterator<E>(this, startIndex, endIndex), true);
+    }
 }
@@ -23,6 +23,9 @@
 package com.invariantproperties.projecteuler;
 
 import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Sequence that also provides unmodifiable List semantics, specifically the
@@ -35,4 +38,29 @@ import java.util.List;
  * @author Bear Giles <bgiles@coyotesong.com>
  */
 public interface SequenceList<E> extends Sequence<E>, List<E> {
+
+    /**
+     * Get a spliterator that splits the list by index.
+     */
+    @Override
+    default Spliterator<E> spliterator() {
+        return new SequenceSpliterator<E>(this, 0, size());
+    }
+
+    /**
+     * Get a sequential stream of the list.
+     */
+    @Override
+    default Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Get a parallel stream of the list. The list is split by index so it is
+     * evenly distributed across the workers.
+     */
+    @Override
+    default Stream<E> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
 }
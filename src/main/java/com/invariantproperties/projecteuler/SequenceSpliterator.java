@@ -0,0 +1,139 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler;
+
+import java.util.ListIterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over a range of indices of a
+ * {@link com.invariantproperties.projecteuler.Sequence}. Splitting halves the
+ * range of indices without touching the elements so parallel streams
+ * distribute the range evenly across the workers. Each part then uses random
+ * access to its first element and a list iterator for the rest, so a
+ * recurrence sequence only pays for one direct computation per part.
+ * 
+ * @author Bear Giles <bgiles@coyotesong.com>
+ * 
+ * @param <E>
+ */
+public class SequenceSpliterator<E> implements Spliterator<E> {
+    private final Sequence<E> sequence;
+    private int index;
+    private final int fence;
+
+    /**
+     * Constructor.
+     * 
+     * @param sequence
+     * @param startIndex
+     *            first index, inclusive
+     * @param endIndex
+     *            last index, exclusive
+     */
+    public SequenceSpliterator(Sequence<E> sequence, int startIndex, int endIndex) {
+        if (sequence == null) {
+            throw new IllegalArgumentException("sequence must not be null");
+        }
+
+        if (startIndex < 0) {
+            throw new IllegalArgumentException("startIndex must be non-negative");
+        }
+
+        if (endIndex < startIndex) {
+            throw new IllegalArgumentException("endIndex must not be smaller than startIndex");
+        }
+
+        this.sequence = sequence;
+        this.index = startIndex;
+        this.fence = endIndex;
+    }
+
+    /**
+     * @see java.util.Spliterator#tryAdvance(java.util.function.Consumer)
+     */
+    @Override
+    public boolean tryAdvance(Consumer<? super E> action) {
+        if (index >= fence) {
+            return false;
+        }
+
+        action.accept(sequence.get(index++));
+
+        return true;
+    }
+
+    /**
+     * @see java.util.Spliterator#forEachRemaining(java.util.function.Consumer)
+     */
+    @Override
+    public void forEachRemaining(Consumer<? super E> action) {
+        if (index >= fence) {
+            return;
+        }
+
+        ListIterator<E> iter = sequence.listIterator(index);
+        int end = fence;
+        index = fence;
+
+        for (int i = iter.nextIndex(); i < end; i++) {
+            action.accept(iter.next());
+        }
+    }
+
+    /**
+     * @see java.util.Spliterator#trySplit()
+     */
+    @Override
+    public Spliterator<E> trySplit() {
+        int lo = index;
+        int mid = (lo + fence) >>> 1;
+
+        if (lo >= mid) {
+            return null;
+        }
+
+        index = mid;
+
+        return new SequenceSpliterator<E>(sequence, lo, mid);
+    }
+
+    /**
+     * @see java.util.Spliterator#estimateSize()
+     */
+    @Override
+    public long estimateSize() {
+        return fence - index;
+    }
+
+    /**
+     * @see java.util.Spliterator#characteristics()
+     */
+    @Override
+    public int characteristics() {
+        int c = ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+
+        return sequence.isUnique() ? (c | DISTINCT) : c;
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Store of sequence terms shared by all instances of a sequence. The store
+ * is keyed by the OEIS sequence number so short-lived sequence objects don't
+ * recompute and duplicate the same terms.
+ * 
+ * Computation is single-flight: concurrent requests for the same missing
+ * term wait for the first request instead of computing it again. The cache
+ * lock is not held while a term is computed so requests for different terms
+ * can proceed in parallel.
+ * 
+ * @author Bear Giles <bgiles@coyotesong.com>
+ */
+public final class SequenceTermStore<E> {
+    private static final ConcurrentMap<String, SequenceTermStore<?>> STORES = new ConcurrentHashMap<String, SequenceTermStore<?>>();
+
+    private final String oeis;
+    private final SequenceCache<E> cache;
+    private final ConcurrentMap<Integer, FutureTask<E>> inFlight = new ConcurrentHashMap<Integer, FutureTask<E>>();
+
+    /**
+     * Constructor for an unshared store.
+     * 
+     * @param oeis
+     *            OEIS sequence number, or null
+     * @param cache
+     */
+    public SequenceTermStore(String oeis, SequenceCache<E> cache) {
+        if (cache == null) {
+            throw new IllegalArgumentException("cache must not be null");
+        }
+
+        this.oeis = oeis;
+        this.cache = cache;
+    }
+
+    /**
+     * Get the shared store for a sequence class. The key is the OEIS sequence
+     * number in the class's @Sequence annotation.
+     * 
+     * @param sequenceClass
+     * @param factory
+     *            creates the cache the first time the store is requested
+     */
+    public static <E> SequenceTermStore<E> forSequence(Class<?> sequenceClass,
+            Supplier<? extends SequenceCache<E>> factory) {
+        com.invariantproperties.projecteuler.annotation.Sequence annotation = sequenceClass
+                .getAnnotation(com.invariantproperties.projecteuler.annotation.Sequence.class);
+
+        if (annotation == null) {
+            throw new IllegalArgumentException(sequenceClass.getName() + " does not have a @Sequence annotation");
+        }
+
+        return forSequence(annotation.oeis(), factory);
+    }
+
+    /**
+     * Get the shared store for an OEIS sequence.
+     * 
+     * @param oeis
+     *            OEIS sequence number
+     * @param factory
+     *            creates the cache the first time the store is requested
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> SequenceTermStore<E> forSequence(final String oeis,
+            final Supplier<? extends SequenceCache<E>> factory) {
+        return (SequenceTermStore<E>) STORES.computeIfAbsent(oeis,
+                key -> new SequenceTermStore<E>(key, factory.get()));
+    }
+
+    /**
+     * Get OEIS sequence number, or null if the store isn't shared.
+     */
+    public String getOeisSequenceNumber() {
+        return oeis;
+    }
+
+    /**
+     * Get the backing cache. Callers must synchronize on the cache when they
+     * access it directly.
+     */
+    public SequenceCache<E> getCache() {
+        return cache;
+    }
+
+    /**
+     * Get cached value, or null if it isn't cached.
+     */
+    public E get(int n) {
+        synchronized (cache) {
+            return cache.get(n);
+        }
+    }
+
+    /**
+     * Get value, computing and caching it if necessary. Only one thread
+     * computes any missing value.
+     * 
+     * @param n
+     * @param function
+     *            computes the value without holding the cache lock
+     */
+    public E get(final int n, final IntFunction<E> function) {
+        E value = get(n);
+
+        if (value == null) {
+            FutureTask<E> task = inFlight.get(n);
+
+            if (task == null) {
+                FutureTask<E> t = new FutureTask<E>(() -> {
+                    E v = get(n);
+                    if (v == null) {
+                        v = function.apply(n);
+                        synchronized (cache) {
+                            cache.put(n, v);
+                        }
+                    }
+                    return v;
+                });
+
+                task = inFlight.putIfAbsent(n, t);
+                if (task == null) {
+                    task = t;
+                    try {
+                        t.run();
+                    } finally {
+                        inFlight.remove(n, t);
+                    }
+                }
+            }
+
+            value = await(task);
+        }
+
+        return value;
+    }
+
+    /**
+     * Get number of values being computed.
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Wait for a computation, rethrowing its exception.
+     */
+    private static <E> E await(FutureTask<E> task) {
+        boolean interrupted = false;
+
+        try {
+            while (true) {
+                try {
+                    return task.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new IllegalStateException(cause);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
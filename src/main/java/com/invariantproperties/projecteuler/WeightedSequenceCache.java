@@ -0,0 +1,332 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+import com.invariantproperties.projecteuler.metrics.Metrics;
+import com.invariantproperties.projecteuler.metrics.SequenceMetrics;
+
+/**
+ * Sequence cache bounded by the total size of the retained values instead of
+ * the number of entries. The terms of most recurrence sequences grow
+ * exponentially so a count-bounded cache is either too small for the early
+ * terms or far too large for the late ones.
+ * 
+ * Values are held strongly in LRU order until the total weight exceeds the
+ * limit. Evicted values optionally move to a soft-reference tier that the
+ * garbage collector can reclaim under memory pressure. A value found in the
+ * soft tier is promoted back to the strong tier.
+ * 
+ * The initial values are always retained and count towards the footprint.
+ * 
+ * @author Bear Giles <bgiles@coyotesong.com>
+ */
+public class WeightedSequenceCache<E> implements SequenceCache<E> {
+    // approximate size of a BigInteger and its int[] without the magnitude.
+    private static final long BIGINTEGER_OVERHEAD = 56;
+
+    private final long maxWeight;
+    private final ToLongFunction<? super E> weigher;
+    private final boolean useSoftReferences;
+    private final SequenceMetrics metrics;
+
+    private final List<E> staticCache = new ArrayList<E>();
+    private final LinkedHashMap<Integer, E> strong = new LinkedHashMap<Integer, E>(16, 0.75f, true);
+    private final Map<Integer, IndexedSoftReference<E>> soft = new HashMap<Integer, IndexedSoftReference<E>>();
+    private final ReferenceQueue<E> queue = new ReferenceQueue<E>();
+
+    private long staticWeight;
+    private long strongWeight;
+    private boolean isReadOnly = false;
+    private boolean isInitialized = false;
+
+    /**
+     * Constructor.
+     * 
+     * @param name
+     *            cache name, or null for unmonitored cache
+     * @param maxWeight
+     *            maximum total weight of the strongly held values, excluding
+     *            the initial values
+     * @param weigher
+     *            function computing the weight of a value, usually its size
+     *            in bytes
+     * @param useSoftReferences
+     *            keep evicted values in a soft-reference tier
+     */
+    public WeightedSequenceCache(String name, long maxWeight, ToLongFunction<? super E> weigher,
+            boolean useSoftReferences) {
+        if (maxWeight < 0) {
+            throw new IllegalArgumentException("maxWeight must be non-negative");
+        }
+
+        if (weigher == null) {
+            throw new IllegalArgumentException("weigher must not be null");
+        }
+
+        this.metrics = (name == null) ? null : Metrics.cache(name);
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.useSoftReferences = useSoftReferences;
+    }
+
+    /**
+     * Create a cache of BigIntegers bounded by the approximate number of bytes
+     * retained.
+     * 
+     * @param name
+     *            cache name, or null for unmonitored cache
+     * @param maxBytes
+     * @param useSoftReferences
+     *            keep evicted values in a soft-reference tier
+     */
+    public static WeightedSequenceCache<BigInteger> forBigIntegers(String name, long maxBytes,
+            boolean useSoftReferences) {
+        return new WeightedSequenceCache<BigInteger>(name, maxBytes, new ToLongFunction<BigInteger>() {
+            @Override
+            public long applyAsLong(BigInteger value) {
+                return weigh(value);
+            }
+        }, useSoftReferences);
+    }
+
+    /**
+     * Get the approximate number of bytes retained by a BigInteger.
+     */
+    public static long weigh(BigInteger value) {
+        return BIGINTEGER_OVERHEAD + (4L * ((value.bitLength() + 31) / 32));
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.SequenceCache#isInitialized()
+     */
+    @Override
+    public boolean isInitialized() {
+        return isInitialized;
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.SequenceCache#isReadOnly()
+     */
+    @Override
+    public boolean isReadOnly() {
+        return isReadOnly;
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.SequenceCache#setReadOnly(boolean)
+     */
+    @Override
+    public void setReadOnly(boolean isReadOnly) {
+        this.isReadOnly = isReadOnly;
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.SequenceCache#initialize(java.util.List)
+     */
+    @Override
+    public synchronized boolean initialize(final List<E> values) {
+        return initialize(values.iterator(), values.size());
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.SequenceCache#initialize(java.util.Iterator,
+     *      long)
+     */
+    @Override
+    public synchronized boolean initialize(final Iterator<E> iterator, long count) {
+        if (isInitialized) {
+            throw new IllegalStateException("Cache is already initialized");
+        }
+
+        for (int i = 0; (i < count) && iterator.hasNext(); i++) {
+            E value = iterator.next();
+            staticCache.add(value);
+            staticWeight += weigher.applyAsLong(value);
+        }
+
+        isInitialized = true;
+
+        return true;
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.SequenceCache#get(int)
+     */
+    @Override
+    public synchronized E get(final int n) {
+        E value = null;
+
+        if (n < staticCache.size()) {
+            value = staticCache.get(n);
+        } else {
+            value = strong.get(n);
+
+            if ((value == null) && useSoftReferences) {
+                expunge();
+                IndexedSoftReference<E> ref = soft.remove(n);
+                if (ref != null) {
+                    value = ref.get();
+                    if (value != null) {
+                        retain(n, value);
+                    }
+                }
+            }
+        }
+
+        if ((metrics != null) && Metrics.isEnabled()) {
+            if (value == null) {
+                metrics.recordMiss(n);
+            } else {
+                metrics.recordHit(n);
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.SequenceCache#put(int,
+     *      Object)
+     */
+    @Override
+    public synchronized void put(final int n, final E value) {
+        if ((n < staticCache.size()) || (value == null)) {
+            return;
+        }
+
+        if (useSoftReferences) {
+            expunge();
+            soft.remove(n);
+        }
+
+        retain(n, value);
+    }
+
+    /**
+     * Add value to the strong tier and evict the least recently used values
+     * until the total weight is within the limit. A value heavier than the
+     * limit goes directly to the soft tier.
+     */
+    private void retain(int n, E value) {
+        E previous = strong.put(n, value);
+        if (previous != null) {
+            strongWeight -= weigher.applyAsLong(previous);
+        }
+        strongWeight += weigher.applyAsLong(value);
+
+        Iterator<Map.Entry<Integer, E>> iter = strong.entrySet().iterator();
+        while ((strongWeight > maxWeight) && iter.hasNext()) {
+            Map.Entry<Integer, E> entry = iter.next();
+            iter.remove();
+            strongWeight -= weigher.applyAsLong(entry.getValue());
+
+            if (useSoftReferences) {
+                soft.put(entry.getKey(), new IndexedSoftReference<E>(entry.getKey(), entry.getValue(), queue));
+            }
+
+            if ((metrics != null) && Metrics.isEnabled()) {
+                metrics.recordEviction(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Remove entries whose values have been reclaimed by the garbage
+     * collector.
+     */
+    private void expunge() {
+        for (Reference<? extends E> ref = queue.poll(); ref != null; ref = queue.poll()) {
+            IndexedSoftReference<?> r = (IndexedSoftReference<?>) ref;
+            if (soft.get(r.index) == r) {
+                soft.remove(r.index);
+            }
+        }
+    }
+
+    /**
+     * Get the maximum weight of the strong tier.
+     */
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Get the current footprint: the total weight of the initial values and
+     * the strongly held values. Values in the soft tier are not included
+     * since they can be reclaimed at any time.
+     */
+    public synchronized long getWeight() {
+        return staticWeight + strongWeight;
+    }
+
+    /**
+     * Get the number of strongly held values, excluding the initial values.
+     */
+    public synchronized int getStrongSize() {
+        return strong.size();
+    }
+
+    /**
+     * Get the number of values in the soft tier that have not been reclaimed
+     * yet.
+     */
+    public synchronized int getSoftSize() {
+        expunge();
+        return soft.size();
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.SequenceCache#reset()
+     */
+    @Override
+    public synchronized void reset() {
+        strong.clear();
+        soft.clear();
+        strongWeight = 0;
+        expunge();
+    }
+
+    /**
+     * Soft reference that remembers its index so it can be expunged.
+     */
+    private static final class IndexedSoftReference<E> extends SoftReference<E> {
+        private final int index;
+
+        IndexedSoftReference(int index, E value, ReferenceQueue<? super E> queue) {
+            super(value, queue);
+            this.index = index;
+        }
+    }
+}
@@ -22,13 +22,20 @@
  */
 package com.invariantproperties.projecteuler.annotation;
 
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
 
 /**
  * Marker interface for semi-infinite sequences. The only required
- * attribute is the OEIS sequence.
+ * attribute is the OEIS sequence. It is retained at runtime since the
+ * OEIS sequence is the key of the shared term stores.
  *
  * @author bgiles
  */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
 public @interface Sequence {
     String oeis();
 }
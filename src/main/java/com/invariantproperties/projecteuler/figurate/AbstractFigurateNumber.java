@@ -0,0 +1,376 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.figurate;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+import com.invariantproperties.projecteuler.AbstractListIterator;
+import com.invariantproperties.projecteuler.AbstractSequence;
+import com.invariantproperties.projecteuler.LongListIterator;
+import com.invariantproperties.projecteuler.NumericSequenceList;
+import com.invariantproperties.projecteuler.SequenceList;
+
+/**
+ * Abstract figurate numbers given by a polynomial of fixed degree in the
+ * rank. Subclasses provide overflow-checked and BigInteger closed forms; this
+ * class provides the long range, exact membership test and iterators that
+ * step through the values with forward differences (one addition per degree
+ * per element).
+ *
+ * Values are longs up to getMaxIndex(). Larger values are only available
+ * through getBigInteger().
+ *
+ * @author bgiles
+ */
+public abstract class AbstractFigurateNumber extends AbstractSequence<Long> {
+    private final int degree;
+    private int maxIndex = -1;
+
+    /**
+     * Constructor.
+     *
+     * @param degree
+     *            degree of the polynomial
+     */
+    protected AbstractFigurateNumber(int degree) {
+        if (degree < 1) {
+            throw new IllegalArgumentException("degree must be positive");
+        }
+
+        this.degree = degree;
+    }
+
+    /**
+     * Get value at rank n.
+     *
+     * @throws ArithmeticException
+     *             if the value doesn't fit in a long
+     */
+    protected abstract long value(long n);
+
+    /**
+     * Get value at rank n as a BigInteger.
+     */
+    protected abstract BigInteger bigValue(long n);
+
+    /**
+     * Get an estimate of the rank of x. The estimate must be within a few
+     * ranks of the actual rank.
+     */
+    protected abstract long estimateRank(long x);
+
+    /**
+     * Get degree of the polynomial.
+     */
+    public final int getDegree() {
+        return degree;
+    }
+
+    /**
+     * Get the largest rank whose value fits in a long.
+     */
+    public final synchronized int getMaxIndex() {
+        if (maxIndex < 0) {
+            int lo = 0;
+            int hi = Integer.MAX_VALUE - degree - 1;
+
+            while (lo < hi) {
+                int mid = (int) ((lo + (long) hi + 1) / 2);
+                if (fits(mid)) {
+                    lo = mid;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+
+            maxIndex = lo;
+        }
+
+        return maxIndex;
+    }
+
+    private boolean fits(long n) {
+        try {
+            value(n);
+            return true;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Get specified value.
+     *
+     * @throws ArithmeticException
+     *             if the value doesn't fit in a long. Use getBigInteger().
+     */
+    @Override
+    public final Long get(int n) {
+        return Long.valueOf(getLong(n));
+    }
+
+    /**
+     * Get specified value without boxing it.
+     *
+     * @throws ArithmeticException
+     *             if the value doesn't fit in a long. Use getBigInteger().
+     */
+    public final long getLong(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("index must be non-negative");
+        }
+
+        return value(n);
+    }
+
+    /**
+     * Get specified value. This uses long arithmetic when possible and falls
+     * back to BigInteger arithmetic for larger values.
+     */
+    public final BigInteger getBigInteger(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("index must be non-negative");
+        }
+
+        if (n <= getMaxIndex()) {
+            return BigInteger.valueOf(value(n));
+        }
+
+        return bigValue(n);
+    }
+
+    /**
+     * Get the rank of x, or -1 if x isn't a member of this sequence.
+     */
+    public final long rank(long x) {
+        int max = getMaxIndex();
+        long r = Math.max(0L, Math.min(estimateRank(x) - 2, max));
+
+        // the estimate should be within a couple of ranks but fall back to a
+        // binary search if it isn't.
+        for (int i = 0; (i < 5) && (r <= max); i++, r++) {
+            long v = value(r);
+            if (v == x) {
+                return lowestRank(r);
+            }
+            if (v > x) {
+                return (i == 0 && r > 0) ? search(x, 0, r - 1) : -1;
+            }
+        }
+
+        return (r > max) ? -1 : search(x, r, max);
+    }
+
+    /**
+     * Values at the start of some sequences repeat so return the lowest
+     * rank.
+     */
+    private long lowestRank(long r) {
+        while ((r > 0) && (value(r - 1) == value(r))) {
+            r--;
+        }
+
+        return r;
+    }
+
+    private long search(long x, long lo, long hi) {
+        while (lo <= hi) {
+            long mid = (lo + hi) >>> 1;
+            long v = value(mid);
+            if (v == x) {
+                return lowestRank(mid);
+            } else if (v < x) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Get the index of x, or -1 if x isn't a member of this sequence.
+     */
+    public final int indexOf(long x) {
+        return (int) rank(x);
+    }
+
+    /**
+     * Does this sequence contain x?
+     */
+    public final boolean contains(long x) {
+        return rank(x) >= 0;
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.Sequence#subList(int, int)
+     */
+    @Override
+    public SequenceList<Long> subList(int startIndex, int lastIndex) {
+        if (startIndex < 0) {
+            throw new IllegalArgumentException("fromIndex must be non-negative");
+        }
+
+        if (!(startIndex < lastIndex)) {
+            throw new IllegalArgumentException("fromIndex must be smaller than endIndex");
+        }
+
+        List<Long> elements = new ArrayList<Long>(lastIndex - startIndex);
+        LongListIterator iter = longListIterator(startIndex);
+
+        for (int i = startIndex; i < lastIndex; i++) {
+            elements.add(iter.next());
+        }
+
+        return new NumericSequenceList<Long>(elements, getOeisSequenceNumber(), isUnique());
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.Sequence#iterator()
+     */
+    @Override
+    public Iterator<Long> iterator() {
+        return new DifferenceIterator(0);
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.Sequence#listIterator()
+     */
+    @Override
+    public ListIterator<Long> listIterator() {
+        return new DifferenceIterator(0);
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.Sequence#listIterator(int)
+     */
+    @Override
+    public ListIterator<Long> listIterator(int startIndex) {
+        return new DifferenceIterator(startIndex);
+    }
+
+    /**
+     * Get primitive list iterator. Iteration stops at getMaxIndex().
+     */
+    public LongListIterator longListIterator(int startIndex) {
+        return new DifferenceIterator(startIndex);
+    }
+
+    /**
+     * Iterator using forward differences. d[0] is the value at the current
+     * index and d[j] is the j-th forward difference. Arithmetic wraps modulo
+     * 2^64 so intermediate differences may overflow but every value up to the
+     * maximum index is exact.
+     *
+     * @author bgiles
+     */
+    private final class DifferenceIterator extends AbstractListIterator<Long> implements LongListIterator {
+        private final long[] d = new long[degree + 1];
+        private final int max = getMaxIndex();
+
+        DifferenceIterator(int startIndex) {
+            seek(startIndex);
+            if (startIndex == 0) {
+                seekTo(0);
+            }
+        }
+
+        /**
+         * Compute the difference table at the index directly.
+         */
+        @Override
+        protected void seekTo(int index) {
+            for (int j = 0; j <= degree; j++) {
+                d[j] = bigValue(index + (long) j).longValue();
+            }
+
+            for (int j = 1; j <= degree; j++) {
+                for (int i = degree; i >= j; i--) {
+                    d[i] -= d[i - 1];
+                }
+            }
+
+            this.idx = index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return idx <= max;
+        }
+
+        @Override
+        public long nextLong() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            long x = d[0];
+            for (int j = 0; j < degree; j++) {
+                d[j] += d[j + 1];
+            }
+            idx++;
+
+            return x;
+        }
+
+        @Override
+        public Long next() {
+            return Long.valueOf(nextLong());
+        }
+
+        @Override
+        public long previousLong() {
+            if (idx <= 0) {
+                throw new NoSuchElementException();
+            }
+
+            for (int j = degree - 1; j >= 0; j--) {
+                d[j] -= d[j + 1];
+            }
+            idx--;
+
+            return d[0];
+        }
+
+        @Override
+        public Long previous() {
+            return Long.valueOf(previousLong());
+        }
+
+        @Override
+        protected Long getNext() {
+            return null;
+        }
+
+        @Override
+        protected Long getPrevious() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.figurate;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+
+import com.invariantproperties.projecteuler.AbstractListIterator;
+import com.invariantproperties.projecteuler.AbstractSequence;
+import com.invariantproperties.projecteuler.NumericSequenceList;
+import com.invariantproperties.projecteuler.SequenceList;
+
+/**
+ * Polygonal numbers as BigIntegers. Unlike PolygonalNumber this isn't limited
+ * to values that fit in a long and the number of sides may be arbitrarily
+ * large. Values that fit in a long are still computed with long arithmetic.
+ *
+ * @author bgiles
+ */
+public class BigPolygonalNumber extends AbstractSequence<BigInteger> {
+    private static final String[] OEIS = { null, null, "A001477", "A000217", "A000290", "A000326", "A000384",
+            "A000566", "A000567" };
+    private final BigInteger s;
+
+    // s - 2, or -1 if s doesn't fit in a long.
+    private final long a;
+
+    /**
+     * Constructor taking the number of sides of the polygon.
+     *
+     * @param s
+     */
+    public BigPolygonalNumber(long s) {
+        this(BigInteger.valueOf(s));
+    }
+
+    /**
+     * Constructor taking the number of sides of the polygon.
+     *
+     * @param s
+     */
+    public BigPolygonalNumber(BigInteger s) {
+        if (s.compareTo(BigInteger.valueOf(2)) < 0) {
+            throw new IllegalArgumentException("value must be 2 or greater");
+        }
+
+        this.s = s;
+        this.a = (s.bitLength() < 64) ? (s.longValue() - 2) : -1;
+    }
+
+    /**
+     * Get number of sides of the polygon.
+     */
+    public BigInteger getSides() {
+        return s;
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.Sequence#getOeisSequenceNumber()
+     */
+    @Override
+    public String getOeisSequenceNumber() {
+        return ((a >= 0) && (a + 2 < OEIS.length)) ? OEIS[(int) a + 2] : null;
+    }
+
+    /**
+     * Get specified value.
+     */
+    @Override
+    public BigInteger get(int r) {
+        if (r < 0) {
+            throw new IllegalArgumentException("r must be zero or greater");
+        }
+
+        if (a >= 0) {
+            long value = PolygonalNumber.value(a, r);
+            if (value >= 0) {
+                return BigInteger.valueOf(value);
+            }
+        }
+
+        return PolygonalNumber.getBigInteger(s, BigInteger.valueOf(r));
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.Sequence#subList(int, int)
+     */
+    @Override
+    public SequenceList<BigInteger> subList(int startIndex, int lastIndex) {
+        if (startIndex < 0) {
+            throw new IllegalArgumentException("fromIndex must be non-negative");
+        }
+
+        if (!(startIndex < lastIndex)) {
+            throw new IllegalArgumentException("fromIndex must be smaller than endIndex");
+        }
+
+        List<BigInteger> elements = new ArrayList<BigInteger>(lastIndex - startIndex);
+
+        for (int i = startIndex; i < lastIndex; i++) {
+            elements.add(get(i));
+        }
+
+        return new NumericSequenceList<BigInteger>(elements, getOeisSequenceNumber(), isUnique());
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.Sequence#iterator()
+     */
+    @Override
+    public Iterator<BigInteger> iterator() {
+        return new BigPolygonalNumberListIterator(0);
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.Sequence#listIterator()
+     */
+    @Override
+    public ListIterator<BigInteger> listIterator() {
+        return new BigPolygonalNumberListIterator(0);
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.Sequence#listIterator(int)
+     */
+    @Override
+    public ListIterator<BigInteger> listIterator(int startIndex) {
+        return new BigPolygonalNumberListIterator(startIndex);
+    }
+
+    /**
+     * ListIterator class. Every value is computed from the closed form so
+     * seeking is O(1).
+     *
+     * @author bgiles
+     */
+    private final class BigPolygonalNumberListIterator extends AbstractListIterator<BigInteger> {
+
+        BigPolygonalNumberListIterator(int startIndex) {
+            seek(startIndex);
+        }
+
+        @Override
+        protected void seekTo(int index) {
+            this.idx = index;
+        }
+
+        @Override
+        protected BigInteger getNext() {
+            return get(idx - 1);
+        }
+
+        @Override
+        protected BigInteger getPrevious() {
+            return get(idx);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.figurate;
+
+import java.math.BigInteger;
+
+import com.invariantproperties.projecteuler.IntegerMath;
+
+/**
+ * Centered polygonal numbers. The centered k-gonal number of rank n is a
+ * central dot surrounded by n k-sided layers, k n(n+1)/2 + 1.
+ *
+ * @author bgiles
+ */
+public class CenteredPolygonalNumber extends AbstractFigurateNumber {
+    private static final String[] OEIS = { null, null, null, "A005448", "A001844", "A005891", "A003215", "A069099",
+            "A016754" };
+    private final long k;
+
+    /**
+     * Constructor taking the number of sides of the polygon.
+     *
+     * @param k
+     */
+    public CenteredPolygonalNumber(int k) {
+        super(2);
+        if (k < 3) {
+            throw new IllegalArgumentException("value must be 3 or greater");
+        }
+
+        this.k = k;
+    }
+
+    /**
+     * Get number of sides of the polygon.
+     */
+    public int getSides() {
+        return (int) k;
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.Sequence#getOeisSequenceNumber()
+     */
+    @Override
+    public String getOeisSequenceNumber() {
+        return (k < OEIS.length) ? OEIS[(int) k] : null;
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.figurate.AbstractFigurateNumber#value(long)
+     */
+    @Override
+    protected long value(long n) {
+        // one of n, n+1 is even so divide before multiplying.
+        long t = ((n & 1) == 0) ? IntegerMath.multiplyExact(n / 2, n + 1) : IntegerMath.multiplyExact(n,
+                (n + 1) / 2);
+        return IntegerMath.addExact(IntegerMath.multiplyExact(k, t), 1);
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.figurate.AbstractFigurateNumber#bigValue(long)
+     */
+    @Override
+    protected BigInteger bigValue(long n) {
+        BigInteger bn = BigInteger.valueOf(n);
+        return bn.multiply(bn.add(BigInteger.ONE)).shiftRight(1).multiply(BigInteger.valueOf(k)).add(BigInteger.ONE);
+    }
+
+    /**
+     * x - 1 = k n(n+1)/2 so n is approximately sqrt(2(x - 1)/k).
+     *
+     * @see com.invariantproperties.projecteuler.figurate.AbstractFigurateNumber#estimateRank(long)
+     */
+    @Override
+    protected long estimateRank(long x) {
+        if (x <= 1) {
+            return 0;
+        }
+
+        return IntegerMath.isqrt(2 * ((x - 1) / k));
+    }
+}
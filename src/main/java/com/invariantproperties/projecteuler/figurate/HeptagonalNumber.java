@@ -22,6 +22,7 @@
  */
 package com.invariantproperties.projecteuler.figurate;
 
+import com.invariantproperties.projecteuler.SequenceCache;
 import com.invariantproperties.projecteuler.SequenceList;
 
 
@@ -47,6 +48,22 @@ public final class HeptagonalNumber extends PolygonalNumber {
         super(7, startIndex, endIndex);
     }
 
+    /**
+     * @param cache
+     */
+    public HeptagonalNumber(SequenceCache<Long> cache) {
+        super(7, cache);
+    }
+
+    /**
+     * @param startIndex
+     * @param endIndex
+     * @param cache
+     */
+    public HeptagonalNumber(int startIndex, int endIndex, SequenceCache<Long> cache) {
+        super(7, startIndex, endIndex, cache);
+    }
+
     /**
      * @see com.invariantproperties.projecteuler.figurate.PolygonalNumber#getOeisSequenceNumber()
      */
@@ -60,6 +77,6 @@ public final class HeptagonalNumber extends PolygonalNumber {
      */
     @Override
     public SequenceList<Long> subList(int fromIndex, int toIndex) {
-        return new HeptagonalNumber(fromIndex, toIndex);
+        return new HeptagonalNumber(getStartIndex() + fromIndex, getStartIndex() + toIndex, getCache());
     }
 }
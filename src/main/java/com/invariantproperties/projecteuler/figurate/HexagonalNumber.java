@@ -22,6 +22,7 @@
  */
 package com.invariantproperties.projecteuler.figurate;
 
+import com.invariantproperties.projecteuler.SequenceCache;
 import com.invariantproperties.projecteuler.SequenceList;
 
 
@@ -47,6 +48,22 @@ public final class HexagonalNumber extends PolygonalNumber {
         super(6, startIndex, endIndex);
     }
 
+    /**
+     * @param cache
+     */
+    public HexagonalNumber(SequenceCache<Long> cache) {
+        super(6, cache);
+    }
+
+    /**
+     * @param startIndex
+     * @param endIndex
+     * @param cache
+     */
+    public HexagonalNumber(int startIndex, int endIndex, SequenceCache<Long> cache) {
+        super(6, startIndex, endIndex, cache);
+    }
+
     /**
      * @see com.invariantproperties.projecteuler.figurate.PolygonalNumber#getOeisSequenceNumber()
      */
@@ -60,6 +77,6 @@ public final class HexagonalNumber extends PolygonalNumber {
      */
     @Override
     public SequenceList<Long> subList(int fromIndex, int toIndex) {
-        return new HexagonalNumber(fromIndex, toIndex);
+        return new HexagonalNumber(getStartIndex() + fromIndex, getStartIndex() + toIndex, getCache());
     }
 }
@@ -22,6 +22,7 @@
  */
 package com.invariantproperties.projecteuler.figurate;
 
+import com.invariantproperties.projecteuler.SequenceCache;
 import com.invariantproperties.projecteuler.SequenceList;
 
 
@@ -47,6 +48,22 @@ public final class OctagonalNumber extends PolygonalNumber {
         super(8, startIndex, endIndex);
     }
 
+    /**
+     * @param cache
+     */
+    public OctagonalNumber(SequenceCache<Long> cache) {
+        super(8, cache);
+    }
+
+    /**
+     * @param startIndex
+     * @param endIndex
+     * @param cache
+     */
+    public OctagonalNumber(int startIndex, int endIndex, SequenceCache<Long> cache) {
+        super(8, startIndex, endIndex, cache);
+    }
+
     /**
      * @see com.invariantproperties.projecteuler.figurate.PolygonalNumber#getOeisSequenceNumber()
      */
@@ -60,6 +77,6 @@ public final class OctagonalNumber extends PolygonalNumber {
      */
     @Override
     public SequenceList<Long> subList(int fromIndex, int toIndex) {
-        return new OctagonalNumber(fromIndex, toIndex);
+        return new OctagonalNumber(getStartIndex() + fromIndex, getStartIndex() + toIndex, getCache());
     }
 }
@@ -22,6 +22,7 @@
  */
 package com.invariantproperties.projecteuler.figurate;
 
+import com.invariantproperties.projecteuler.SequenceCache;
 import com.invariantproperties.projecteuler.SequenceList;
 
 
@@ -47,6 +48,22 @@ public final class PentagonalNumber extends PolygonalNumber {
         super(5, startIndex, endIndex);
     }
 
+    /**
+     * @param cache
+     */
+    public PentagonalNumber(SequenceCache<Long> cache) {
+        super(5, cache);
+    }
+
+    /**
+     * @param startIndex
+     * @param endIndex
+     * @param cache
+     */
+    public PentagonalNumber(int startIndex, int endIndex, SequenceCache<Long> cache) {
+        super(5, startIndex, endIndex, cache);
+    }
+
     /**
      * @see com.invariantproperties.projecteuler.figurate.PolygonalNumber#getOeisSequenceNumber()
      */
@@ -60,6 +77,6 @@ public final class PentagonalNumber extends PolygonalNumber {
      */
     @Override
     public SequenceList<Long> subList(int fromIndex, int toIndex) {
-        return new PentagonalNumber(fromIndex, toIndex);
+        return new PentagonalNumber(getStartIndex() + fromIndex, getStartIndex() + toIndex, getCache());
     }
 }
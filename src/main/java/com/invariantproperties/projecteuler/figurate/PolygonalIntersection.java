@@ -0,0 +1,232 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.figurate;
+
+import java.math.BigInteger;
+import java.util.NoSuchElementException;
+
+import com.invariantproperties.projecteuler.IntegerMath;
+import com.invariantproperties.projecteuler.LongIterator;
+
+/**
+ * Numbers that are simultaneously s-gonal for several s, in increasing
+ * order. E.g., new PolygonalIntersection(3, 5, 6) produces 0, 1, 40755,
+ * 1533776805, ... (Project Euler 45).
+ *
+ * This is a k-way merge of the individual sequences. Every sequence that
+ * falls behind the current candidate jumps directly to the first term at or
+ * above it, using the closed formula for the rank, instead of stepping
+ * through the intermediate terms. Values are produced lazily as primitives
+ * and the iteration stops cleanly at the end of the long range.
+ *
+ * @author bgiles
+ */
+public final class PolygonalIntersection implements LongIterator {
+    private final int[] sides;
+    private final long[] a;
+    private final long[] b;
+    private final long[] rank;
+    private final long[] value;
+    private boolean ready = false;
+    private boolean done = false;
+
+    /**
+     * Constructor.
+     *
+     * @param sides
+     *            polygon orders, e.g., 3, 5, 6.
+     */
+    public PolygonalIntersection(int... sides) {
+        if (sides.length == 0) {
+            throw new IllegalArgumentException("must specify at least one polygon order");
+        }
+
+        this.sides = sides.clone();
+        this.a = new long[sides.length];
+        this.b = new long[sides.length];
+        this.rank = new long[sides.length];
+        this.value = new long[sides.length];
+
+        for (int i = 0; i < sides.length; i++) {
+            if (sides[i] < 2) {
+                throw new IllegalArgumentException("sides must be 2 or greater");
+            }
+            a[i] = sides[i] - 2L;
+            b[i] = sides[i] - 4L;
+        }
+
+        // every sequence starts with 0.
+        ready = true;
+    }
+
+    /**
+     * Get polygon orders.
+     */
+    public int[] getSides() {
+        return sides.clone();
+    }
+
+    /**
+     * Get the rank of the most recent value in the i-th sequence.
+     */
+    public long getRank(int i) {
+        return rank[i];
+    }
+
+    /**
+     * @see java.util.Iterator#hasNext()
+     */
+    @Override
+    public boolean hasNext() {
+        if (!ready && !done) {
+            advance();
+        }
+
+        return !done;
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.LongIterator#nextLong()
+     */
+    @Override
+    public long nextLong() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        ready = false;
+
+        return value[0];
+    }
+
+    /**
+     * @see java.util.Iterator#next()
+     */
+    @Override
+    public Long next() {
+        return Long.valueOf(nextLong());
+    }
+
+    /**
+     * @see java.util.Iterator#remove()
+     */
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Find the next common value.
+     */
+    private void advance() {
+        // step past the value we just returned.
+        long target = 0;
+        for (int i = 0; i < sides.length; i++) {
+            if (!seek(i, rank[i] + 1)) {
+                done = true;
+                return;
+            }
+            target = Math.max(target, value[i]);
+        }
+
+        boolean aligned = false;
+
+        while (!aligned) {
+            aligned = true;
+
+            for (int i = 0; i < sides.length; i++) {
+                if (value[i] < target) {
+                    if (!seek(i, ceilRank(i, target))) {
+                        done = true;
+                        return;
+                    }
+                }
+
+                if (value[i] != target) {
+                    target = Math.max(target, value[i]);
+                    aligned = false;
+                }
+            }
+        }
+
+        ready = true;
+    }
+
+    /**
+     * Move the i-th sequence to the specified rank. Returns false if the
+     * value doesn't fit in a long.
+     */
+    private boolean seek(int i, long r) {
+        long v = value(i, r);
+
+        if (v < 0) {
+            return false;
+        }
+
+        rank[i] = r;
+        value[i] = v;
+
+        return true;
+    }
+
+    /**
+     * Get the value at rank r of the i-th sequence, or -1 if it overflows.
+     */
+    private long value(int i, long r) {
+        return PolygonalNumber.value(a[i], r);
+    }
+
+    /**
+     * Get the smallest rank whose value in the i-th sequence is at least y.
+     * The positive root of a r^2 - b r - 2y is (b + sqrt(b^2 + 8ay)) / 2a.
+     * The floor of the exact integer square root gives a rank that is never
+     * too large so we only step forward.
+     */
+    private long ceilRank(int i, long y) {
+        if (a[i] == 0) {
+            return y;
+        }
+
+        long s;
+
+        if (y <= ((Long.MAX_VALUE - (b[i] * b[i])) / (8L * a[i]))) {
+            s = IntegerMath.isqrt((8L * a[i] * y) + (b[i] * b[i]));
+        } else {
+            BigInteger d = BigInteger.valueOf(a[i]).multiply(BigInteger.valueOf(y)).shiftLeft(3)
+                    .add(BigInteger.valueOf(b[i] * b[i]));
+            s = IntegerMath.isqrt(d).longValue();
+        }
+
+        long r = Math.max(0L, (b[i] + s) / (2L * a[i]));
+
+        while (true) {
+            long v = value(i, r);
+            if ((v < 0) || (v >= y)) {
+                break;
+            }
+            r++;
+        }
+
+        return r;
+    }
+}
@@ -24,6 +24,9 @@ package com.invariantproperties.projecteuler.figurate;
 
 import com.invariantproperties.projecteuler.AbstractListIterator;
 import com.invariantproperties.projecteuler.AbstractSequenceList;
+import com.invariantproperties.projecteuler.IntegerMath;
+import com.invariantproperties.projecteuler.LongIterator;
+import com.invariantproperties.projecteuler.LongListIterator;
 import com.invariantproperties.projecteuler.NullSequenceCache;
 import com.invariantproperties.projecteuler.SequenceCache;
 import com.invariantproperties.projecteuler.SequenceList;
@@ -43,35 +46,43 @@ import java.util.NoSuchElementException;
  * rank, corresponds to 'n' elsewhere and 'n' indicates the number of sides
  * of the polygon.
  *
- * Implementation note: the cache is unused. It can be specified as a
- * mechanism for persisting values to a database.
- *
- * FIXME: iterator with only sum
+ * Implementation note: single values are computed with the closed form and
+ * bulk reads by finite differences. The cache is only written to, keyed by
+ * the absolute rank. It can be specified as a mechanism for persisting
+ * values to a database.
  *
  * FIXME: size
  *
- * FIXME: toArray methods
- *
- * FIXME: list operator with index
- *
  * @author bgiles
  */
 public abstract class PolygonalNumber extends AbstractSequenceList<Long> {
     private long n;
     private int startIndex = 0;
     private int endIndex = Integer.MAX_VALUE / 2;
-    private SequenceCache<Long> cache = new NullSequenceCache<Long>();
+    private final SequenceCache<Long> cache;
 
     /**
      * Constructor taking the number of sides of the polygon.
      * @param n
      */
     public PolygonalNumber(int n) {
+        this(n, new NullSequenceCache<Long>());
+    }
+
+    /**
+     * Constructor taking the number of sides of the polygon and a cache.
+     */
+    public PolygonalNumber(int n, SequenceCache<Long> cache) {
         if (n < 2) {
             throw new IllegalArgumentException("value must be 2 or greater");
         }
 
+        if (cache == null) {
+            throw new IllegalArgumentException("cache must not be null");
+        }
+
         this.n = n;
+        this.cache = cache;
         endIndex = Integer.MAX_VALUE / (n - 2);
     }
 
@@ -80,6 +91,14 @@ public abstract class PolygonalNumber extends AbstractSequenceList<Long> {
      * and a starting and ending index.
      */
     public PolygonalNumber(int n, int startIndex, int endIndex) {
+        this(n, startIndex, endIndex, new NullSequenceCache<Long>());
+    }
+
+    /**
+     * Constructor taking the number of sides of the polygon,
+     * a starting and ending index, and a cache.
+     */
+    public PolygonalNumber(int n, int startIndex, int endIndex, SequenceCache<Long> cache) {
         if (n < 2) {
             throw new IllegalArgumentException("n must be 2 or greater");
         }
@@ -97,9 +116,28 @@ public abstract class PolygonalNumber extends AbstractSequenceList<Long> {
                 " inclusive");
         }
 
+        if (cache == null) {
+            throw new IllegalArgumentException("cache must not be null");
+        }
+
         this.n = n;
         this.startIndex = startIndex;
         this.endIndex = endIndex;
+        this.cache = cache;
+    }
+
+    /**
+     * Get the absolute rank of the first element.
+     */
+    protected final int getStartIndex() {
+        return startIndex;
+    }
+
+    /**
+     * Get the cache.
+     */
+    protected final SequenceCache<Long> getCache() {
+        return cache;
     }
 
     /**
@@ -107,22 +145,38 @@ public abstract class PolygonalNumber extends AbstractSequenceList<Long> {
      */
     @Override
     public final Long get(int r) {
+        long value = getLong(r);
+        Long results = Long.valueOf(value);
+
+        if (!cache.isReadOnly()) {
+            cache.put(r + startIndex, results);
+        }
+
+        return results;
+    }
+
+    /**
+     * Get value without boxing it. This doesn't update the cache.
+     */
+    public final long getLong(int r) {
         if (r < 0) {
             throw new IllegalArgumentException("value must be zero or greater");
         }
 
-        int x = r + startIndex;
-        Long results = Long.valueOf((((long) x) * (((n - 2L) * x) - (n - 4L))) / 2L);
-
-        if (!cache.isReadOnly()) {
-            cache.put(r, results);
+        if (r >= size()) {
+            throw new IndexOutOfBoundsException("index " + r + " is not less than size " + size());
         }
 
-        return results;
+        // the closed form is O(1) and doesn't overflow since the rank is
+        // at most Integer.MAX_VALUE / (n - 2).
+        return value(n - 2, ((long) r) + startIndex);
     }
 
     /**
      * Get value specifying both 'n' and 'r'
+     *
+     * @throws ArithmeticException
+     *             if the value doesn't fit in a long. Use getBigInteger().
      */
     public static final Long get(int np, int r) {
         if (np < 2) {
@@ -133,7 +187,162 @@ public abstract class PolygonalNumber extends AbstractSequenceList<Long> {
             throw new IllegalArgumentException("r must be zero or greater");
         }
 
-        return Long.valueOf((((long) r) * (((np - 2L) * r) - (np - 4L))) / 2L);
+        long value = value(np - 2L, r);
+        if (value < 0) {
+            throw new ArithmeticException("long overflow");
+        }
+
+        return Long.valueOf(value);
+    }
+
+    /**
+     * Get value specifying both 'n' and 'r' for arbitrarily large values. This
+     * uses long arithmetic when the value fits and only falls back to
+     * BigInteger arithmetic when it doesn't.
+     */
+    public static BigInteger getBigInteger(long np, long r) {
+        if (np < 2) {
+            throw new IllegalArgumentException("np must be 2 or greater");
+        }
+
+        if (r < 0) {
+            throw new IllegalArgumentException("r must be zero or greater");
+        }
+
+        long value = value(np - 2L, r);
+        if (value >= 0) {
+            return BigInteger.valueOf(value);
+        }
+
+        return getBigInteger(BigInteger.valueOf(np), BigInteger.valueOf(r));
+    }
+
+    /**
+     * Get value specifying both 'n' and 'r' using BigInteger arithmetic.
+     */
+    public static BigInteger getBigInteger(BigInteger np, BigInteger r) {
+        if (np.compareTo(BigInteger.valueOf(2)) < 0) {
+            throw new IllegalArgumentException("np must be 2 or greater");
+        }
+
+        if (r.signum() < 0) {
+            throw new IllegalArgumentException("r must be zero or greater");
+        }
+
+        BigInteger a = np.subtract(BigInteger.valueOf(2));
+        BigInteger b = np.subtract(BigInteger.valueOf(4));
+
+        return r.multiply(a.multiply(r).subtract(b)).shiftRight(1);
+    }
+
+    /**
+     * Compute r((a)r - (a - 2))/2 without overflow, where a = n - 2. The value
+     * is never negative so overflow is reported by returning -1 instead of
+     * throwing an exception, since callers with a fallback would pay for the
+     * exception on every large term.
+     *
+     * The second factor is a(r - 1) + 2 and it is even whenever r is odd, so
+     * the division is done before the multiplication.
+     */
+    static long value(long a, long r) {
+        if (r == 0) {
+            return 0;
+        }
+
+        if ((r > 1) && (a > ((Long.MAX_VALUE - 2) / (r - 1)))) {
+            return -1;
+        }
+
+        long t = (a * (r - 1)) + 2;
+        long u = ((r & 1) == 0) ? (r / 2) : r;
+        long v = ((r & 1) == 0) ? t : (t / 2);
+
+        if (v > (Long.MAX_VALUE / u)) {
+            return -1;
+        }
+
+        return u * v;
+    }
+
+    /**
+     * Get a view of the s-gonal numbers as BigIntegers. The view isn't
+     * limited to the long range.
+     */
+    public BigPolygonalNumber toBigIntegerSequence() {
+        return new BigPolygonalNumber(n);
+    }
+
+    /**
+     * Get the rank of x in the sequence of s-gonal numbers, or -1 if x isn't
+     * an s-gonal number. This uses exact integer arithmetic for the entire
+     * range of long values.
+     *
+     * x is s-gonal iff 8(s-2)x + (s-4)^2 is a perfect square q^2 and
+     * q + s - 4 is divisible by 2(s-2).
+     *
+     * @param s
+     *            number of sides of the polygon
+     * @param x
+     *            candidate value
+     * @return rank, or -1 if x isn't an s-gonal number
+     */
+    public static long rank(int s, long x) {
+        if (s < 2) {
+            throw new IllegalArgumentException("s must be 2 or greater");
+        }
+
+        if (x < 0) {
+            return -1;
+        }
+
+        // zero is the other root of the quadratic
+        if ((s == 2) || (x == 0)) {
+            return x;
+        }
+
+        long a = s - 2L;
+        long b = s - 4L;
+
+        if (x > ((Long.MAX_VALUE - (b * b)) / (8L * a))) {
+            return rankLarge(a, b, x);
+        }
+
+        long d = (8L * a * x) + (b * b);
+
+        long q = IntegerMath.sqrtExact(d);
+
+        if (q < 0) {
+            return -1;
+        }
+
+        long num = q + b;
+
+        if ((num % (2L * a)) != 0) {
+            return -1;
+        }
+
+        return num / (2L * a);
+    }
+
+    /**
+     * Get the rank of values where the discriminant overflows a long. The
+     * floating point estimate is within one of the actual rank so we verify
+     * the neighboring ranks with BigInteger arithmetic.
+     */
+    private static long rankLarge(long a, long b, long x) {
+        double estimate = (b + Math.sqrt((b * (double) b) + (8.0 * a * x))) / (2.0 * a);
+        long r0 = (long) estimate;
+        BigInteger target = BigInteger.valueOf(x);
+
+        for (long r = Math.max(0L, r0 - 1); r <= (r0 + 1); r++) {
+            BigInteger R = BigInteger.valueOf(r);
+            BigInteger p = R.multiply(R.multiply(BigInteger.valueOf(a)).subtract(BigInteger.valueOf(b))).shiftRight(1);
+            if (p.equals(target)) {
+                return r;
+            }
+        }
+
+        return -1;
     }
 
     @Override
@@ -153,7 +362,7 @@ public abstract class PolygonalNumber extends AbstractSequenceList<Long> {
             }
         }
 
-        return false;
+        return results;
     }
 
     @Override
@@ -162,29 +371,7 @@ public abstract class PolygonalNumber extends AbstractSequenceList<Long> {
             return -1;
         }
 
-        long x = ((Long) o).longValue();
-
-        if (x < 0) {
-            return -1;
-        }
-
-        // calculate S^2. It must be a perfect square if x is an n-gonal number.
-        long s2 = (8L * (n - 2) * x) + ((n - 4) * (n - 4));
-        long s = Math.round(Math.sqrt(s2));
-
-        if (s2 != (s * s)) {
-            return -1;
-        }
-
-        // calculate tentative rank.
-        long r = ((s + n) - 4) / 2 / (n - 2);
-
-        // verify the results.
-        if (x != get((int) r).longValue()) {
-            System.err.println("unexpected results!");
-
-            return -1;
-        }
+        long r = rank((int) n, ((Long) o).longValue());
 
         // make sure we're in valid range.
         if (!((startIndex <= r) && (r < endIndex))) {
@@ -201,7 +388,7 @@ public abstract class PolygonalNumber extends AbstractSequenceList<Long> {
 
     @Override
     public final boolean isEmpty() {
-        return size() > 0;
+        return size() == 0;
     }
 
     @Override
@@ -216,45 +403,85 @@ public abstract class PolygonalNumber extends AbstractSequenceList<Long> {
 
     @Override
     public final Long[] toArray() {
-        Long[] a = new Long[size()];
+        // a boxed Long and its reference
+        checkMaterializable(24L);
+
+        long[] values = toLongArray();
+        Long[] a = new Long[values.length];
 
-        for (int i = 0; i < (endIndex - startIndex); i++) {
-            a[i] = get(startIndex + i);
+        for (int i = 0; i < values.length; i++) {
+            a[i] = Long.valueOf(values[i]);
         }
 
         return a;
     }
 
+    /**
+     * Create array of primitive values.
+     *
+     * @throws IllegalStateException
+     *             if the list is too large to materialize
+     */
+    public final long[] toLongArray() {
+        checkMaterializable(8L);
+
+        long[] values = new long[size()];
+
+        // first value from the closed form, the rest by finite differences.
+        long a = n - 2;
+        long r = startIndex;
+        long x = value(a, r);
+        long d = (a * r) + 1L;
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = x;
+            x += d;
+            d += a;
+        }
+
+        return values;
+    }
+
+    /**
+     * Fail fast if the list can't be materialized in the available memory,
+     * instead of running out of memory part of the way through. Large lists
+     * should be accessed with subList() or iterators instead.
+     */
+    private void checkMaterializable(long bytesPerElement) {
+        if ((bytesPerElement * size()) > (Runtime.getRuntime().maxMemory() / 2)) {
+            throw new IllegalStateException("list is too large to materialize (" + size() +
+                " elements). Use subList() or an iterator instead.");
+        }
+    }
+
     /**
      * Create array of specified values.
      */
     @Override
     public final <T> T[] toArray(T[] a) {
         if (Integer.class.equals(a.getClass().getComponentType())) {
-            Integer[] z = new Integer[size()];
+            checkMaterializable(24L);
+            long[] values = toLongArray();
+            Integer[] z = new Integer[values.length];
 
-            for (int i = 0; i < size(); i++) {
-                z[i] = Integer.valueOf(get(i).intValue());
+            for (int i = 0; i < values.length; i++) {
+                z[i] = Integer.valueOf((int) values[i]);
             }
 
             return (T[]) z;
         }
 
         if (Long.class.equals(a.getClass().getComponentType())) {
-            Long[] z = new Long[size()];
-
-            for (int i = 0; i < size(); i++) {
-                z[i] = get(i);
-            }
-
-            return (T[]) z;
+            return (T[]) toArray();
         }
 
         if (BigInteger.class.equals(a.getClass().getComponentType())) {
-            BigInteger[] z = new BigInteger[size()];
+            checkMaterializable(48L);
+            long[] values = toLongArray();
+            BigInteger[] z = new BigInteger[values.length];
 
-            for (int i = 0; i < size(); i++) {
-                z[i] = BigInteger.valueOf(get(i));
+            for (int i = 0; i < values.length; i++) {
+                z[i] = BigInteger.valueOf(values[i]);
             }
 
             return (T[]) z;
@@ -272,6 +499,14 @@ public abstract class PolygonalNumber extends AbstractSequenceList<Long> {
         return new PolynomialNumberListIterator(n, startIndex, endIndex);
     }
 
+    /**
+     * Get iterator over primitive values. This iterator doesn't allocate
+     * anything while scanning the sequence.
+     */
+    public LongIterator longIterator() {
+        return new PolynomialNumberListIterator(n, startIndex, endIndex);
+    }
+
     /**
      * Get list iterator.
      */
@@ -282,28 +517,53 @@ public abstract class PolygonalNumber extends AbstractSequenceList<Long> {
 
     @Override
     public ListIterator<Long> listIterator(int index) {
-        return new PolynomialNumberListIterator(n, index,
-            (int) (Integer.MAX_VALUE / (n + 2)));
+        return longListIterator(index);
+    }
+
+    /**
+     * Get list iterator over primitive values, starting at the specified
+     * index.
+     */
+    public LongListIterator longListIterator(int index) {
+        PolynomialNumberListIterator iter = new PolynomialNumberListIterator(n, startIndex, endIndex);
+        iter.seek(index);
+
+        return iter;
     }
-    
+
     /**
-     * ListIterator class.
+     * ListIterator class. Values are computed by finite differences: the
+     * difference between successive values is (n - 2)r + 1 and it grows
+     * by n - 2 with each step so every element costs a single addition.
+     *
      * @author bgiles
      */
     protected static class PolynomialNumberListIterator
-        extends AbstractListIterator<Long> {
-        private long n;
+        extends AbstractListIterator<Long> implements LongListIterator {
+        private final long n;
+        private final int startIndex;
+        private final int endIndex;
+
+        // the value at startIndex + idx and the difference to the next value.
         private long x;
-        private long step;
-        private int startIndex;
-        private int endIndex;
+        private long d;
 
         public PolynomialNumberListIterator(long n, int startIndex, int endIndex) {
             this.n = n;
-            this.x = PolygonalNumber.get((int) n, 0).longValue();
-            this.step = (n - 2);
             this.startIndex = startIndex;
             this.endIndex = endIndex;
+            seekTo(0);
+        }
+
+        /**
+         * Compute the state directly from the closed formula.
+         */
+        @Override
+        protected void seekTo(int index) {
+            long r = startIndex + (long) index;
+            this.idx = index;
+            this.x = (r * (((n - 2L) * r) - (n - 4L))) / 2L;
+            this.d = ((n - 2L) * r) + 1L;
         }
 
         @Override
@@ -312,13 +572,22 @@ public abstract class PolygonalNumber extends AbstractSequenceList<Long> {
         }
 
         @Override
-        public Long next() {
-            if ((startIndex + idx) > endIndex) {
+        public long nextLong() {
+            if (!hasNext()) {
                 throw new NoSuchElementException();
             }
 
-            // FIXME do this incrementally
-            return PolygonalNumber.get((int) n, startIndex + idx++);
+            idx++;
+            long t = x;
+            x += d;
+            d += (n - 2);
+
+            return t;
+        }
+
+        @Override
+        public Long next() {
+            return Long.valueOf(nextLong());
         }
 
         @Override
@@ -327,13 +596,21 @@ public abstract class PolygonalNumber extends AbstractSequenceList<Long> {
         }
 
         @Override
-        public Long previous() {
+        public long previousLong() {
             if (idx <= 0) {
                 throw new NoSuchElementException();
             }
 
-            // FIXME do this incrementally
-            return PolygonalNumber.get((int) n, startIndex + --idx);
+            idx--;
+            d -= (n - 2);
+            x -= d;
+
+            return x;
+        }
+
+        @Override
+        public Long previous() {
+            return Long.valueOf(previousLong());
         }
 
         protected Long getNext() {
@@ -0,0 +1,199 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.figurate;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Bulk membership test for figurate numbers. A screen checks arrays of
+ * candidates against several polygon orders at once, e.g., numbers that are
+ * simultaneously triangular, pentagonal and hexagonal (Project Euler 45).
+ *
+ * The result for each candidate is a bitmask where bit i is set if the
+ * candidate is a sides[i]-gonal number. All tests use exact integer
+ * arithmetic.
+ *
+ * @author bgiles
+ */
+public final class PolygonalScreen {
+    private static final int MAX_ORDERS = 32;
+
+    /**
+     * Arrays smaller than this are screened sequentially.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private static final ForkJoinPool POOL = ForkJoinPool.commonPool();
+
+    private final int[] sides;
+    private final int all;
+
+    /**
+     * Constructor.
+     *
+     * @param sides
+     *            polygon orders, e.g., 3, 5, 6.
+     */
+    public PolygonalScreen(int... sides) {
+        if ((sides.length == 0) || (sides.length > MAX_ORDERS)) {
+            throw new IllegalArgumentException("must specify between 1 and " + MAX_ORDERS + " polygon orders");
+        }
+
+        for (int s : sides) {
+            if (s < 2) {
+                throw new IllegalArgumentException("sides must be 2 or greater");
+            }
+        }
+
+        this.sides = sides.clone();
+        this.all = (sides.length == MAX_ORDERS) ? -1 : ((1 << sides.length) - 1);
+    }
+
+    /**
+     * Get polygon orders.
+     */
+    public int[] getSides() {
+        return sides.clone();
+    }
+
+    /**
+     * Get bitmask for a single candidate.
+     */
+    public int mask(long x) {
+        int mask = 0;
+
+        for (int i = 0; i < sides.length; i++) {
+            if (PolygonalNumber.rank(sides[i], x) >= 0) {
+                mask |= (1 << i);
+            }
+        }
+
+        return mask;
+    }
+
+    /**
+     * Is the candidate a member of every sequence? This stops at the first
+     * sequence that doesn't match.
+     */
+    public boolean matches(long x) {
+        for (int s : sides) {
+            if (PolygonalNumber.rank(s, x) < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Get bitmask for each candidate.
+     */
+    public int[] mask(long[] candidates) {
+        int[] masks = new int[candidates.length];
+        mask(candidates, masks, 0, candidates.length);
+
+        return masks;
+    }
+
+    /**
+     * Get bitmask for each candidate, screening chunks in parallel.
+     */
+    public int[] maskParallel(long[] candidates) {
+        int[] masks = new int[candidates.length];
+        POOL.invoke(new MaskTask(candidates, masks, 0, candidates.length));
+
+        return masks;
+    }
+
+    /**
+     * Get the indexes of the candidates that are members of every sequence.
+     */
+    public int[] matches(long[] candidates) {
+        int[] indexes = new int[candidates.length];
+        int count = 0;
+
+        for (int i = 0; i < candidates.length; i++) {
+            if (matches(candidates[i])) {
+                indexes[count++] = i;
+            }
+        }
+
+        return Arrays.copyOf(indexes, count);
+    }
+
+    /**
+     * Get the indexes of the candidates that are members of every sequence,
+     * screening chunks in parallel.
+     */
+    public int[] matchesParallel(long[] candidates) {
+        int[] masks = maskParallel(candidates);
+        int[] indexes = new int[candidates.length];
+        int count = 0;
+
+        for (int i = 0; i < masks.length; i++) {
+            if (masks[i] == all) {
+                indexes[count++] = i;
+            }
+        }
+
+        return Arrays.copyOf(indexes, count);
+    }
+
+    private void mask(long[] candidates, int[] masks, int from, int to) {
+        for (int i = from; i < to; i++) {
+            masks[i] = mask(candidates[i]);
+        }
+    }
+
+    /**
+     * Parallel evaluation of masks.
+     *
+     * @author bgiles
+     */
+    private final class MaskTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final long[] candidates;
+        private final int[] masks;
+        private final int from;
+        private final int to;
+
+        MaskTask(long[] candidates, int[] masks, int from, int to) {
+            this.candidates = candidates;
+            this.masks = masks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if ((to - from) < PARALLEL_THRESHOLD) {
+                mask(candidates, masks, from, to);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new MaskTask(candidates, masks, from, mid), new MaskTask(candidates, masks, mid, to));
+            }
+        }
+    }
+}
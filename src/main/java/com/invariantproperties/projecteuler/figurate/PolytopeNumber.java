@@ -0,0 +1,138 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.figurate;
+
+import java.math.BigInteger;
+
+import com.invariantproperties.projecteuler.IntegerMath;
+
+/**
+ * Regular polytope numbers. The d-dimensional polytope number of rank n is
+ * the binomial coefficient C(n+d-1, d). Dimension 2 gives the triangular
+ * numbers, dimension 3 the tetrahedral numbers and dimension 4 the pentatope
+ * numbers.
+ *
+ * @author bgiles
+ */
+public class PolytopeNumber extends AbstractFigurateNumber {
+    private static final String[] OEIS = { null, "A001477", "A000217", "A000292", "A000332", "A000389" };
+    private final int d;
+    private final double dFactorial;
+
+    /**
+     * Constructor taking the dimension.
+     *
+     * @param d
+     */
+    public PolytopeNumber(int d) {
+        super(d);
+        this.d = d;
+
+        double f = 1;
+        for (int i = 2; i <= d; i++) {
+            f *= i;
+        }
+        this.dFactorial = f;
+    }
+
+    /**
+     * Get the dimension.
+     */
+    public int getDimension() {
+        return d;
+    }
+
+    /**
+     * The OEIS entries for dimensions 4 and 5 list C(n, d) and are offset by
+     * d - 1 leading zeros.
+     *
+     * @see com.invariantproperties.projecteuler.Sequence#getOeisSequenceNumber()
+     */
+    @Override
+    public String getOeisSequenceNumber() {
+        return (d < OEIS.length) ? OEIS[d] : null;
+    }
+
+    /**
+     * Compute C(n+d-1, d) as successive C(n-1+i, i). Each step is exact and
+     * the common factor is removed before multiplying to keep the
+     * intermediate value no larger than the result.
+     *
+     * @see com.invariantproperties.projecteuler.figurate.AbstractFigurateNumber#value(long)
+     */
+    @Override
+    protected long value(long n) {
+        long r = 1;
+        for (int i = 1; i <= d; i++) {
+            long g = gcd(r, i);
+            r = IntegerMath.multiplyExact(r / g, (n - 1 + i) / (i / g));
+        }
+
+        return r;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+
+        return a;
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.figurate.AbstractFigurateNumber#bigValue(long)
+     */
+    @Override
+    protected BigInteger bigValue(long n) {
+        BigInteger r = BigInteger.ONE;
+        for (int i = 1; i <= d; i++) {
+            r = r.multiply(BigInteger.valueOf(n - 1 + i)).divide(BigInteger.valueOf(i));
+        }
+
+        return r;
+    }
+
+    /**
+     * x is approximately (n + (d-1)/2)^d / d!.
+     *
+     * @see com.invariantproperties.projecteuler.figurate.AbstractFigurateNumber#estimateRank(long)
+     */
+    @Override
+    protected long estimateRank(long x) {
+        if (x <= 0) {
+            return 0;
+        }
+
+        switch (d) {
+        case 1:
+            return x;
+        case 2:
+            // sqrt(2x) without overflow
+            return 2 * IntegerMath.isqrt(x / 2);
+        default:
+            return Math.max(0L, (long) (Math.pow(x * dFactorial, 1.0 / d) - (d - 1) / 2.0));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.figurate;
+
+import java.math.BigInteger;
+
+import com.invariantproperties.projecteuler.IntegerMath;
+
+/**
+ * Pyramidal numbers. The s-gonal pyramidal number of rank n is the sum of the
+ * first n s-gonal numbers, n(n+1)((s-2)n - (s-5))/6.
+ *
+ * @author bgiles
+ */
+public class PyramidalNumber extends AbstractFigurateNumber {
+    private static final String[] OEIS = { null, null, null, "A000292", "A000330", "A002411", "A002412", "A002413",
+            "A002414" };
+    private final long s;
+
+    /**
+     * Constructor taking the number of sides of the base.
+     *
+     * @param s
+     */
+    public PyramidalNumber(int s) {
+        super(3);
+        if (s < 3) {
+            throw new IllegalArgumentException("value must be 3 or greater");
+        }
+
+        this.s = s;
+    }
+
+    /**
+     * Get number of sides of the base.
+     */
+    public int getSides() {
+        return (int) s;
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.Sequence#getOeisSequenceNumber()
+     */
+    @Override
+    public String getOeisSequenceNumber() {
+        return (s < OEIS.length) ? OEIS[(int) s] : null;
+    }
+
+    /**
+     * The product is always divisible by 6 so we divide the factors of 2 and
+     * 3 out of individual terms before multiplying.
+     *
+     * @see com.invariantproperties.projecteuler.figurate.AbstractFigurateNumber#value(long)
+     */
+    @Override
+    protected long value(long n) {
+        if (n == 0) {
+            return 0;
+        }
+
+        long a = n;
+        long b = n + 1;
+        long c = IntegerMath.addExact(IntegerMath.multiplyExact(s - 2, n), 5 - s);
+
+        if ((a & 1) == 0) {
+            a /= 2;
+        } else {
+            b /= 2;
+        }
+
+        if (a % 3 == 0) {
+            a /= 3;
+        } else if (b % 3 == 0) {
+            b /= 3;
+        } else {
+            c /= 3;
+        }
+
+        return IntegerMath.multiplyExact(IntegerMath.multiplyExact(a, b), c);
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.figurate.AbstractFigurateNumber#bigValue(long)
+     */
+    @Override
+    protected BigInteger bigValue(long n) {
+        BigInteger bn = BigInteger.valueOf(n);
+        BigInteger c = BigInteger.valueOf(s - 2).multiply(bn).add(BigInteger.valueOf(5 - s));
+        return bn.multiply(bn.add(BigInteger.ONE)).multiply(c).divide(BigInteger.valueOf(6));
+    }
+
+    /**
+     * x is approximately (s-2)n^3/6 so n is approximately cbrt(6x/(s-2)).
+     *
+     * @see com.invariantproperties.projecteuler.figurate.AbstractFigurateNumber#estimateRank(long)
+     */
+    @Override
+    protected long estimateRank(long x) {
+        if (x <= 0) {
+            return 0;
+        }
+
+        long q = x / (s - 2);
+        if (q <= Long.MAX_VALUE / 6) {
+            return IntegerMath.icbrt(6 * q);
+        }
+
+        return (long) Math.cbrt(6.0 * q);
+    }
+}
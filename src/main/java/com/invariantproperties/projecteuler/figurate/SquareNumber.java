@@ -22,6 +22,7 @@
  */
 package com.invariantproperties.projecteuler.figurate;
 
+import com.invariantproperties.projecteuler.SequenceCache;
 import com.invariantproperties.projecteuler.SequenceList;
 
 
@@ -47,6 +48,22 @@ public final class SquareNumber extends PolygonalNumber {
         super(4, startIndex, endIndex);
     }
 
+    /**
+     * @param cache
+     */
+    public SquareNumber(SequenceCache<Long> cache) {
+        super(4, cache);
+    }
+
+    /**
+     * @param startIndex
+     * @param endIndex
+     * @param cache
+     */
+    public SquareNumber(int startIndex, int endIndex, SequenceCache<Long> cache) {
+        super(4, startIndex, endIndex, cache);
+    }
+
     /**
      * @see com.invariantproperties.projecteuler.figurate.PolygonalNumber#getOeisSequenceNumber()
      */
@@ -60,6 +77,6 @@ public final class SquareNumber extends PolygonalNumber {
      */
     @Override
     public SequenceList<Long> subList(int fromIndex, int toIndex) {
-        return new SquareNumber(fromIndex, toIndex);
+        return new SquareNumber(getStartIndex() + fromIndex, getStartIndex() + toIndex, getCache());
     }
 }
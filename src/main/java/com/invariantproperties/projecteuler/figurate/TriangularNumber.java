@@ -22,6 +22,7 @@
  */
 package com.invariantproperties.projecteuler.figurate;
 
+import com.invariantproperties.projecteuler.SequenceCache;
 import com.invariantproperties.projecteuler.SequenceList;
 
 
@@ -46,6 +47,22 @@ public class TriangularNumber extends PolygonalNumber {
         super(3, startIndex, endIndex);
     }
 
+    /**
+     * @param cache
+     */
+    public TriangularNumber(SequenceCache<Long> cache) {
+        super(3, cache);
+    }
+
+    /**
+     * @param startIndex
+     * @param endIndex
+     * @param cache
+     */
+    public TriangularNumber(int startIndex, int endIndex, SequenceCache<Long> cache) {
+        super(3, startIndex, endIndex, cache);
+    }
+
     /**
      * @see com.invariantproperties.projecteuler.figurate.PolygonalNumber#getOeisSequenceNumber()
      */
@@ -59,6 +76,6 @@ public class TriangularNumber extends PolygonalNumber {
      */
     @Override
     public SequenceList<Long> subList(int fromIndex, int toIndex) {
-        return new TriangularNumber(fromIndex, toIndex);
+        return new TriangularNumber(getStartIndex() + fromIndex, getStartIndex() + toIndex, getCache());
     }
 }
@@ -0,0 +1,170 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Entry point for runtime metrics. Metrics are disabled by default and every
+ * instrumented hot path checks isEnabled() (a single volatile read) before
+ * doing any other work. Metrics objects are registered with the platform
+ * MBean server under the "com.invariantproperties.projecteuler" domain when
+ * they're created.
+ *
+ * Metrics can be enabled at startup with the system property
+ * "projecteuler.metrics=true".
+ *
+ * @author Bear Giles <bgiles@coyotesong.com>
+ */
+public final class Metrics {
+    private static final String DOMAIN = "com.invariantproperties.projecteuler";
+    private static final ConcurrentMap<String, SieveMetrics> sieves = new ConcurrentHashMap<String, SieveMetrics>();
+    private static final ConcurrentMap<String, SequenceMetrics> sequences = new ConcurrentHashMap<String, SequenceMetrics>();
+    private static final ConcurrentMap<String, SequenceMetrics> caches = new ConcurrentHashMap<String, SequenceMetrics>();
+    private static volatile boolean enabled = Boolean.getBoolean("projecteuler.metrics");
+    private static volatile MetricsListener[] listeners = new MetricsListener[0];
+
+    private Metrics() {
+    }
+
+    /**
+     * Are metrics enabled?
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enable or disable metrics.
+     */
+    public static void setEnabled(boolean enabled) {
+        Metrics.enabled = enabled;
+    }
+
+    /**
+     * Add listener.
+     */
+    public static synchronized void addListener(MetricsListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener must not be null");
+        }
+
+        MetricsListener[] copy = Arrays.copyOf(listeners, listeners.length + 1);
+        copy[listeners.length] = listener;
+        listeners = copy;
+    }
+
+    /**
+     * Remove listener.
+     */
+    public static synchronized void removeListener(MetricsListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                MetricsListener[] copy = new MetricsListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, copy, 0, i);
+                System.arraycopy(listeners, i + 1, copy, i, copy.length - i);
+                listeners = copy;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Get current listeners. The array must not be modified.
+     */
+    static MetricsListener[] getListeners() {
+        return listeners;
+    }
+
+    /**
+     * Get (or create) the metrics for a sieve.
+     */
+    public static SieveMetrics sieve(String name) {
+        SieveMetrics metrics = sieves.get(name);
+
+        if (metrics == null) {
+            metrics = new SieveMetrics(name);
+            SieveMetrics existing = sieves.putIfAbsent(name, metrics);
+            if (existing != null) {
+                return existing;
+            }
+            register("Sieve", name, metrics);
+        }
+
+        return metrics;
+    }
+
+    /**
+     * Get (or create) the metrics for a sequence.
+     */
+    public static SequenceMetrics sequence(String name) {
+        return get(sequences, "Sequence", name);
+    }
+
+    /**
+     * Get (or create) the metrics for a named cache.
+     */
+    public static SequenceMetrics cache(String name) {
+        return get(caches, "Cache", name);
+    }
+
+    private static SequenceMetrics get(ConcurrentMap<String, SequenceMetrics> map, String type, String name) {
+        SequenceMetrics metrics = map.get(name);
+
+        if (metrics == null) {
+            metrics = new SequenceMetrics(name);
+            SequenceMetrics existing = map.putIfAbsent(name, metrics);
+            if (existing != null) {
+                return existing;
+            }
+            register(type, name, metrics);
+        }
+
+        return metrics;
+    }
+
+    /**
+     * Register MBean. Failures are ignored since metrics are strictly
+     * informational.
+     */
+    private static void register(String type, String name, Object mbean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(mbean, objectName);
+            }
+        } catch (JMException e) {
+            // ignored
+        } catch (SecurityException e) {
+            // ignored
+        }
+    }
+}
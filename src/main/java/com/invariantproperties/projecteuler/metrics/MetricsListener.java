@@ -0,0 +1,71 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.metrics;
+
+/**
+ * Listener notified of instrumented events. Listeners are only called while
+ * metrics are enabled and are called on the thread that caused the event so
+ * implementations must be fast and thread-safe.
+ *
+ * @author Bear Giles <bgiles@coyotesong.com>
+ */
+public interface MetricsListener {
+    /**
+     * Sieve was grown.
+     *
+     * @param sieve
+     *            sieve name
+     * @param oldSize
+     *            previous size
+     * @param newSize
+     *            new size
+     * @param nanos
+     *            time spent growing the sieve, including the lock wait
+     */
+    void sieveGrown(String sieve, long oldSize, long newSize, long nanos);
+
+    /**
+     * Thread waited for a sieve lock.
+     */
+    void lockWaited(String sieve, long nanos);
+
+    /**
+     * Value was found in the cache.
+     */
+    void cacheHit(String name, int n);
+
+    /**
+     * Value was not found in the cache.
+     */
+    void cacheMiss(String name, int n);
+
+    /**
+     * Value was evicted from the cache.
+     */
+    void cacheEvicted(String name, int n);
+
+    /**
+     * Value was retrieved from a sequence.
+     */
+    void sequenceGet(String name, int n, long nanos);
+}
@@ -0,0 +1,156 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.metrics;
+
+/**
+ * Sequence and cache metrics.
+ *
+ * @author Bear Giles <bgiles@coyotesong.com>
+ */
+public final class SequenceMetrics implements SequenceMetricsMBean {
+    private final String name;
+    private final StripedCounter hits = new StripedCounter();
+    private final StripedCounter misses = new StripedCounter();
+    private final StripedCounter evictions = new StripedCounter();
+    private final StripedCounter gets = new StripedCounter();
+    private final StripedCounter getTime = new StripedCounter();
+
+    SequenceMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get sequence or cache name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Record cache hit.
+     */
+    public void recordHit(int n) {
+        hits.increment();
+
+        for (MetricsListener listener : Metrics.getListeners()) {
+            listener.cacheHit(name, n);
+        }
+    }
+
+    /**
+     * Record cache miss.
+     */
+    public void recordMiss(int n) {
+        misses.increment();
+
+        for (MetricsListener listener : Metrics.getListeners()) {
+            listener.cacheMiss(name, n);
+        }
+    }
+
+    /**
+     * Record cache eviction.
+     */
+    public void recordEviction(int n) {
+        evictions.increment();
+
+        for (MetricsListener listener : Metrics.getListeners()) {
+            listener.cacheEvicted(name, n);
+        }
+    }
+
+    /**
+     * Record get() call.
+     */
+    public void recordGet(int n, long nanos) {
+        gets.increment();
+        getTime.add(nanos);
+
+        for (MetricsListener listener : Metrics.getListeners()) {
+            listener.sequenceGet(name, n, nanos);
+        }
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.metrics.SequenceMetricsMBean#getHits()
+     */
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.metrics.SequenceMetricsMBean#getMisses()
+     */
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.metrics.SequenceMetricsMBean#getHitRatio()
+     */
+    @Override
+    public double getHitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+
+        return (total == 0) ? Double.NaN : ((double) h) / total;
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.metrics.SequenceMetricsMBean#getEvictions()
+     */
+    @Override
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.metrics.SequenceMetricsMBean#getGets()
+     */
+    @Override
+    public long getGets() {
+        return gets.sum();
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.metrics.SequenceMetricsMBean#getGetTime()
+     */
+    @Override
+    public long getGetTime() {
+        return getTime.sum();
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.metrics.SequenceMetricsMBean#reset()
+     */
+    @Override
+    public void reset() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+        gets.reset();
+        getTime.reset();
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.metrics;
+
+/**
+ * Sieve metrics.
+ *
+ * @author Bear Giles <bgiles@coyotesong.com>
+ */
+public final class SieveMetrics implements SieveMetricsMBean {
+    private final String name;
+    private final StripedCounter growths = new StripedCounter();
+    private final StripedCounter growthTime = new StripedCounter();
+    private final StripedCounter lockAcquisitions = new StripedCounter();
+    private final StripedCounter lockWaitTime = new StripedCounter();
+    private volatile long size;
+
+    SieveMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get sieve name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Record sieve size. This is always recorded since it's not on the hot
+     * path.
+     */
+    public void recordSize(long size) {
+        this.size = size;
+    }
+
+    /**
+     * Record sieve growth.
+     */
+    public void recordGrowth(long oldSize, long newSize, long nanos) {
+        this.size = newSize;
+        growths.increment();
+        growthTime.add(nanos);
+
+        for (MetricsListener listener : Metrics.getListeners()) {
+            listener.sieveGrown(name, oldSize, newSize, nanos);
+        }
+    }
+
+    /**
+     * Record lock acquisition.
+     */
+    public void recordLockWait(long nanos) {
+        lockAcquisitions.increment();
+        lockWaitTime.add(nanos);
+
+        for (MetricsListener listener : Metrics.getListeners()) {
+            listener.lockWaited(name, nanos);
+        }
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.metrics.SieveMetricsMBean#getSize()
+     */
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.metrics.SieveMetricsMBean#getGrowths()
+     */
+    @Override
+    public long getGrowths() {
+        return growths.sum();
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.metrics.SieveMetricsMBean#getGrowthTime()
+     */
+    @Override
+    public long getGrowthTime() {
+        return growthTime.sum();
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.metrics.SieveMetricsMBean#getLockAcquisitions()
+     */
+    @Override
+    public long getLockAcquisitions() {
+        return lockAcquisitions.sum();
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.metrics.SieveMetricsMBean#getLockWaitTime()
+     */
+    @Override
+    public long getLockWaitTime() {
+        return lockWaitTime.sum();
+    }
+
+    /**
+     * @see com.invariantproperties.projecteuler.metrics.SieveMetricsMBean#reset()
+     */
+    @Override
+    public void reset() {
+        growths.reset();
+        growthTime.reset();
+        lockAcquisitions.reset();
+        lockWaitTime.reset();
+    }
+}
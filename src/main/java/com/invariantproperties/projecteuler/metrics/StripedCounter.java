@@ -0,0 +1,64 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counter that avoids contention between threads. This is a thin wrapper
+ * around LongAdder, which grows its striped cells on demand, so callers don't
+ * depend on the JDK class directly.
+ *
+ * @author Bear Giles <bgiles@coyotesong.com>
+ */
+final class StripedCounter {
+    private final LongAdder adder = new LongAdder();
+
+    /**
+     * Add value to counter.
+     */
+    void add(long x) {
+        adder.add(x);
+    }
+
+    /**
+     * Increment counter.
+     */
+    void increment() {
+        adder.increment();
+    }
+
+    /**
+     * Get current sum. This is not an atomic snapshot.
+     */
+    long sum() {
+        return adder.sum();
+    }
+
+    /**
+     * Reset counter.
+     */
+    void reset() {
+        adder.reset();
+    }
+}
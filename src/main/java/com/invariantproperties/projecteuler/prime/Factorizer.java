@@ -0,0 +1,306 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.prime;
+
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.invariantproperties.projecteuler.IntegerMath;
+import com.invariantproperties.projecteuler.PlatformMath;
+
+/**
+ * Factorization of values beyond the range of the sieves. Small values are
+ * factored with the SloanesUtil table. Larger values use trial division by
+ * the primes below 2^16 from the Sieve of Atkin, a probabilistic primality
+ * test of the cofactor and Brent's variant of Pollard's rho method for
+ * composite cofactors.
+ *
+ * Pollard's rho method finds a factor p in roughly sqrt(p) steps so this is
+ * fast for any long value but only practical for BigIntegers whose second
+ * largest prime factor is small.
+ *
+ * @author Bear Giles <bgiles@coyotesong.com>
+ */
+public final class Factorizer {
+    private static final int TRIAL_LIMIT = 1 << 16;
+    private static final int[] SMALL_PRIMES;
+    private static final int CERTAINTY = 50;
+
+    static {
+        int count = 0;
+        while (SieveOfAtkin.SIEVE.get(count) < TRIAL_LIMIT) {
+            count++;
+        }
+
+        SMALL_PRIMES = new int[count];
+        for (int i = 0; i < count; i++) {
+            SMALL_PRIMES[i] = SieveOfAtkin.SIEVE.get(i);
+        }
+    }
+
+    private Factorizer() {
+    }
+
+    /**
+     * Factor a number.
+     *
+     * @param n
+     * @return map from each prime factor to its exponent, in increasing order
+     *         of the primes.
+     * @throws IllegalArgumentException
+     *             if n is not positive
+     */
+    public static Map<Long, Integer> factor(long n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("value must be positive");
+        }
+
+        Map<Long, Integer> factors = new TreeMap<Long, Integer>();
+
+        if (n < SloanesUtil.SIEVE_SIZE) {
+            for (Map.Entry<Integer, Integer> entry : SloanesUtil.factor((int) n).entrySet()) {
+                factors.put(entry.getKey().longValue(), entry.getValue());
+            }
+
+            return factors;
+        }
+
+        for (int p : SMALL_PRIMES) {
+            if (((long) p * p) > n) {
+                break;
+            }
+
+            if ((n % p) == 0) {
+                int e = 0;
+                do {
+                    n /= p;
+                    e++;
+                } while ((n % p) == 0);
+                factors.put((long) p, e);
+            }
+        }
+
+        if (n > 1) {
+            factorLarge(n, factors);
+        }
+
+        return factors;
+    }
+
+    /**
+     * Factor a value with no prime factors below 2^16.
+     */
+    private static void factorLarge(long n, Map<Long, Integer> factors) {
+        if ((n < ((long) TRIAL_LIMIT * TRIAL_LIMIT)) || BigInteger.valueOf(n).isProbablePrime(CERTAINTY)) {
+            add(factors, n, 1);
+            return;
+        }
+
+        // rho can be slow to separate equal factors
+        long d = IntegerMath.sqrtExact(n);
+        if (d < 0) {
+            d = rho(n);
+        }
+        factorLarge(d, factors);
+        factorLarge(n / d, factors);
+    }
+
+    private static <T> void add(Map<T, Integer> factors, T p, int e) {
+        Integer current = factors.get(p);
+        factors.put(p, (current == null) ? e : (current + e));
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+
+        return a;
+    }
+
+    /**
+     * Compute (y^2 + c) % n without overflow.
+     */
+    private static long next(long y, long c, long n) {
+        long t = PlatformMath.mulmod(y, y, n);
+        return (t < (n - c)) ? (t + c) : (t - (n - c));
+    }
+
+    /**
+     * Find a non-trivial factor of an odd composite number with Brent's
+     * variant of Pollard's rho method.
+     */
+    private static long rho(long n) {
+        for (long c = 1;; c++) {
+            long y = 2;
+            long x = y;
+            long g = 1;
+            long q = 1;
+            long ys = y;
+
+            for (long r = 1; g == 1; r <<= 1) {
+                x = y;
+                for (long i = 0; i < r; i++) {
+                    y = next(y, c, n);
+                }
+
+                for (long k = 0; (k < r) && (g == 1); k += 128) {
+                    ys = y;
+                    for (long i = 0; i < Math.min(128, r - k); i++) {
+                        y = next(y, c, n);
+                        q = PlatformMath.mulmod(q, Math.abs(x - y), n);
+                    }
+                    g = gcd(q, n);
+                }
+            }
+
+            if (g == n) {
+                // backtrack one step at a time
+                do {
+                    ys = next(ys, c, n);
+                    g = gcd(Math.abs(x - ys), n);
+                } while (g == 1);
+            }
+
+            if (g != n) {
+                return g;
+            }
+        }
+    }
+
+    /**
+     * Factor a number.
+     *
+     * @param n
+     * @return map from each prime factor to its exponent, in increasing order
+     *         of the primes.
+     * @throws IllegalArgumentException
+     *             if n is not positive
+     */
+    public static Map<BigInteger, Integer> factor(BigInteger n) {
+        if (n.signum() < 1) {
+            throw new IllegalArgumentException("value must be positive");
+        }
+
+        Map<BigInteger, Integer> factors = new TreeMap<BigInteger, Integer>();
+
+        if (n.bitLength() < 63) {
+            for (Map.Entry<Long, Integer> entry : factor(n.longValue()).entrySet()) {
+                factors.put(BigInteger.valueOf(entry.getKey()), entry.getValue());
+            }
+
+            return factors;
+        }
+
+        for (int p : SMALL_PRIMES) {
+            BigInteger P = BigInteger.valueOf(p);
+            BigInteger[] qr = n.divideAndRemainder(P);
+            if (qr[1].signum() == 0) {
+                int e = 0;
+                do {
+                    n = qr[0];
+                    e++;
+                    qr = n.divideAndRemainder(P);
+                } while (qr[1].signum() == 0);
+                factors.put(P, e);
+            }
+        }
+
+        factorLarge(n, factors);
+
+        return factors;
+    }
+
+    /**
+     * Factor a value with no prime factors below 2^16.
+     */
+    private static void factorLarge(BigInteger n, Map<BigInteger, Integer> factors) {
+        if (n.equals(BigInteger.ONE)) {
+            return;
+        }
+
+        if (n.bitLength() < 63) {
+            Map<Long, Integer> small = new TreeMap<Long, Integer>();
+            factorLarge(n.longValue(), small);
+            for (Map.Entry<Long, Integer> entry : small.entrySet()) {
+                add(factors, BigInteger.valueOf(entry.getKey()), entry.getValue());
+            }
+            return;
+        }
+
+        if (n.isProbablePrime(CERTAINTY)) {
+            add(factors, n, 1);
+            return;
+        }
+
+        BigInteger r = IntegerMath.isqrt(n);
+        BigInteger d = r.multiply(r).equals(n) ? r : rho(n);
+        factorLarge(d, factors);
+        factorLarge(n.divide(d), factors);
+    }
+
+    /**
+     * Find a non-trivial factor of an odd composite number with Brent's
+     * variant of Pollard's rho method.
+     */
+    private static BigInteger rho(BigInteger n) {
+        for (long c = 1;; c++) {
+            BigInteger C = BigInteger.valueOf(c);
+            BigInteger y = BigInteger.valueOf(2);
+            BigInteger x = y;
+            BigInteger g = BigInteger.ONE;
+            BigInteger q = BigInteger.ONE;
+            BigInteger ys = y;
+
+            for (long r = 1; g.equals(BigInteger.ONE); r <<= 1) {
+                x = y;
+                for (long i = 0; i < r; i++) {
+                    y = y.multiply(y).add(C).mod(n);
+                }
+
+                for (long k = 0; (k < r) && g.equals(BigInteger.ONE); k += 128) {
+                    ys = y;
+                    for (long i = 0; i < Math.min(128, r - k); i++) {
+                        y = y.multiply(y).add(C).mod(n);
+                        q = q.multiply(x.subtract(y).abs()).mod(n);
+                    }
+                    g = q.gcd(n);
+                }
+            }
+
+            if (g.equals(n)) {
+                do {
+                    ys = ys.multiply(ys).add(C).mod(n);
+                    g = x.subtract(ys).abs().gcd(n);
+                } while (g.equals(BigInteger.ONE));
+            }
+
+            if (!g.equals(n)) {
+                return g;
+            }
+        }
+    }
+}
@@ -31,6 +31,9 @@ import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import com.invariantproperties.projecteuler.AbstractListIterator;
+import com.invariantproperties.projecteuler.IntegerMath;
+import com.invariantproperties.projecteuler.metrics.Metrics;
+import com.invariantproperties.projecteuler.metrics.SieveMetrics;
 
 /*
  * Singleton Implementation of Sieve Of Atkin. It is used to determine primality. 
@@ -48,6 +51,7 @@ public enum SieveOfAtkin implements Iterable<Integer> {
     SIEVE;
     private final byte MASK[] = new byte[8];
     private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SieveMetrics metrics = Metrics.sieve("SieveOfAtkin");
     private final List<Integer> primecache = new ArrayList<Integer>();
 
     private byte[] sieve;
@@ -60,6 +64,7 @@ public enum SieveOfAtkin implements Iterable<Integer> {
         // initialize with first million primes - 15485865
         // initialize with first 10k primes - 104729
         sieve = initialize(104729);
+        metrics.recordSize(8L * sieve.length);
 
         // initialize cache with first 10k primes for quick access
         primecache.add(2);
@@ -103,7 +108,7 @@ public enum SieveOfAtkin implements Iterable<Integer> {
      */
     private byte[] initialize(int sieveSize) {
         // actual sieve size
-        int sqrt = (int) Math.round(Math.ceil(Math.sqrt(sieveSize)));
+        int sqrt = (int) IntegerMath.ceilSqrt(sieveSize);
         int actualSieveSize = 8 * ((sqrt * sqrt + 7) / 8);
 
         sieve = new byte[actualSieveSize / 8];
@@ -158,13 +163,40 @@ public enum SieveOfAtkin implements Iterable<Integer> {
     private void reinitialize(int n) {
         assert n > 0;
 
+        final long oldSize;
+        final long newSize;
+
         lock.writeLock().lock();
+
+        // time the growth itself, not waiting for readers.
+        final long start = System.nanoTime();
         try {
+            oldSize = 8L * sieve.length;
             // allocate 50% more than required to minimize thrashing.
             sieve = initialize((3 * n) / 2);
+            newSize = 8L * sieve.length;
         } finally {
             lock.writeLock().unlock();
         }
+
+        if (Metrics.isEnabled()) {
+            metrics.recordGrowth(oldSize, newSize, System.nanoTime() - start);
+        } else {
+            metrics.recordSize(newSize);
+        }
+    }
+
+    /**
+     * Acquire the read lock, recording the wait if metrics are enabled.
+     */
+    private void lockRead() {
+        if (Metrics.isEnabled()) {
+            final long start = System.nanoTime();
+            lock.readLock().lock();
+            metrics.recordLockWait(System.nanoTime() - start);
+        } else {
+            lock.readLock().lock();
+        }
     }
 
     /**
@@ -199,7 +231,7 @@ public enum SieveOfAtkin implements Iterable<Integer> {
 
         boolean value = false;
         try {
-            lock.readLock().lock();
+            lockRead();
             value = getBit(n);
         } finally {
             lock.readLock().unlock();
@@ -33,6 +33,9 @@ import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import com.invariantproperties.projecteuler.AbstractListIterator;
+import com.invariantproperties.projecteuler.IntegerMath;
+import com.invariantproperties.projecteuler.metrics.Metrics;
+import com.invariantproperties.projecteuler.metrics.SieveMetrics;
 
 /*
  * Singleton Implementation of modified Sieve Of Eratosthenes. This sieve
@@ -47,6 +50,7 @@ import com.invariantproperties.projecteuler.AbstractListIterator;
 public enum SieveOfEratosthenes implements Iterable<Integer> {
     SIEVE;
     private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SieveMetrics metrics = Metrics.sieve("SieveOfEratosthenes");
     private final List<Integer> primecache = new ArrayList<Integer>();
 
     private volatile int[] sieve;
@@ -55,10 +59,11 @@ public enum SieveOfEratosthenes implements Iterable<Integer> {
         // initialize with first million primes - 15485865
         // initialize with first 10k primes - 104729
         sieve = initialize(104729);
+        metrics.recordSize(sieve.length);
 
         // initialize cache with first 10k primes for quick access
         try {
-            lock.readLock().lock();
+            lockRead();
             primecache.add(2);
             for (int n = 3; primecache.size() < 10000; n += 2) {
                 if (isPrime(n)) {
@@ -76,7 +81,7 @@ public enum SieveOfEratosthenes implements Iterable<Integer> {
     private int[] initialize(int sieveSize) {
         assert sieveSize > 0;
 
-        long sqrt = Math.round(Math.ceil(Math.sqrt(sieveSize)));
+        long sqrt = IntegerMath.ceilSqrt(sieveSize);
         int actualSieveSize = (int) (sqrt * sqrt);
 
         // data is initialized to zero
@@ -100,13 +105,40 @@ public enum SieveOfEratosthenes implements Iterable<Integer> {
     private void reinitialize(int n) {
         assert n > 0;
 
+        final long oldSize;
+        final long newSize;
+
+        lock.writeLock().lock();
+
+        // time the growth itself, not waiting for readers.
+        final long start = System.nanoTime();
         try {
-            lock.writeLock().lock();
+            oldSize = sieve.length;
             // allocate 50% more than required to minimize thrashing.
             sieve = initialize((3 * n) / 2);
+            newSize = sieve.length;
         } finally {
             lock.writeLock().unlock();
         }
+
+        if (Metrics.isEnabled()) {
+            metrics.recordGrowth(oldSize, newSize, System.nanoTime() - start);
+        } else {
+            metrics.recordSize(newSize);
+        }
+    }
+
+    /**
+     * Acquire the read lock, recording the wait if metrics are enabled.
+     */
+    private void lockRead() {
+        if (Metrics.isEnabled()) {
+            final long start = System.nanoTime();
+            lock.readLock().lock();
+            metrics.recordLockWait(System.nanoTime() - start);
+        } else {
+            lock.readLock().lock();
+        }
     }
 
     /**
@@ -131,7 +163,7 @@ public enum SieveOfEratosthenes implements Iterable<Integer> {
 
         boolean isPrime = false;
         try {
-            lock.readLock().lock();
+            lockRead();
             isPrime = sieve[n] == 0;
         } finally {
             lock.readLock().unlock();
@@ -158,7 +190,7 @@ public enum SieveOfEratosthenes implements Iterable<Integer> {
         final Map<Integer, Integer> factors = new TreeMap<Integer, Integer>();
 
         try {
-            lock.readLock().lock();
+            lockRead();
             // handle reinitialization in just one place.
             isPrime(n);
 
@@ -30,6 +30,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
+import com.invariantproperties.projecteuler.IntegerMath;
+
 /**
  * To add: - A006530 - Gpf(n) - greatest prime factor (a(1) = 1) - A007947 -
  * rad(n) - largest squarefree number dividing n, radical of n - A003557 - n
@@ -40,7 +42,7 @@ import java.util.TreeMap;
  * 
  */
 public class SloanesUtil {
-    private static final int SIEVE_SIZE = 10000000 + 1;
+    static final int SIEVE_SIZE = 10000000 + 1;
     private static int[] greatestFactor;
     private static final List<Integer> seeds = Arrays.asList(2, 3, 5, 7, 11, 13, 17, 19);
     private static final LinkedHashMap<Integer, Map<Integer, Integer>> factorCache;
@@ -70,7 +72,7 @@ public class SloanesUtil {
         }
 
         // now do modified Sieve of Er...
-        int sqrt = (int) Math.floor(Math.sqrt(size) + 1);
+        int sqrt = (int) IntegerMath.isqrt(size) + 1;
 
         for (int prime = 2; prime < sqrt; prime++) {
             if (0 == greatestFactor[prime]) {
@@ -24,8 +24,6 @@ package com.invariantproperties.projecteuler.pythagoras;
 
 import java.math.BigInteger;
 
-import java.util.Stack;
-
 
 /**
  * Primative pythagorean triples. There are three sets of values of interest.
@@ -40,6 +38,11 @@ public class BigPythagoreanTriple {
     private static final BigInteger ONE = BigInteger.ONE;
     private static final BigInteger TWO = BigInteger.valueOf(2);
     private static final BigInteger THREE = BigInteger.valueOf(3);
+    private static final double LOG3_2 = Math.log(2) / Math.log(3);
+
+    // number of transforms that can be combined in long arithmetic. The
+    // entries grow by at most a factor of three per transform.
+    private static final int LEAF_SIZE = 32;
     private static final BigPythagoreanTriple START = new BigPythagoreanTriple(2,
             1);
     private BigInteger m;
@@ -195,6 +198,14 @@ public class BigPythagoreanTriple {
      * Get specific Pythagorean triple. This will eventually produce all
      * primitive Pythagorean triples.
      * <p>
+     * The index is a bijective base-3 numbering of the paths from the root
+     * of the Berggren/Barning tree. The indices at depth k start at
+     * (3^k - 1)/2 so the path is the base-3 representation of the offset
+     * from the start of its level, padded to k digits. It's converted in a
+     * single pass and the U/A/D transforms along the path are combined as
+     * 2x2 matrix products in a product tree. That keeps the cost
+     * subquadratic in the number of digits.
+     * <p>
      * TODO: is there an easy way to get from (m, n) to idx?
      * <p>
      * TODO: cache values?
@@ -203,42 +214,103 @@ public class BigPythagoreanTriple {
      * @return
      */
     public static BigPythagoreanTriple getInstance(BigInteger idx) {
-        Stack<Integer> stack = new Stack<Integer>();
+        if (idx.signum() < 0) {
+            throw new IllegalArgumentException(
+                "idx must be zero or positive number");
+        }
 
-        while (idx.compareTo(ZERO) > 0) {
-            BigInteger i = idx.subtract(ONE);
-            stack.push(i.remainder(THREE).intValue());
-            idx = i.divide(THREE);
+        if (idx.signum() == 0) {
+            return START;
         }
 
-        BigInteger m = TWO;
-        BigInteger n = ONE;
+        // find depth k such that 3^k <= 2 idx + 1 < 3^(k+1)
+        BigInteger t = idx.shiftLeft(1).add(ONE);
+        int k = (int) ((t.bitLength() - 1) * LOG3_2);
+        BigInteger p = THREE.pow(k);
 
-        while (!stack.isEmpty()) {
-            BigInteger t = m;
+        while (p.compareTo(t) > 0) {
+            p = p.divide(THREE);
+            k--;
+        }
 
-            switch (stack.pop()) {
-            case 0: // U
-                m = TWO.multiply(m).subtract(n);
-                n = t;
+        while (p.multiply(THREE).compareTo(t) <= 0) {
+            p = p.multiply(THREE);
+            k++;
+        }
 
-                break;
+        String digits = idx.subtract(p.subtract(ONE).shiftRight(1)).toString(3);
+        char[] path = new char[k];
+        int pad = k - digits.length();
 
-            case 1: // A
-                m = TWO.multiply(m).add(n);
-                n = t;
+        for (int i = 0; i < pad; i++) {
+            path[i] = '0';
+        }
+
+        digits.getChars(0, digits.length(), path, pad);
 
-                break;
+        BigInteger[] matrix = product(path, 0, k);
+        BigInteger m = TWO.multiply(matrix[0]).add(matrix[1]);
+        BigInteger n = TWO.multiply(matrix[2]).add(matrix[3]);
 
-            case 2: // D
-                m = m.add(TWO.multiply(n));
+        return new BigPythagoreanTriple(m, n);
+    }
 
-                break;
+    /**
+     * Get the matrix for the transforms path[from] ... path[to - 1], applied
+     * in that order, as { a, b, c, d } for [[a, b], [c, d]]. Short paths are
+     * computed with long arithmetic.
+     */
+    private static BigInteger[] product(char[] path, int from, int to) {
+        if ((to - from) <= LEAF_SIZE) {
+            long a = 1;
+            long b = 0;
+            long c = 0;
+            long d = 1;
+
+            for (int i = from; i < to; i++) {
+                long ta = a;
+                long tb = b;
+
+                switch (path[i]) {
+                case '0': // U = [[2, -1], [1, 0]]
+                    a = (2 * a) - c;
+                    b = (2 * b) - d;
+                    c = ta;
+                    d = tb;
+
+                    break;
+
+                case '1': // A = [[2, 1], [1, 0]]
+                    a = (2 * a) + c;
+                    b = (2 * b) + d;
+                    c = ta;
+                    d = tb;
+
+                    break;
+
+                case '2': // D = [[1, 2], [0, 1]]
+                    a += (2 * c);
+                    b += (2 * d);
+
+                    break;
+                }
             }
 
-            idx = idx.subtract(ONE).divide(THREE);
+            return new BigInteger[] {
+                BigInteger.valueOf(a), BigInteger.valueOf(b), BigInteger.valueOf(c),
+                BigInteger.valueOf(d)
+            };
         }
 
-        return new BigPythagoreanTriple(m, n);
+        int mid = (from + to) >>> 1;
+        BigInteger[] x = product(path, mid, to);
+        BigInteger[] y = product(path, from, mid);
+
+        return new BigInteger[] {
+            x[0].multiply(y[0]).add(x[1].multiply(y[2])),
+            x[0].multiply(y[1]).add(x[1].multiply(y[3])),
+            x[2].multiply(y[0]).add(x[3].multiply(y[2])),
+            x[2].multiply(y[1]).add(x[3].multiply(y[3]))
+        };
     }
 }
@@ -0,0 +1,326 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.pythagoras;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import com.invariantproperties.projecteuler.IntegerMath;
+import com.invariantproperties.projecteuler.prime.Factorizer;
+
+/**
+ * Lookup of all Pythagorean triples with a given hypotenuse.
+ * <p>
+ * c is the hypotenuse of the triple k(m^2 - n^2, 2mn, m^2 + n^2) iff
+ * d = c/k = m^2 + n^2 with gcd(m, n) = 1 and m - n odd. Such a d is a product
+ * of primes p = 1 (mod 4) and every p splits into Gaussian primes
+ * (x + iy)(x - iy). The primitive representations of d correspond to the
+ * choices of a Gaussian prime or its conjugate for each prime factor, so the
+ * triples are generated directly from the factorization of c instead of
+ * searching the tree. If c = 2^a prod p^e prod q^f with p = 1 (mod 4) and
+ * q = 3 (mod 4) there are (prod (2e + 1) - 1)/2 triples.
+ *
+ * @author bgiles
+ */
+public final class HypotenuseLookup {
+    private static final BigInteger FOUR = BigInteger.valueOf(4);
+
+    private HypotenuseLookup() {
+    }
+
+    /**
+     * Count the triples with hypotenuse c without generating them.
+     */
+    public static long count(long c) {
+        if (c < 1) {
+            throw new IllegalArgumentException("c must be positive");
+        }
+
+        long product = 1;
+        for (Map.Entry<Long, Integer> entry : Factorizer.factor(c).entrySet()) {
+            if ((entry.getKey() % 4) == 1) {
+                product *= (2 * entry.getValue()) + 1;
+            }
+        }
+
+        return (product - 1) / 2;
+    }
+
+    /**
+     * Find all triples (primitive and non-primitive) with hypotenuse c.
+     *
+     * @param c
+     * @return consecutive (a, b, c) values, where a = k(m^2 - n^2) and
+     *         b = 2kmn, in increasing order of a.
+     */
+    public static long[] triples(long c) {
+        if (c < 1) {
+            throw new IllegalArgumentException("c must be positive");
+        }
+
+        List<long[]> split = new ArrayList<long[]>();
+        for (Map.Entry<Long, Integer> entry : Factorizer.factor(c).entrySet()) {
+            long p = entry.getKey();
+            if ((p % 4) == 1) {
+                long[] xy = sumOfSquares(p);
+                split.add(new long[] { p, entry.getValue(), xy[0], xy[1] });
+            }
+        }
+
+        int count = 1;
+        for (long[] s : split) {
+            count *= (2 * s[1]) + 1;
+        }
+        count = (count - 1) / 2;
+
+        long[][] powers = new long[split.size()][];
+        for (int i = 0; i < powers.length; i++) {
+            long[] s = split.get(i);
+            int e = (int) s[1];
+            powers[i] = new long[2 * (e + 1)];
+            powers[i][0] = 1;
+            powers[i][1] = 0;
+            for (int f = 1; f <= e; f++) {
+                long u = powers[i][2 * (f - 1)];
+                long v = powers[i][(2 * (f - 1)) + 1];
+                powers[i][2 * f] = (u * s[2]) - (v * s[3]);
+                powers[i][(2 * f) + 1] = (u * s[3]) + (v * s[2]);
+            }
+        }
+
+        long[] results = new long[3 * count];
+        int n = generate(split, powers, 0, 1, 0, c, true, results, 0);
+        assert n == (3 * count);
+
+        sort(results, count);
+
+        return results;
+    }
+
+    /**
+     * Choose the exponent and conjugate of each Gaussian prime in turn. The
+     * first Gaussian prime is never conjugated since conjugating every
+     * factor produces the same triple.
+     *
+     * @return next position in results
+     */
+    private static int generate(List<long[]> split, long[][] powers, int i, long u, long v, long k, boolean first,
+            long[] results, int pos) {
+        if (i == split.size()) {
+            if (!first) {
+                long m = Math.max(Math.abs(u), Math.abs(v));
+                long n = Math.min(Math.abs(u), Math.abs(v));
+                results[pos++] = k * ((m * m) - (n * n));
+                results[pos++] = 2 * k * m * n;
+                results[pos++] = k * ((m * m) + (n * n));
+            }
+            return pos;
+        }
+
+        long p = split.get(i)[0];
+        int e = (int) split.get(i)[1];
+
+        pos = generate(split, powers, i + 1, u, v, k, first, results, pos);
+
+        for (int f = 1; f <= e; f++) {
+            k /= p;
+            long x = powers[i][2 * f];
+            long y = powers[i][(2 * f) + 1];
+
+            pos = generate(split, powers, i + 1, (u * x) - (v * y), (u * y) + (v * x), k, false, results, pos);
+            if (!first) {
+                // conjugate
+                pos = generate(split, powers, i + 1, (u * x) + (v * y), (v * x) - (u * y), k, false, results, pos);
+            }
+        }
+
+        return pos;
+    }
+
+    /**
+     * Find x, y such that x^2 + y^2 = p for a prime p = 1 (mod 4). A square
+     * root t of -1 mod p is found from a quadratic non-residue and the
+     * Euclidean algorithm on (p, t) stops at the first remainder below
+     * sqrt(p), which is x (Cornacchia).
+     */
+    static long[] sumOfSquares(long p) {
+        if (p == 5) {
+            return new long[] { 2, 1 };
+        }
+
+        BigInteger P = BigInteger.valueOf(p);
+        BigInteger exp = P.subtract(BigInteger.ONE).shiftRight(2);
+        long t = 0;
+
+        for (long a = 2; t == 0; a++) {
+            long s = BigInteger.valueOf(a).modPow(exp, P).longValue();
+            // s^2 is -1 iff a is a non-residue
+            if (BigInteger.valueOf(s).pow(2).mod(P).longValue() == (p - 1)) {
+                t = s;
+            }
+        }
+
+        long r = IntegerMath.isqrt(p);
+        long a = p;
+        long b = t;
+
+        while (b > r) {
+            long tmp = a % b;
+            a = b;
+            b = tmp;
+        }
+
+        return new long[] { b, IntegerMath.isqrt(p - (b * b)) };
+    }
+
+    /**
+     * Sort the packed triples in increasing order of a. All of the triples
+     * share the hypotenuse so b decreases as a increases and the two legs
+     * can be sorted independently.
+     */
+    private static void sort(long[] results, int count) {
+        long[] a = new long[count];
+        long[] b = new long[count];
+
+        for (int i = 0; i < count; i++) {
+            a[i] = results[3 * i];
+            b[i] = results[(3 * i) + 1];
+        }
+
+        Arrays.sort(a);
+        Arrays.sort(b);
+
+        for (int i = 0; i < count; i++) {
+            results[3 * i] = a[i];
+            results[(3 * i) + 1] = b[count - 1 - i];
+        }
+    }
+
+    /**
+     * Find all triples (primitive and non-primitive) with hypotenuse c.
+     *
+     * @param c
+     * @return list of { a, b, c }, where a = k(m^2 - n^2) and b = 2kmn, in
+     *         increasing order of a.
+     */
+    public static List<BigInteger[]> triples(BigInteger c) {
+        if (c.signum() < 1) {
+            throw new IllegalArgumentException("c must be positive");
+        }
+
+        List<BigInteger[]> split = new ArrayList<BigInteger[]>();
+        for (Map.Entry<BigInteger, Integer> entry : Factorizer.factor(c).entrySet()) {
+            BigInteger p = entry.getKey();
+            if (p.mod(FOUR).equals(BigInteger.ONE)) {
+                BigInteger[] xy = sumOfSquares(p);
+                split.add(new BigInteger[] { p, BigInteger.valueOf(entry.getValue()), xy[0], xy[1] });
+            }
+        }
+
+        List<BigInteger[]> results = new ArrayList<BigInteger[]>();
+        generate(split, 0, BigInteger.ONE, BigInteger.ZERO, c, true, results);
+
+        Collections.sort(results, new Comparator<BigInteger[]>() {
+            @Override
+            public int compare(BigInteger[] x, BigInteger[] y) {
+                return x[0].compareTo(y[0]);
+            }
+        });
+
+        return results;
+    }
+
+    private static void generate(List<BigInteger[]> split, int i, BigInteger u, BigInteger v, BigInteger k,
+            boolean first, List<BigInteger[]> results) {
+        if (i == split.size()) {
+            if (!first) {
+                BigInteger m = u.abs().max(v.abs());
+                BigInteger n = u.abs().min(v.abs());
+                BigInteger m2 = m.multiply(m);
+                BigInteger n2 = n.multiply(n);
+                results.add(new BigInteger[] { k.multiply(m2.subtract(n2)), k.multiply(m).multiply(n).shiftLeft(1),
+                    k.multiply(m2.add(n2)) });
+            }
+            return;
+        }
+
+        BigInteger p = split.get(i)[0];
+        int e = split.get(i)[1].intValue();
+        BigInteger x = BigInteger.ONE;
+        BigInteger y = BigInteger.ZERO;
+
+        generate(split, i + 1, u, v, k, first, results);
+
+        for (int f = 1; f <= e; f++) {
+            k = k.divide(p);
+            BigInteger tx = x.multiply(split.get(i)[2]).subtract(y.multiply(split.get(i)[3]));
+            y = x.multiply(split.get(i)[3]).add(y.multiply(split.get(i)[2]));
+            x = tx;
+
+            generate(split, i + 1, u.multiply(x).subtract(v.multiply(y)), u.multiply(y).add(v.multiply(x)), k, false,
+                results);
+            if (!first) {
+                generate(split, i + 1, u.multiply(x).add(v.multiply(y)), v.multiply(x).subtract(u.multiply(y)), k,
+                    false, results);
+            }
+        }
+    }
+
+    /**
+     * Find x, y such that x^2 + y^2 = p for a prime p = 1 (mod 4).
+     */
+    static BigInteger[] sumOfSquares(BigInteger p) {
+        if (p.bitLength() < 63) {
+            long[] xy = sumOfSquares(p.longValue());
+            return new BigInteger[] { BigInteger.valueOf(xy[0]), BigInteger.valueOf(xy[1]) };
+        }
+
+        BigInteger exp = p.subtract(BigInteger.ONE).shiftRight(2);
+        BigInteger pm1 = p.subtract(BigInteger.ONE);
+        BigInteger t = null;
+
+        for (long a = 2; t == null; a++) {
+            BigInteger s = BigInteger.valueOf(a).modPow(exp, p);
+            if (s.multiply(s).mod(p).equals(pm1)) {
+                t = s;
+            }
+        }
+
+        BigInteger r = IntegerMath.isqrt(p);
+        BigInteger a = p;
+        BigInteger b = t;
+
+        while (b.compareTo(r) > 0) {
+            BigInteger tmp = a.mod(b);
+            a = b;
+            b = tmp;
+        }
+
+        return new BigInteger[] { b, IntegerMath.isqrt(p.subtract(b.multiply(b))) };
+    }
+}
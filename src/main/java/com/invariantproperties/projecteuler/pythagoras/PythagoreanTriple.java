@@ -24,8 +24,6 @@ package com.invariantproperties.projecteuler.pythagoras;
 
 import java.math.BigInteger;
 
-import java.util.Stack;
-
 
 /**
  * Primative pythagorean triples. There are three sets of values of interest.
@@ -42,7 +40,6 @@ public class PythagoreanTriple {
     private long a;
     private long b;
     private long c;
-    private BigInteger d;
 
     public PythagoreanTriple(long m, long n) {
         if (m < 2) {
@@ -60,7 +57,14 @@ public class PythagoreanTriple {
         this.a = (m * m) - (n * n);
         this.c = (m * m) + (n * n);
         this.b = 2 * m * n;
-        this.d = BigInteger.valueOf(a).multiply(BigInteger.valueOf(m * n));
+    }
+
+    /**
+     * Get the square root of D. This is rarely needed so it's computed on
+     * demand instead of in the constructor.
+     */
+    private BigInteger d() {
+        return BigInteger.valueOf(a).multiply(BigInteger.valueOf(m * n));
     }
 
     /**
@@ -139,7 +143,7 @@ public class PythagoreanTriple {
      * @return
      */
     public BigInteger getY() {
-        return (d.pow(2)).divide(BigInteger.valueOf(n).pow(2));
+        return (d().pow(2)).divide(BigInteger.valueOf(n).pow(2));
     }
 
     /**
@@ -148,7 +152,7 @@ public class PythagoreanTriple {
      * @return
      */
     public BigInteger getX() {
-        return d.multiply(BigInteger.valueOf(m)).divide(BigInteger.valueOf(n));
+        return d().multiply(BigInteger.valueOf(m)).divide(BigInteger.valueOf(n));
     }
 
     /**
@@ -157,7 +161,7 @@ public class PythagoreanTriple {
      * @return
      */
     public BigInteger getD() {
-        return d.pow(2);
+        return d().pow(2);
     }
 
     /**
@@ -181,20 +185,23 @@ public class PythagoreanTriple {
             return START;
         }
 
-        Stack<Integer> stack = new Stack<Integer>();
+        // the path from the root, in reverse order. A long index is at most
+        // 40 levels deep.
+        byte[] path = new byte[40];
+        int depth = 0;
 
         while (idx > 0) {
-            stack.push((int) ((idx - 1) % 3));
+            path[depth++] = (byte) ((idx - 1) % 3);
             idx = (idx - 1) / 3;
         }
 
         long m = 2;
         long n = 1;
 
-        while (!stack.isEmpty()) {
+        while (depth > 0) {
             long t = m;
 
-            switch (stack.pop()) {
+            switch (path[--depth]) {
             case 0: // U
                 m = (2 * m) - n;
                 n = t;
@@ -212,8 +219,6 @@ public class PythagoreanTriple {
 
                 break;
             }
-
-            idx = (idx - 1) / 3;
         }
 
         return new PythagoreanTriple(m, n);
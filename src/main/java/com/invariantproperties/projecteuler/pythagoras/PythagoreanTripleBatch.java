@@ -0,0 +1,374 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.pythagoras;
+
+import java.util.Arrays;
+
+/**
+ * Compact batch of primitive Pythagorean triples. The values are stored in
+ * parallel primitive columns (m, n, a, b, c) instead of individual
+ * PythagoreanTriple objects. The perimeter, area and inradius are derived
+ * from the stored columns on demand.
+ * <p>
+ * The batch is a PythagoreanTripleVisitor so it can be filled directly by a
+ * PythagoreanTripleGenerator.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author bgiles
+ */
+public class PythagoreanTripleBatch implements PythagoreanTripleVisitor {
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    /**
+     * Column used for filtering and sorting.
+     */
+    public enum Column {
+        M, N, A, B, C, PERIMETER, AREA, INRADIUS
+    }
+
+    private long[] m;
+    private long[] n;
+    private long[] a;
+    private long[] b;
+    private long[] c;
+    private int size;
+
+    /**
+     * Default constructor.
+     */
+    public PythagoreanTripleBatch() {
+        this(1024);
+    }
+
+    /**
+     * Constructor taking the initial capacity.
+     */
+    public PythagoreanTripleBatch(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must be non-negative");
+        }
+
+        m = new long[capacity];
+        n = new long[capacity];
+        a = new long[capacity];
+        b = new long[capacity];
+        c = new long[capacity];
+    }
+
+    /**
+     * Get the number of triples.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Is the batch empty?
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove all triples. The capacity is retained.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > m.length) {
+            int len = Math.max(capacity, Math.max(16, m.length + (m.length >> 1)));
+            m = Arrays.copyOf(m, len);
+            n = Arrays.copyOf(n, len);
+            a = Arrays.copyOf(a, len);
+            b = Arrays.copyOf(b, len);
+            c = Arrays.copyOf(c, len);
+        }
+    }
+
+    /**
+     * Add the triple defined by the Euclidean indices (m, n).
+     */
+    public void add(long m, long n) {
+        if (m < 2) {
+            throw new IllegalArgumentException("m must be greater than one");
+        }
+
+        if (!((0 < n) && (n < m))) {
+            throw new IllegalArgumentException("n must be between zero and m exclusive");
+        }
+
+        append(m, n, (m * m) - (n * n), 2 * m * n, (m * m) + (n * n));
+    }
+
+    /**
+     * Add a triple produced by a generator.
+     *
+     * @see com.invariantproperties.projecteuler.pythagoras.PythagoreanTripleVisitor#visit(long,
+     *      long, long, long, long)
+     */
+    @Override
+    public void visit(long m, long n, long a, long b, long c) {
+        append(m, n, a, b, c);
+    }
+
+    private void append(long mm, long nn, long aa, long bb, long cc) {
+        ensureCapacity(size + 1);
+        m[size] = mm;
+        n[size] = nn;
+        a[size] = aa;
+        b[size] = bb;
+        c[size] = cc;
+        size++;
+    }
+
+    private void checkIndex(int i) {
+        if ((i < 0) || (i >= size)) {
+            throw new IndexOutOfBoundsException("index: " + i + ", size: " + size);
+        }
+    }
+
+    /**
+     * Get the Euclidean index m.
+     */
+    public long getM(int i) {
+        checkIndex(i);
+        return m[i];
+    }
+
+    /**
+     * Get the Euclidean index n.
+     */
+    public long getN(int i) {
+        checkIndex(i);
+        return n[i];
+    }
+
+    /**
+     * Get the length of the odd leg.
+     */
+    public long getA(int i) {
+        checkIndex(i);
+        return a[i];
+    }
+
+    /**
+     * Get the length of the even leg.
+     */
+    public long getB(int i) {
+        checkIndex(i);
+        return b[i];
+    }
+
+    /**
+     * Get the hypotenuse.
+     */
+    public long getC(int i) {
+        checkIndex(i);
+        return c[i];
+    }
+
+    /**
+     * Get the perimeter of the triangle. That is, a + b + c.
+     */
+    public long getPerimeter(int i) {
+        checkIndex(i);
+        return a[i] + b[i] + c[i];
+    }
+
+    /**
+     * Get the area of the triangle. That is, ab/2.
+     */
+    public long getArea(int i) {
+        checkIndex(i);
+        return (a[i] * b[i]) / 2;
+    }
+
+    /**
+     * Get the radius of the incircle for the triangle.
+     */
+    public long getInRadius(int i) {
+        checkIndex(i);
+        return n[i] * (m[i] - n[i]);
+    }
+
+    /**
+     * Get the specified value.
+     */
+    public long get(Column column, int i) {
+        checkIndex(i);
+        return value(column, i);
+    }
+
+    private long value(Column column, int i) {
+        switch (column) {
+        case M:
+            return m[i];
+        case N:
+            return n[i];
+        case A:
+            return a[i];
+        case B:
+            return b[i];
+        case C:
+            return c[i];
+        case PERIMETER:
+            return a[i] + b[i] + c[i];
+        case AREA:
+            return (a[i] * b[i]) / 2;
+        case INRADIUS:
+            return n[i] * (m[i] - n[i]);
+        default:
+            throw new AssertionError(column);
+        }
+    }
+
+    /**
+     * Get the triple as an object.
+     */
+    public PythagoreanTriple getTriple(int i) {
+        checkIndex(i);
+        return new PythagoreanTriple(m[i], n[i]);
+    }
+
+    /**
+     * Keep only the triples where min &lt;= column &lt;= max. The batch is
+     * compacted in place and the relative order is preserved.
+     *
+     * @return number of triples removed
+     */
+    public int retain(Column column, long min, long max) {
+        int j = 0;
+
+        for (int i = 0; i < size; i++) {
+            long x = value(column, i);
+            if ((min <= x) && (x <= max)) {
+                if (i != j) {
+                    m[j] = m[i];
+                    n[j] = n[i];
+                    a[j] = a[i];
+                    b[j] = b[i];
+                    c[j] = c[i];
+                }
+                j++;
+            }
+        }
+
+        int removed = size - j;
+        size = j;
+
+        return removed;
+    }
+
+    /**
+     * Copy the specified column into a new array.
+     */
+    public long[] toArray(Column column) {
+        long[] results = new long[size];
+
+        for (int i = 0; i < size; i++) {
+            results[i] = value(column, i);
+        }
+
+        return results;
+    }
+
+    /**
+     * Sort the triples in ascending order of the specified column. The sort
+     * is not stable. Derived columns are computed once before sorting.
+     */
+    public void sort(Column column) {
+        long[] key = toArray(column);
+        quicksort(key, 0, size - 1);
+    }
+
+    /**
+     * Quicksort of the key and all columns. Each recursion handles the
+     * smaller partition so the stack depth is O(log n).
+     */
+    private void quicksort(long[] key, int lo, int hi) {
+        while ((hi - lo) >= INSERTION_SORT_THRESHOLD) {
+            int mid = (lo + hi) >>> 1;
+
+            // median of three
+            if (key[mid] < key[lo]) {
+                swap(key, lo, mid);
+            }
+            if (key[hi] < key[lo]) {
+                swap(key, lo, hi);
+            }
+            if (key[hi] < key[mid]) {
+                swap(key, mid, hi);
+            }
+
+            long pivot = key[mid];
+            int i = lo;
+            int j = hi;
+
+            while (i <= j) {
+                while (key[i] < pivot) {
+                    i++;
+                }
+                while (key[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(key, i, j);
+                    i++;
+                    j--;
+                }
+            }
+
+            if ((j - lo) < (hi - i)) {
+                quicksort(key, lo, j);
+                lo = i;
+            } else {
+                quicksort(key, i, hi);
+                hi = j;
+            }
+        }
+
+        for (int i = lo + 1; i <= hi; i++) {
+            for (int j = i; (j > lo) && (key[j] < key[j - 1]); j--) {
+                swap(key, j, j - 1);
+            }
+        }
+    }
+
+    private void swap(long[] key, int i, int j) {
+        exchange(key, i, j);
+        exchange(m, i, j);
+        exchange(n, i, j);
+        exchange(a, i, j);
+        exchange(b, i, j);
+        exchange(c, i, j);
+    }
+
+    private static void exchange(long[] x, int i, int j) {
+        long t = x[i];
+        x[i] = x[j];
+        x[j] = t;
+    }
+}
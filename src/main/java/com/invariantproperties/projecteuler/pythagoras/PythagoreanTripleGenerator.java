@@ -0,0 +1,239 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.pythagoras;
+
+import java.util.Arrays;
+
+/**
+ * Streaming generator of primitive Pythagorean triples. It walks the
+ * Berggren/Barning tree depth-first with an explicit stack of (m, n) pairs and
+ * prunes every subtree whose root exceeds the bound. All three children of
+ * (m, n) have a larger perimeter and hypotenuse so the pruning is exact.
+ * <p>
+ * Unlike PythagoreanTriple.getInstance() this doesn't rebuild the path from
+ * the root for each triple and doesn't allocate anything per triple. The
+ * triples are produced in depth-first order, not in index order.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author bgiles
+ */
+public class PythagoreanTripleGenerator {
+    private static final long MAX_M = 3037000499L;
+
+    /**
+     * Quantity used to bound the search.
+     */
+    public enum Bound {
+        /** a + b + c */
+        PERIMETER,
+        /** c */
+        HYPOTENUSE
+    }
+
+    private final Bound bound;
+    private final long max;
+
+    // pending (m, n) pairs
+    private long[] stack = new long[64];
+    private int sp = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param bound
+     *            quantity used to bound the search
+     * @param max
+     *            largest permitted value, inclusive
+     */
+    public PythagoreanTripleGenerator(Bound bound, long max) {
+        this(bound, max, 2, 1);
+    }
+
+    /**
+     * Constructor for the subtree rooted at the triple defined by (m, n).
+     */
+    PythagoreanTripleGenerator(Bound bound, long max, long m, long n) {
+        if (bound == null) {
+            throw new IllegalArgumentException("bound must not be null");
+        }
+
+        if (max < 0) {
+            throw new IllegalArgumentException("max must be non-negative");
+        }
+
+        this.bound = bound;
+        this.max = max;
+
+        push(m, n);
+    }
+
+    /**
+     * Create generator for triples with perimeter no larger than max.
+     */
+    public static PythagoreanTripleGenerator byPerimeter(long max) {
+        return new PythagoreanTripleGenerator(Bound.PERIMETER, max);
+    }
+
+    /**
+     * Create generator for triples with hypotenuse no larger than max.
+     */
+    public static PythagoreanTripleGenerator byHypotenuse(long max) {
+        return new PythagoreanTripleGenerator(Bound.HYPOTENUSE, max);
+    }
+
+    /**
+     * Get the bound.
+     */
+    public Bound getBound() {
+        return bound;
+    }
+
+    /**
+     * Get the largest permitted value.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Are there more triples?
+     */
+    public boolean hasNext() {
+        return sp > 0;
+    }
+
+    /**
+     * Does the triple defined by (m, n) lie within the bound? This is
+     * careful to avoid overflow.
+     */
+    private boolean accept(long m, long n) {
+        if (m > MAX_M) {
+            return false;
+        }
+
+        switch (bound) {
+        case PERIMETER:
+            // 2m(m + n)
+            return (m + n) <= (max / (2 * m));
+
+        case HYPOTENUSE:
+            return (m * m) <= (max - (n * n));
+
+        default:
+            throw new AssertionError(bound);
+        }
+    }
+
+    private void push(long m, long n) {
+        if (accept(m, n)) {
+            if (sp == stack.length) {
+                stack = Arrays.copyOf(stack, 2 * stack.length);
+            }
+
+            stack[sp++] = m;
+            stack[sp++] = n;
+        }
+    }
+
+    /**
+     * Pop the next (m, n) pair and push its children. Returns m and n in
+     * mn[0] and mn[1].
+     */
+    private void advance(long[] mn) {
+        long n = stack[--sp];
+        long m = stack[--sp];
+
+        push(m + (2 * n), n); // D
+        push((2 * m) + n, m); // A
+        push((2 * m) - n, m); // U
+
+        mn[0] = m;
+        mn[1] = n;
+    }
+
+    /**
+     * Visit all remaining triples.
+     *
+     * @return number of triples visited
+     */
+    public long generate(PythagoreanTripleVisitor visitor) {
+        long[] mn = new long[2];
+        long count = 0;
+
+        while (sp > 0) {
+            advance(mn);
+            long m = mn[0];
+            long n = mn[1];
+
+            visitor.visit(m, n, (m * m) - (n * n), 2 * m * n, (m * m) + (n * n));
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Fill the buffer with the next triples as consecutive (a, b, c) values.
+     *
+     * @param buffer
+     *            buffer with room for at least one triple
+     * @return number of triples written, 0 if there are no more triples
+     */
+    public int fill(long[] buffer) {
+        return fill(buffer, 0, buffer.length / 3);
+    }
+
+    /**
+     * Fill the buffer with the next triples as consecutive (a, b, c) values.
+     *
+     * @param buffer
+     * @param offset
+     *            position of first value
+     * @param count
+     *            maximum number of triples
+     * @return number of triples written, 0 if there are no more triples
+     */
+    public int fill(long[] buffer, int offset, int count) {
+        if ((offset < 0) || (count < 0) || ((offset + (3L * count)) > buffer.length)) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        long[] mn = new long[2];
+        int i = 0;
+        int pos = offset;
+
+        while ((i < count) && (sp > 0)) {
+            advance(mn);
+            long m = mn[0];
+            long n = mn[1];
+
+            buffer[pos++] = (m * m) - (n * n);
+            buffer[pos++] = 2 * m * n;
+            buffer[pos++] = (m * m) + (n * n);
+            i++;
+        }
+
+        return i;
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.pythagoras;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Histograms of all (not only primitive) Pythagorean triples by perimeter or
+ * hypotenuse. Element x of the results is the number of right triangles with
+ * integer sides and perimeter (or hypotenuse) x.
+ * <p>
+ * Each primitive triple is produced once by walking the Berggren/Barning tree
+ * and every multiple of its perimeter (or hypotenuse) up to the limit is
+ * counted. The tree is split into subtrees that are distributed among worker
+ * threads. Each worker accumulates into its own array and the arrays are
+ * summed at the end. The number of workers is reduced if there isn't enough
+ * memory for an array per worker.
+ * <p>
+ * The byte[] variants use a quarter of the memory. Their counts are unsigned
+ * and saturate at 255, which is sufficient for questions such as "how many
+ * perimeters have exactly one triangle?"
+ *
+ * @author bgiles
+ */
+public final class PythagoreanTripleHistogram {
+    private static final ForkJoinPool POOL = ForkJoinPool.commonPool();
+
+    // number of subtrees per worker, for load balancing.
+    private static final int SUBTREES_PER_WORKER = 64;
+
+    private PythagoreanTripleHistogram() {
+    }
+
+    /**
+     * Count the triples with each perimeter up to the limit.
+     */
+    public static int[] countByPerimeter(int limit) {
+        return ((IntCounter) count(PythagoreanTripleGenerator.Bound.PERIMETER, limit, false)).counts;
+    }
+
+    /**
+     * Count the triples with each hypotenuse up to the limit.
+     */
+    public static int[] countByHypotenuse(int limit) {
+        return ((IntCounter) count(PythagoreanTripleGenerator.Bound.HYPOTENUSE, limit, false)).counts;
+    }
+
+    /**
+     * Count the triples with each perimeter up to the limit. The counts are
+     * unsigned and saturate at 255.
+     */
+    public static byte[] saturatedCountByPerimeter(int limit) {
+        return ((ByteCounter) count(PythagoreanTripleGenerator.Bound.PERIMETER, limit, true)).counts;
+    }
+
+    /**
+     * Count the triples with each hypotenuse up to the limit. The counts are
+     * unsigned and saturate at 255.
+     */
+    public static byte[] saturatedCountByHypotenuse(int limit) {
+        return ((ByteCounter) count(PythagoreanTripleGenerator.Bound.HYPOTENUSE, limit, true)).counts;
+    }
+
+    private static Counter newCounter(PythagoreanTripleGenerator.Bound bound, int limit, boolean saturated) {
+        return saturated ? new ByteCounter(bound, limit) : new IntCounter(bound, limit);
+    }
+
+    /**
+     * Number of workers that fit in half of the available memory, alongside
+     * the results.
+     */
+    private static int workers(int limit, boolean saturated) {
+        long bytes = (limit + 1L) * (saturated ? 1 : 4);
+        long budget = Runtime.getRuntime().maxMemory() / 2;
+
+        return (int) Math.max(1L, Math.min(POOL.getParallelism(), budget / bytes));
+    }
+
+    private static Counter count(final PythagoreanTripleGenerator.Bound bound, final int limit,
+            final boolean saturated) {
+        if (bound == null) {
+            throw new IllegalArgumentException("bound must not be null");
+        }
+
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must be non-negative");
+        }
+
+        int workers = workers(limit, saturated);
+        final Counter[] counters = new Counter[workers];
+        counters[0] = newCounter(bound, limit, saturated);
+
+        // expand the top of the tree breadth-first until there are enough
+        // subtrees to keep the workers busy. The expanded nodes are counted
+        // here.
+        final List<long[]> roots = new ArrayList<long[]>();
+        roots.add(new long[] { 2, 1 });
+        int head = 0;
+
+        while ((head < roots.size()) && ((roots.size() - head) < (workers * SUBTREES_PER_WORKER))) {
+            long[] mn = roots.get(head++);
+            long m = mn[0];
+            long n = mn[1];
+
+            if (counters[0].accept(m, n)) {
+                counters[0].visit(m, n, (m * m) - (n * n), 2 * m * n, (m * m) + (n * n));
+                roots.add(new long[] { (2 * m) - n, m });
+                roots.add(new long[] { (2 * m) + n, m });
+                roots.add(new long[] { m + (2 * n), n });
+            }
+        }
+
+        final AtomicInteger next = new AtomicInteger(head);
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(workers);
+
+        for (int i = 0; i < workers; i++) {
+            final int w = i;
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    if (counters[w] == null) {
+                        counters[w] = newCounter(bound, limit, saturated);
+                    }
+
+                    for (int j = next.getAndIncrement(); j < roots.size(); j = next.getAndIncrement()) {
+                        long[] mn = roots.get(j);
+                        new PythagoreanTripleGenerator(bound, limit, mn[0], mn[1]).generate(counters[w]);
+                    }
+
+                    return null;
+                }
+            });
+        }
+
+        for (Future<Void> f : POOL.invokeAll(tasks)) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        for (int i = 1; i < workers; i++) {
+            counters[0].merge(counters[i]);
+            counters[i] = null;
+        }
+
+        return counters[0];
+    }
+
+    /**
+     * Visitor that counts every multiple of a primitive triple.
+     */
+    private abstract static class Counter implements PythagoreanTripleVisitor {
+        protected final boolean byPerimeter;
+        protected final int limit;
+
+        Counter(PythagoreanTripleGenerator.Bound bound, int limit) {
+            this.byPerimeter = (bound == PythagoreanTripleGenerator.Bound.PERIMETER);
+            this.limit = limit;
+        }
+
+        /**
+         * Does the triple defined by (m, n) lie within the limit? The values
+         * are small enough that this can't overflow.
+         */
+        boolean accept(long m, long n) {
+            return (byPerimeter ? (2 * m * (m + n)) : ((m * m) + (n * n))) <= limit;
+        }
+
+        abstract void merge(Counter other);
+    }
+
+    private static final class IntCounter extends Counter {
+        final int[] counts;
+
+        IntCounter(PythagoreanTripleGenerator.Bound bound, int limit) {
+            super(bound, limit);
+            this.counts = new int[limit + 1];
+        }
+
+        @Override
+        public void visit(long m, long n, long a, long b, long c) {
+            int step = (int) (byPerimeter ? (a + b + c) : c);
+            for (int x = step; (x <= limit) && (x > 0); x += step) {
+                counts[x]++;
+            }
+        }
+
+        @Override
+        void merge(Counter other) {
+            int[] y = ((IntCounter) other).counts;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += y[i];
+            }
+        }
+    }
+
+    private static final class ByteCounter extends Counter {
+        final byte[] counts;
+
+        ByteCounter(PythagoreanTripleGenerator.Bound bound, int limit) {
+            super(bound, limit);
+            this.counts = new byte[limit + 1];
+        }
+
+        @Override
+        public void visit(long m, long n, long a, long b, long c) {
+            int step = (int) (byPerimeter ? (a + b + c) : c);
+            for (int x = step; (x <= limit) && (x > 0); x += step) {
+                if (counts[x] != (byte) 0xFF) {
+                    counts[x]++;
+                }
+            }
+        }
+
+        @Override
+        void merge(Counter other) {
+            byte[] y = ((ByteCounter) other).counts;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = (byte) Math.min(0xFF, (counts[i] & 0xFF) + (y[i] & 0xFF));
+            }
+        }
+    }
+}
@@ -22,22 +22,292 @@
  */
 package com.invariantproperties.projecteuler.recurrence;
 
+import com.invariantproperties.projecteuler.AbstractListIterator;
 import com.invariantproperties.projecteuler.AbstractSequence;
+import com.invariantproperties.projecteuler.CheckpointSequenceCache;
 import com.invariantproperties.projecteuler.NumericSequenceList;
 import com.invariantproperties.projecteuler.Sequence;
 import com.invariantproperties.projecteuler.SequenceCache;
+import com.invariantproperties.projecteuler.SequenceTermStore;
+import com.invariantproperties.projecteuler.metrics.Metrics;
+import com.invariantproperties.projecteuler.metrics.SequenceMetrics;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.IntFunction;
 
 
 public abstract class AbstractRecurrenceNumber<E extends Number>
     extends AbstractSequence<E> implements Sequence<E> {
+    /**
+     * Distance between checkpoints in the default checkpoint caches.
+     */
+    protected static final int CHECKPOINT_INTERVAL = 100;
+
+    /**
+     * Approximate number of bytes retained by the default weighted caches.
+     */
+    protected static final long DEFAULT_CACHE_BYTES = 32L * 1024 * 1024;
+
+    protected final SequenceTermStore<E> store;
     protected final SequenceCache<E> cache;
+    private volatile SequenceMetrics metrics;
 
+    /**
+     * Constructor for a sequence with its own cache.
+     */
     protected AbstractRecurrenceNumber(SequenceCache<E> cache) {
-    	this.cache = cache;
+        this(new SequenceTermStore<E>(null, cache));
+    }
+
+    /**
+     * Constructor for a sequence using a (possibly shared) term store.
+     */
+    protected AbstractRecurrenceNumber(SequenceTermStore<E> store) {
+        this.store = store;
+        this.cache = store.getCache();
+    }
+
+    /**
+     * Initialize the cache with the first values if nobody else has. The
+     * cache may be shared with other instances.
+     */
+    protected void initialize(int count) {
+        synchronized (cache) {
+            if (!cache.isInitialized()) {
+                cache.initialize(iterator(), count);
+            }
+        }
+    }
+
+    /**
+     * Get specified value. Cache misses are computed by compute(n), once
+     * even if several threads request the same value. Cache hits, misses
+     * and the time spent are recorded if metrics are enabled.
+     *
+     * @param n
+     * @return
+     */
+    @Override
+    public E get(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("index must be non-negative");
+        }
+
+        final boolean enabled = Metrics.isEnabled();
+        final long start = enabled ? System.nanoTime() : 0L;
+        boolean isHit = true;
+        E value = null;
+
+        value = store.get(n);
+
+        if (value == null) {
+            isHit = false;
+            value = store.get(n, this::compute);
+        }
+
+        if (enabled) {
+            SequenceMetrics m = getMetrics();
+            if (isHit) {
+                m.recordHit(n);
+            } else {
+                m.recordMiss(n);
+            }
+            m.recordGet(n, System.nanoTime() - start);
+        }
+
+        return value;
+    }
+
+    /**
+     * Get several values at once. The values that aren't cached are computed
+     * together by computeAll() so intermediate values shared by several
+     * indices are only computed once. The results are in the same order as
+     * the indices.
+     *
+     * @param indices
+     * @return
+     */
+    public List<E> getAll(int... indices) {
+        for (int n : indices) {
+            if (n < 0) {
+                throw new IllegalArgumentException("index must be non-negative");
+            }
+        }
+
+        final int[] sorted = Arrays.stream(indices).distinct().sorted().toArray();
+        final Map<Integer, E> values = new HashMap<Integer, E>();
+        final int[] missing = new int[sorted.length];
+        int count = 0;
+
+        for (int n : sorted) {
+            E value = store.get(n);
+            if (value == null) {
+                missing[count++] = n;
+            } else {
+                values.put(n, value);
+            }
+        }
+
+        if (count > 0) {
+            computeAll(Arrays.copyOf(missing, count), values);
+        }
+
+        if (Metrics.isEnabled()) {
+            SequenceMetrics m = getMetrics();
+            for (int i = 0; i < sorted.length; i++) {
+                if (Arrays.binarySearch(missing, 0, count, sorted[i]) < 0) {
+                    m.recordHit(sorted[i]);
+                } else {
+                    m.recordMiss(sorted[i]);
+                }
+            }
+        }
+
+        List<E> results = new ArrayList<E>(indices.length);
+        for (int n : indices) {
+            results.add(values.get(n));
+        }
+
+        return results;
+    }
+
+    /**
+     * Compute values that aren't in the cache and add them to 'values'.
+     *
+     * Indices closer together than FastDoubling.STEP_LIMIT form runs that
+     * are computed by a single list iterator: it jumps to the start of the
+     * run and steps from one index to the next. The remaining isolated
+     * indices are computed from the sequence's DependencyPlan: every index
+     * needed by any of them is collected, then the values are computed in
+     * ascending order by the plan so each one is computed exactly once. All
+     * computed values are cached. Sequences without a plan compute isolated
+     * indices one at a time.
+     *
+     * @param missing
+     *            indices to compute, in ascending order
+     * @param values
+     */
+    protected void computeAll(int[] missing, Map<Integer, E> values) {
+        final TreeSet<Integer> needed = new TreeSet<Integer>();
+        final Deque<Integer> pending = new ArrayDeque<Integer>();
+        final List<Integer> computed = new ArrayList<Integer>();
+        final ListIterator<E> iter = listIterator();
+        final DependencyPlan<E> plan = plan();
+
+        for (int i = 0; i < missing.length; i++) {
+            int n = missing[i];
+            boolean isRun = ((i > 0) && ((n - missing[i - 1]) < FastDoubling.STEP_LIMIT))
+                || ((i + 1 < missing.length) && ((missing[i + 1] - n) < FastDoubling.STEP_LIMIT));
+
+            if (isRun && (iter instanceof AbstractListIterator)) {
+                ((AbstractListIterator<E>) iter).seek(n);
+                values.put(n, iter.next());
+                computed.add(n);
+            } else {
+                pending.push(n);
+            }
+        }
+
+        while (!pending.isEmpty()) {
+            int k = pending.pop();
+            if (values.containsKey(k) || needed.contains(k)) {
+                continue;
+            }
+
+            int[] dependencies = (plan == null) ? null : plan.dependencies(k);
+            if (dependencies == null) {
+                values.put(k, get(k));
+                continue;
+            }
+
+            E value = store.get(k);
+            if (value != null) {
+                values.put(k, value);
+                continue;
+            }
+
+            needed.add(k);
+            for (int d : dependencies) {
+                pending.push(d);
+            }
+        }
+
+        final IntFunction<E> lookup = values::get;
+        for (int k : needed) {
+            values.put(k, plan.combine(k, lookup));
+        }
+        computed.addAll(needed);
+
+        synchronized (cache) {
+            for (int k : computed) {
+                cache.put(k, values.get(k));
+            }
+        }
+    }
+
+    /**
+     * Get the plan used to compute isolated indices in computeAll(), or null
+     * if they should be computed one at a time by get().
+     */
+    protected DependencyPlan<E> plan() {
+        return null;
+    }
+
+    /**
+     * Compute value that isn't in the cache. This is called without holding
+     * the cache lock, so implementations that access the cache directly must
+     * synchronize on it. They must not call get() while holding the lock.
+     */
+    protected abstract E compute(int n);
+
+    /**
+     * Get metrics for this sequence.
+     */
+    protected SequenceMetrics getMetrics() {
+        SequenceMetrics m = metrics;
+
+        if (m == null) {
+            m = Metrics.sequence(getOeisSequenceNumber());
+            metrics = m;
+        }
+
+        return m;
+    }
+
+    /**
+     * Get the highest index at or below n where the cache holds 'order'
+     * consecutive values, or -1 if the cache doesn't keep checkpoints.
+     */
+    protected int floorCheckpoint(int n, int order) {
+        if (cache instanceof CheckpointSequenceCache) {
+            CheckpointSequenceCache<E> checkpoints = (CheckpointSequenceCache<E>) cache;
+            if (checkpoints.getWidth() >= order) {
+                return checkpoints.floorCheckpoint(n);
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Get the index of the checkpoint window at or below n, or 0 if the cache
+     * doesn't keep checkpoints.
+     */
+    protected int checkpointIndex(int n) {
+        if (cache instanceof CheckpointSequenceCache) {
+            return ((CheckpointSequenceCache<E>) cache).checkpointIndex(n);
+        }
+
+        return 0;
     }
     
     /**
@@ -0,0 +1,214 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.recurrence;
+
+import java.math.BigInteger;
+
+import static java.math.BigInteger.ONE;
+import static java.math.BigInteger.ZERO;
+
+
+/**
+ * Exact binomial and multinomial coefficients. We never compute the
+ * factorials themselves. Instead we use Legendre's formula to determine the
+ * exponent of each prime in the result and multiply the prime powers with a
+ * balanced product tree.
+ *
+ * Memory: the primes up to n (roughly 4n/ln(n) bytes), one long per prime
+ * with a non-zero exponent, and the result itself.
+ *
+ * See {@link com.invariantproperties.projecteuler.recurrence.ModularFactorials}
+ * for values modulo a prime.
+ *
+ * @author bgiles
+ */
+public final class Combinatorics {
+
+    private Combinatorics() {
+    }
+
+    /**
+     * Compute the binomial coefficient C(n, k).
+     *
+     * @param n
+     * @param k
+     * @return C(n, k), or zero if k is not between 0 and n inclusive.
+     * @throws IllegalArgumentException
+     *             if n is negative
+     */
+    public static BigInteger binomial(int n, int k) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be non-negative");
+        }
+
+        if ((k < 0) || (k > n)) {
+            return ZERO;
+        }
+
+        k = Math.min(k, n - k);
+
+        if (k == 0) {
+            return ONE;
+        }
+
+        int[] primes = primes(n);
+        long[] factors = new long[primes.length];
+        int count = 0;
+
+        for (int p : primes) {
+            // primes in (n - k, n] always appear exactly once.
+            if (p > (n - k)) {
+                factors[count++] = p;
+                continue;
+            }
+
+            long e = legendre(n, p) - legendre(k, p) - legendre(n - k, p);
+
+            if (e > 0) {
+                factors[count++] = pow(p, e);
+            }
+        }
+
+        return PrimeSwingFactorial.product(factors, 0, count);
+    }
+
+    /**
+     * Compute the multinomial coefficient (k1 + k2 + ... + km)! / (k1! k2!
+     * ... km!).
+     *
+     * @param k
+     * @return multinomial coefficient
+     * @throws IllegalArgumentException
+     *             if any value is negative or the sum is larger than
+     *             Integer.MAX_VALUE.
+     */
+    public static BigInteger multinomial(int... k) {
+        long sum = 0;
+
+        for (int ki : k) {
+            if (ki < 0) {
+                throw new IllegalArgumentException("values must be non-negative");
+            }
+
+            sum += ki;
+        }
+
+        if (sum > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("sum of values must be less than " + Integer.MAX_VALUE);
+        }
+
+        int n = (int) sum;
+        int[] primes = primes(n);
+        long[] exponents = new long[primes.length];
+        int slots = 0;
+
+        for (int i = 0; i < primes.length; i++) {
+            long e = legendre(n, primes[i]);
+
+            for (int ki : k) {
+                e -= legendre(ki, primes[i]);
+            }
+
+            exponents[i] = e;
+            slots += (e + maxExponent(primes[i]) - 1) / maxExponent(primes[i]);
+        }
+
+        // unlike binomial coefficients the prime powers can exceed n, e.g.,
+        // 2^(n - popcount(n)) in n! / (1! 1! ... 1!), so each power is split
+        // into chunks that fit in a long.
+        long[] factors = new long[slots];
+        int count = 0;
+
+        for (int i = 0; i < primes.length; i++) {
+            int max = maxExponent(primes[i]);
+
+            for (long e = exponents[i]; e > 0; e -= max) {
+                factors[count++] = pow(primes[i], Math.min(e, max));
+            }
+        }
+
+        return PrimeSwingFactorial.product(factors, 0, count);
+    }
+
+    /**
+     * Legendre's formula: the exponent of the prime p in n!.
+     *
+     * @param n
+     * @param p
+     * @return exponent of p in n!
+     */
+    public static long legendre(long n, long p) {
+        long e = 0;
+
+        while (n > 0) {
+            n /= p;
+            e += n;
+        }
+
+        return e;
+    }
+
+    /**
+     * Get all primes up to and including n.
+     */
+    private static int[] primes(int n) {
+        int[] odd = PrimeSwingFactorial.oddPrimes(n);
+
+        if (n < 2) {
+            return odd;
+        }
+
+        int[] primes = new int[odd.length + 1];
+        primes[0] = 2;
+        System.arraycopy(odd, 0, primes, 1, odd.length);
+
+        return primes;
+    }
+
+    /**
+     * Get the largest e such that p^e fits in a long.
+     */
+    private static int maxExponent(long p) {
+        int e = 1;
+
+        for (long x = p; x <= (Long.MAX_VALUE / p); x *= p) {
+            e++;
+        }
+
+        return e;
+    }
+
+    /**
+     * Compute p^e. The caller guarantees the result fits in a long, i.e., e
+     * is at most maxExponent(p).
+     */
+    private static long pow(long p, long e) {
+        long x = 1;
+
+        for (long i = 0; i < e; i++) {
+            x *= p;
+        }
+
+        return x;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.recurrence;
+
+import java.util.function.IntFunction;
+
+
+/**
+ * Strategy for computing a term from a few smaller terms, e.g., with
+ * doubling or tripling formulas. Batch lookups collect the dependencies of
+ * all requested terms and evaluate each one once.
+ *
+ * @author bgiles
+ *
+ * @param <E>
+ */
+public interface DependencyPlan<E> {
+
+    /**
+     * Get the smaller indices needed to compute the term at index n, or null
+     * if the term should be computed by the sequence itself.
+     */
+    int[] dependencies(int n);
+
+    /**
+     * Compute the term at index n from the terms at dependencies(n).
+     *
+     * @param n
+     * @param values
+     *            terms at the dependencies
+     */
+    E combine(int n, IntFunction<E> values);
+}
@@ -23,8 +23,9 @@
 package com.invariantproperties.projecteuler.recurrence;
 
 import com.invariantproperties.projecteuler.AbstractListIterator;
-import com.invariantproperties.projecteuler.InMemorySequenceCache;
+import com.invariantproperties.projecteuler.CheckpointSequenceCache;
 import com.invariantproperties.projecteuler.SequenceCache;
+import com.invariantproperties.projecteuler.SequenceTermStore;
 
 import java.math.BigInteger;
 
@@ -32,13 +33,15 @@ import static java.math.BigInteger.ONE;
 
 import java.util.Iterator;
 import java.util.ListIterator;
+import java.util.Map;
 
 
 @com.invariantproperties.projecteuler.annotation.Sequence(oeis = "A000142")
 public final class FactorialNumber extends AbstractRecurrenceNumber<BigInteger> {
 
     public FactorialNumber() {
-    	super(new InMemorySequenceCache<BigInteger>());
+        super(SequenceTermStore.forSequence(FactorialNumber.class,
+            () -> new CheckpointSequenceCache<BigInteger>(CHECKPOINT_INTERVAL, 1)));
         initialize();
     }
 
@@ -64,43 +67,93 @@ public final class FactorialNumber extends AbstractRecurrenceNumber<BigInteger>
     }
 
     /**
-     * Get specified Fibonacci number.
+     * Compute specified factorial. Values are multiplied up from a nearby
+     * checkpoint or computed with the prime swing algorithm.
+     *
      * @param n
      * @return
      */
     @Override
-    public BigInteger get(int n) {
-        if (n < 0) {
-            throw new IllegalArgumentException("index must be non-negative");
+    protected BigInteger compute(int n) {
+        BigInteger f = null;
+
+        int c;
+        BigInteger base = null;
+
+        synchronized (cache) {
+            c = floorCheckpoint(n, 1);
+            if (c > 0) {
+                base = cache.get(c);
+            }
+        }
+
+        // multiply up from a nearby checkpoint, otherwise only
+        // cache the requested value - the intermediate values are
+        // never computed.
+        if ((base != null) && ((n - c) < FastDoubling.STEP_LIMIT)) {
+            f = multiplyUp(base, c, n);
+        } else {
+            f = PrimeSwingFactorial.factorial(n);
         }
 
+        return f;
+    }
+
+    /**
+     * Compute the values in ascending order, multiplying each one up from
+     * the previous value when it's close enough.
+     */
+    @Override
+    protected void computeAll(int[] missing, Map<Integer, BigInteger> values) {
+        int c;
         BigInteger f = null;
 
         synchronized (cache) {
-            f = cache.get(n);
+            c = floorCheckpoint(missing[0], 1);
+            if (c > 0) {
+                f = cache.get(c);
+            }
+        }
 
-            if (f == null) {
-                FactorialIterator iter = new FactorialIterator();
-                int idx;
+        if (f == null) {
+            c = 0;
+            f = ONE;
+        }
 
-                while (iter.hasNext() && (iter.nextIndex() < n)) {
-                    idx = iter.nextIndex();
-                    cache.put(idx, iter.next());
-                }
+        for (int n : missing) {
+            if ((n - c) < FastDoubling.STEP_LIMIT) {
+                f = multiplyUp(f, c, n);
+            } else {
+                f = PrimeSwingFactorial.factorial(n);
+            }
+            c = n;
+            values.put(n, f);
+        }
 
-                f = iter.next();
-                cache.put(n, f);
+        synchronized (cache) {
+            for (int n : missing) {
+                cache.put(n, values.get(n));
             }
         }
+    }
 
-        return f;
+    /**
+     * Compute n! from c!.
+     */
+    private static BigInteger multiplyUp(BigInteger f, int c, int n) {
+        long[] factors = new long[n - c];
+        for (int i = 0; i < factors.length; i++) {
+            factors[i] = c + 1 + i;
+        }
+
+        return f.multiply(PrimeSwingFactorial.product(factors, 0, factors.length));
     }
 
     /**
      * Initialize cache.
      */
     void initialize() {
-        cache.initialize(iterator(), 10);
+        initialize(10);
     }
 
     /**
@@ -138,8 +191,20 @@ public final class FactorialNumber extends AbstractRecurrenceNumber<BigInteger>
         }
 
         public FactorialIterator(int startIndex, FactorialNumber factorial) {
-            idx = startIndex;
-            this.x = factorial.get(idx);
+            seek(startIndex);
+        }
+
+        /**
+         * The state is the previous value, (index - 1)!.
+         */
+        @Override
+        protected void seekTo(int index) {
+            if (Math.abs(index - idx) < FastDoubling.STEP_LIMIT) {
+                step(index);
+            } else {
+                this.idx = index;
+                this.x = (index == 0) ? ONE : PrimeSwingFactorial.factorial(index - 1);
+            }
         }
 
         protected BigInteger getNext() {
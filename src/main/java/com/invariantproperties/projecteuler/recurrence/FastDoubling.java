@@ -0,0 +1,158 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.recurrence;
+
+import java.math.BigInteger;
+
+import static java.math.BigInteger.ONE;
+import static java.math.BigInteger.ZERO;
+
+
+/**
+ * Compute consecutive terms of the linear recurrences in a single pass.
+ * The list iterators use these methods to reposition themselves without
+ * calling get() for each term of their state.
+ *
+ * @author bgiles
+ */
+final class FastDoubling {
+    private static final BigInteger TWO = BigInteger.valueOf(2);
+
+    /**
+     * Iterators step through the intermediate elements when they're moved
+     * less than this distance.
+     */
+    static final int STEP_LIMIT = 1000;
+
+    private FastDoubling() {
+    }
+
+    /**
+     * Compute (F(n), F(n+1)) using F(2k) = F(k)(2F(k+1) - F(k)) and F(2k+1) =
+     * F(k)^2 + F(k+1)^2.
+     *
+     * @param n
+     * @return Fibonacci numbers F(n) and F(n+1)
+     */
+    static BigInteger[] fibonacci(int n) {
+        BigInteger a = ZERO;
+        BigInteger b = ONE;
+
+        for (int bit = Integer.highestOneBit(n); bit != 0; bit >>>= 1) {
+            BigInteger c = a.multiply(b.shiftLeft(1).subtract(a));
+            BigInteger d = a.multiply(a).add(b.multiply(b));
+
+            if ((n & bit) == 0) {
+                a = c;
+                b = d;
+            } else {
+                a = d;
+                b = c.add(d);
+            }
+        }
+
+        return new BigInteger[] { a, b };
+    }
+
+    /**
+     * Compute (P(n), P(n+1)) using P(2k) = 2P(k)(P(k+1) - P(k)) and P(2k+1) =
+     * P(k)^2 + P(k+1)^2.
+     *
+     * @param n
+     * @return Pell numbers P(n) and P(n+1)
+     */
+    static BigInteger[] pell(int n) {
+        BigInteger a = ZERO;
+        BigInteger b = ONE;
+
+        for (int bit = Integer.highestOneBit(n); bit != 0; bit >>>= 1) {
+            BigInteger c = a.multiply(b.subtract(a)).shiftLeft(1);
+            BigInteger d = a.multiply(a).add(b.multiply(b));
+
+            if ((n & bit) == 0) {
+                a = c;
+                b = d;
+            } else {
+                a = d;
+                b = c.add(TWO.multiply(d));
+            }
+        }
+
+        return new BigInteger[] { a, b };
+    }
+
+    /**
+     * Compute (a(n), a(n+1), a(n+2)) for the recurrence a(k+3) = a(k+1) +
+     * a(k) used by the Padovan and Perrin sequences. We raise the companion
+     * matrix to the n-th power and apply it to the initial terms.
+     *
+     * @param n
+     * @param a0
+     * @param a1
+     * @param a2
+     * @return terms a(n), a(n+1) and a(n+2)
+     */
+    static BigInteger[] padovan(int n, BigInteger a0, BigInteger a1, BigInteger a2) {
+        BigInteger[][] m = { { ZERO, ONE, ZERO }, { ZERO, ZERO, ONE }, { ONE, ONE, ZERO } };
+        BigInteger[][] r = { { ONE, ZERO, ZERO }, { ZERO, ONE, ZERO }, { ZERO, ZERO, ONE } };
+
+        for (int bit = Integer.highestOneBit(n); bit != 0; bit >>>= 1) {
+            r = multiply(r, r);
+
+            if ((n & bit) != 0) {
+                r = multiply(r, m);
+            }
+        }
+
+        BigInteger[] v = new BigInteger[3];
+
+        for (int i = 0; i < 3; i++) {
+            v[i] = r[i][0].multiply(a0).add(r[i][1].multiply(a1)).add(r[i][2].multiply(a2));
+        }
+
+        return v;
+    }
+
+    /**
+     * Multiply two 3x3 matrices.
+     */
+    private static BigInteger[][] multiply(BigInteger[][] x, BigInteger[][] y) {
+        BigInteger[][] z = new BigInteger[3][3];
+
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                BigInteger sum = ZERO;
+
+                for (int k = 0; k < 3; k++) {
+                    if ((x[i][k].signum() != 0) && (y[k][j].signum() != 0)) {
+                        sum = sum.add(x[i][k].multiply(y[k][j]));
+                    }
+                }
+
+                z[i][j] = sum;
+            }
+        }
+
+        return z;
+    }
+}
@@ -23,12 +23,14 @@
 package com.invariantproperties.projecteuler.recurrence;
 
 import com.invariantproperties.projecteuler.AbstractListIterator;
-import com.invariantproperties.projecteuler.InMemorySequenceCache;
+import com.invariantproperties.projecteuler.WeightedSequenceCache;
 import com.invariantproperties.projecteuler.SequenceCache;
+import com.invariantproperties.projecteuler.SequenceTermStore;
 
 import java.math.BigInteger;
 import java.util.Iterator;
 import java.util.ListIterator;
+import java.util.function.IntFunction;
 
 
 /**
@@ -38,15 +40,17 @@ import java.util.ListIterator;
  */
 @com.invariantproperties.projecteuler.annotation.Sequence(oeis = "A000045")
 public final class FibonacciNumber extends AbstractRecurrenceNumber<BigInteger> {
-    private final BigInteger TWO = BigInteger.valueOf(2);
-    private final BigInteger THREE = BigInteger.valueOf(3);
+    private static final int INITIAL_COUNT = 100;
+    private static final FibonacciPlan PLAN = new FibonacciPlan();
+    private static final BigInteger TWO = BigInteger.valueOf(2);
+    private static final BigInteger THREE = BigInteger.valueOf(3);
 
     public FibonacciNumber() {
-        super(new InMemorySequenceCache<BigInteger>());
+        super(SequenceTermStore.forSequence(FibonacciNumber.class,
+            () -> WeightedSequenceCache.forBigIntegers("A000045", DEFAULT_CACHE_BYTES, true)));
         initialize();
     }
 
-    // FIXME: how to prevent multiple initialization?
     public FibonacciNumber(SequenceCache<BigInteger> cache) {
         super(cache);
         initialize();
@@ -56,7 +60,7 @@ public final class FibonacciNumber extends AbstractRecurrenceNumber<BigInteger>
      * Initialize cache.
      */
     void initialize() {
-        cache.initialize(iterator(), 100);
+        initialize(INITIAL_COUNT);
     }
 
     /**
@@ -76,54 +80,21 @@ public final class FibonacciNumber extends AbstractRecurrenceNumber<BigInteger>
     }
 
     /**
-     * Get specified Fibonacci number.
+     * Compute specified Fibonacci number.
      * @param n
      * @return
      */
     @Override
-    public BigInteger get(int n) {
-        if (n < 0) {
-            throw new IllegalArgumentException("index must be non-negative");
-        }
-
-        BigInteger value = null;
-
-        synchronized (cache) {
-            value = cache.get(n);
-
-            if (value == null) {
-                int m = n / 3;
-
-                switch (n % 3) {
-                case 0:
-                    value = TWO.multiply(get(m).pow(3))
-                               .add(THREE.multiply(get(m + 1)).multiply(get(m))
-                                         .multiply(get(m - 1)));
-
-                    break;
-
-                case 1:
-                    value = get(m + 1).pow(3)
-                                .add(THREE.multiply(get(m + 1)
-                                                        .multiply(get(m).pow(2))))
-                                .subtract(get(m).pow(3));
-
-                    break;
-
-                case 2:
-                    value = get(m + 1).pow(3)
-                                .add(THREE.multiply(get(m + 1).pow(2)
-                                                        .multiply(get(m))))
-                                .add(get(m).pow(3));
-
-                    break;
-                }
-
-                cache.put(n, value);
-            }
-        }
+    protected BigInteger compute(int n) {
+        return PLAN.combine(n, this::get);
+    }
 
-        return value;
+    /**
+     * Get the plan used by batch lookups.
+     */
+    @Override
+    protected DependencyPlan<BigInteger> plan() {
+        return PLAN;
     }
 
     /**
@@ -162,9 +133,22 @@ public final class FibonacciNumber extends AbstractRecurrenceNumber<BigInteger>
         }
 
         public FibonacciIterator(int startIndex, FibonacciNumber fibonacci) {
-            this.idx = startIndex;
-            this.x = fibonacci.get(idx);
-            this.y = fibonacci.get(idx + 1);
+            seek(startIndex);
+        }
+
+        /**
+         * Compute F(index) and F(index + 1) in a single pass.
+         */
+        @Override
+        protected void seekTo(int index) {
+            if (Math.abs(index - idx) < FastDoubling.STEP_LIMIT) {
+                step(index);
+            } else {
+                BigInteger[] pair = FastDoubling.fibonacci(index);
+                this.idx = index;
+                this.x = pair[0];
+                this.y = pair[1];
+            }
         }
 
         protected BigInteger getNext() {
@@ -183,4 +167,60 @@ public final class FibonacciNumber extends AbstractRecurrenceNumber<BigInteger>
             return x;
         }
     }
+
+    /**
+     * Plan used by batch lookups.
+     */
+    private static final class FibonacciPlan implements DependencyPlan<BigInteger> {
+        /**
+         * The tripling formulas need F(m - 1), F(m) and F(m + 1) where m = n / 3.
+         */
+        @Override
+        public int[] dependencies(int n) {
+            if (n < INITIAL_COUNT) {
+                return null;
+            }
+
+            int m = n / 3;
+
+            return ((n % 3) == 0) ? new int[] { m - 1, m, m + 1 } : new int[] { m, m + 1 };
+        }
+
+        /**
+         * Compute F(n) from F(m - 1), F(m) and F(m + 1) where m = n / 3.
+         */
+        @Override
+        public BigInteger combine(int n, IntFunction<BigInteger> f) {
+            BigInteger value = null;
+
+            int m = n / 3;
+
+            switch (n % 3) {
+            case 0:
+                value = TWO.multiply(f.apply(m).pow(3))
+                           .add(THREE.multiply(f.apply(m + 1)).multiply(f.apply(m))
+                                     .multiply(f.apply(m - 1)));
+
+                break;
+
+            case 1:
+                value = f.apply(m + 1).pow(3)
+                            .add(THREE.multiply(f.apply(m + 1)
+                                                    .multiply(f.apply(m).pow(2))))
+                            .subtract(f.apply(m).pow(3));
+
+                break;
+
+            case 2:
+                value = f.apply(m + 1).pow(3)
+                            .add(THREE.multiply(f.apply(m + 1).pow(2)
+                                                    .multiply(f.apply(m))))
+                            .add(f.apply(m).pow(3));
+
+                break;
+            }
+
+            return value;
+        }
+    }
 }
@@ -23,13 +23,14 @@
 package com.invariantproperties.projecteuler.recurrence;
 
 import com.invariantproperties.projecteuler.AbstractListIterator;
-import com.invariantproperties.projecteuler.InMemorySequenceCache;
+import com.invariantproperties.projecteuler.WeightedSequenceCache;
 import com.invariantproperties.projecteuler.SequenceCache;
-import com.invariantproperties.projecteuler.Sequences;
+import com.invariantproperties.projecteuler.SequenceTermStore;
 
 import java.math.BigInteger;
 import java.util.Iterator;
 import java.util.ListIterator;
+import java.util.function.IntFunction;
 
 
 /**
@@ -40,10 +41,13 @@ import java.util.ListIterator;
  */
 @com.invariantproperties.projecteuler.annotation.Sequence(oeis = "A000032")
 public final class LucasNumber extends AbstractRecurrenceNumber<BigInteger> {
+    private static final int INITIAL_COUNT = 100;
+    private static final LucasPlan PLAN = new LucasPlan();
     private static final BigInteger TWO = BigInteger.valueOf(2);
 
     public LucasNumber() {
-        super(new InMemorySequenceCache<BigInteger>());
+        super(SequenceTermStore.forSequence(LucasNumber.class,
+            () -> WeightedSequenceCache.forBigIntegers("A000032", DEFAULT_CACHE_BYTES, true)));
         initialize();
     }
 
@@ -56,7 +60,7 @@ public final class LucasNumber extends AbstractRecurrenceNumber<BigInteger> {
      * Initialize cache.
      */
     void initialize() {
-        cache.initialize(iterator(), 100);
+        initialize(INITIAL_COUNT);
     }
 
     /**
@@ -67,28 +71,30 @@ public final class LucasNumber extends AbstractRecurrenceNumber<BigInteger> {
     }
 
     /**
-     * Get specified Lucas number.
+     * Compute specified Lucas number with the same doubling formulas used by
+     * batch lookups. The initial values are computed as L(n) = 2F(n + 1) - F(n)
+     * in case they have been evicted from the cache. The Fibonacci numbers
+     * are computed directly so they aren't also retained in the Fibonacci
+     * term store.
      * @param n
      * @return
      */
-    public BigInteger get(int n) {
-        if (n < 0) {
-            throw new IllegalArgumentException("index must be non-negative");
+    @Override
+    protected BigInteger compute(int n) {
+        if (n < INITIAL_COUNT) {
+            BigInteger[] pair = FastDoubling.fibonacci(n);
+            return pair[1].shiftLeft(1).subtract(pair[0]);
         }
 
-        BigInteger value = null;
-
-        synchronized (cache) {
-            value = cache.get(n);
-
-            if (value == null) {
-                value = Sequences.FIBONACCI.get(n + 1)
-                                           .add(Sequences.FIBONACCI.get(n - 1));
-                cache.put(n, value);
-            }
-        }
+        return PLAN.combine(n, this::get);
+    }
 
-        return value;
+    /**
+     * Get the plan used by batch lookups.
+     */
+    @Override
+    protected DependencyPlan<BigInteger> plan() {
+        return PLAN;
     }
 
     /**
@@ -124,9 +130,23 @@ public final class LucasNumber extends AbstractRecurrenceNumber<BigInteger> {
         }
 
         public LucasIterator(int startIndex, LucasNumber lucas) {
-            idx = startIndex;
-            this.x = lucas.get(idx);
-            this.y = lucas.get(idx + 1);
+            seek(startIndex);
+        }
+
+        /**
+         * Compute L(index) = 2F(index + 1) - F(index) and L(index + 1) =
+         * 2F(index) + F(index + 1) from a single pair of Fibonacci numbers.
+         */
+        @Override
+        protected void seekTo(int index) {
+            if (Math.abs(index - idx) < FastDoubling.STEP_LIMIT) {
+                step(index);
+            } else {
+                BigInteger[] pair = FastDoubling.fibonacci(index);
+                this.idx = index;
+                this.x = pair[1].shiftLeft(1).subtract(pair[0]);
+                this.y = pair[0].shiftLeft(1).add(pair[1]);
+            }
         }
 
         protected BigInteger getNext() {
@@ -145,4 +165,41 @@ public final class LucasNumber extends AbstractRecurrenceNumber<BigInteger> {
             return x;
         }
     }
+
+    /**
+     * Plan used by batch lookups.
+     */
+    private static final class LucasPlan implements DependencyPlan<BigInteger> {
+        /**
+         * The doubling formulas need L(m), and L(m + 1) for odd n, where
+         * m = n / 2.
+         */
+        @Override
+        public int[] dependencies(int n) {
+            if (n < INITIAL_COUNT) {
+                return null;
+            }
+
+            int m = n / 2;
+
+            return ((n % 2) == 0) ? new int[] { m } : new int[] { m, m + 1 };
+        }
+
+        /**
+         * Compute L(2m) = L(m)^2 - 2(-1)^m or L(2m + 1) = L(m)L(m + 1) - (-1)^m.
+         */
+        @Override
+        public BigInteger combine(int n, IntFunction<BigInteger> l) {
+            int m = n / 2;
+            boolean odd = (m % 2) == 1;
+
+            if ((n % 2) == 0) {
+                BigInteger x = l.apply(m).pow(2);
+                return odd ? x.add(TWO) : x.subtract(TWO);
+            }
+
+            BigInteger x = l.apply(m).multiply(l.apply(m + 1));
+            return odd ? x.add(BigInteger.ONE) : x.subtract(BigInteger.ONE);
+        }
+    }
 }
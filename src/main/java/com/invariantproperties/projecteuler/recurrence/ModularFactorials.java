@@ -0,0 +1,217 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.recurrence;
+
+import java.math.BigInteger;
+
+
+/**
+ * Factorials, inverse factorials and binomial coefficients modulo a fixed
+ * prime. The tables are built in O(n) time - a single modular inverse is
+ * computed for the largest factorial and the rest of the inverse table is
+ * filled in by multiplying back down.
+ *
+ * Memory: two long[] tables of min(n, p - 1) + 1 entries, i.e., 16 bytes per
+ * entry. Lucas' theorem requires the full table (n = p - 1) so it needs 16p
+ * bytes.
+ *
+ * The modulus is limited to an int so all intermediate products fit in a
+ * long.
+ *
+ * @author bgiles
+ */
+public final class ModularFactorials {
+    private final long p;
+    private final long[] factorial;
+    private final long[] inverse;
+
+    /**
+     * Constructor.
+     *
+     * @param p
+     *            prime modulus
+     * @param n
+     *            largest value in the table. Values of p - 1 or larger
+     *            create the full table.
+     * @throws IllegalArgumentException
+     *             if p is not prime or n is negative
+     */
+    public ModularFactorials(int p, int n) {
+        if ((p < 2) || !BigInteger.valueOf(p).isProbablePrime(64)) {
+            throw new IllegalArgumentException("modulus must be prime");
+        }
+
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be non-negative");
+        }
+
+        int size = Math.min(n, p - 1) + 1;
+
+        this.p = p;
+        this.factorial = new long[size];
+        this.inverse = new long[size];
+
+        factorial[0] = 1;
+
+        for (int i = 1; i < size; i++) {
+            factorial[i] = (factorial[i - 1] * i) % p;
+        }
+
+        inverse[size - 1] = modPow(factorial[size - 1], p - 2);
+
+        for (int i = size - 1; i > 0; i--) {
+            inverse[i - 1] = (inverse[i] * i) % p;
+        }
+    }
+
+    /**
+     * Get the modulus.
+     */
+    public int getModulus() {
+        return (int) p;
+    }
+
+    /**
+     * Get the largest value in the tables.
+     */
+    public int getMaxIndex() {
+        return factorial.length - 1;
+    }
+
+    /**
+     * Get n! mod p.
+     *
+     * @param n
+     * @return n! mod p
+     * @throws IllegalArgumentException
+     *             if n is negative or larger than the table and less than p.
+     */
+    public long factorial(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be non-negative");
+        }
+
+        // n! contains p as a factor.
+        if (n >= p) {
+            return 0;
+        }
+
+        return factorial[checkIndex(n)];
+    }
+
+    /**
+     * Get (n!)^-1 mod p.
+     *
+     * @param n
+     * @return modular inverse of n!
+     * @throws IllegalArgumentException
+     *             if n is negative or larger than the table.
+     */
+    public long inverseFactorial(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be non-negative");
+        }
+
+        return inverse[checkIndex(n)];
+    }
+
+    /**
+     * Get C(n, k) mod p. Arguments larger than the table use Lucas' theorem.
+     *
+     * @param n
+     * @param k
+     * @return C(n, k) mod p, or zero if k is not between 0 and n inclusive.
+     * @throws IllegalArgumentException
+     *             if n is negative or a digit is larger than the table.
+     */
+    public long binomial(long n, long k) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be non-negative");
+        }
+
+        if ((k < 0) || (k > n)) {
+            return 0;
+        }
+
+        if (n < factorial.length) {
+            return smallBinomial((int) n, (int) k);
+        }
+
+        // Lucas' theorem: C(n, k) = prod C(n_i, k_i) where n_i, k_i are the
+        // base-p digits of n and k.
+        long result = 1;
+
+        while ((n > 0) && (result != 0)) {
+            int ni = (int) (n % p);
+            int ki = (int) (k % p);
+
+            if (ki > ni) {
+                return 0;
+            }
+
+            checkIndex(ni);
+            result = (result * smallBinomial(ni, ki)) % p;
+            n /= p;
+            k /= p;
+        }
+
+        return result;
+    }
+
+    /**
+     * C(n, k) mod p for table values.
+     */
+    private long smallBinomial(int n, int k) {
+        return (((factorial[n] * inverse[k]) % p) * inverse[n - k]) % p;
+    }
+
+    /**
+     * Verify the index is within the table.
+     */
+    private int checkIndex(long n) {
+        if (n >= factorial.length) {
+            throw new IllegalArgumentException("value must be less than or equal to " + getMaxIndex());
+        }
+
+        return (int) n;
+    }
+
+    /**
+     * Compute x^e mod p.
+     */
+    private long modPow(long x, long e) {
+        long result = 1;
+        x %= p;
+
+        while (e > 0) {
+            if ((e & 1) == 1) {
+                result = (result * x) % p;
+            }
+
+            x = (x * x) % p;
+            e >>= 1;
+        }
+
+        return result;
+    }
+}
@@ -23,16 +23,20 @@
 package com.invariantproperties.projecteuler.recurrence;
 
 import com.invariantproperties.projecteuler.AbstractListIterator;
-import com.invariantproperties.projecteuler.InMemorySequenceCache;
+import com.invariantproperties.projecteuler.CheckpointSequenceCache;
 import com.invariantproperties.projecteuler.SequenceCache;
+import com.invariantproperties.projecteuler.SequenceTermStore;
 
 import java.math.BigInteger;
 
 import static java.math.BigInteger.ONE;
 import static java.math.BigInteger.ZERO;
 
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.ListIterator;
+import java.util.Map;
 
 
 /**
@@ -47,7 +51,8 @@ import java.util.ListIterator;
 public final class PadovanSequence extends AbstractRecurrenceNumber<BigInteger> {
 
     public PadovanSequence() {
-        super(new InMemorySequenceCache<BigInteger>());
+        super(SequenceTermStore.forSequence(PadovanSequence.class,
+            () -> new CheckpointSequenceCache<BigInteger>(CHECKPOINT_INTERVAL, 3)));
         initialize();
     }
 
@@ -57,7 +62,7 @@ public final class PadovanSequence extends AbstractRecurrenceNumber<BigInteger>
     }
 
     void initialize() {
-        cache.initialize(iterator(), 20);
+        initialize(20);
     }
 
     /**
@@ -77,37 +82,70 @@ public final class PadovanSequence extends AbstractRecurrenceNumber<BigInteger>
     }
 
     /**
-     * Get specified Padovan number.
+     * Compute specified Padovan number.
      *
      * @param n
      * @return
      */
     @Override
-    public BigInteger get(int n) {
-        if (n < 0) {
-            throw new IllegalArgumentException("index must be non-negative");
-        }
+    protected BigInteger compute(int n) {
+        Map<Integer, BigInteger> values = new HashMap<Integer, BigInteger>();
+        computeAll(new int[] { n }, values);
 
-        BigInteger f = null;
+        return values.get(n);
+    }
 
+    /**
+     * Compute the values in a single linear sweep from the checkpoint below
+     * the smallest index, jumping ahead when the next index is too far away
+     * to step. The cache lock is only held to read the checkpoint and to
+     * store the results.
+     */
+    @Override
+    protected void computeAll(int[] missing, Map<Integer, BigInteger> values) {
+        final Map<Integer, BigInteger> computed = new LinkedHashMap<Integer, BigInteger>();
+        int c;
+        BigInteger x = null;
+        BigInteger y = null;
+        BigInteger z = null;
+
+        // only the checkpoint is read under the cache lock - the sweep itself,
+        // including any jumps, runs without it.
         synchronized (cache) {
-            f = cache.get(n);
+            c = floorCheckpoint(missing[0], 3);
+            if (c > 0) {
+                x = cache.get(c);
+                y = cache.get(c + 1);
+                z = cache.get(c + 2);
+            }
+        }
 
-            if (f == null) {
-                PadovanIterator iter = new PadovanIterator();
-                int idx;
+        PadovanIterator iter = new PadovanIterator();
+        if ((x != null) && (y != null) && (z != null)) {
+            iter = new PadovanIterator(c, x, y, z);
+        }
 
-                while (iter.hasNext() && (iter.nextIndex() < n)) {
-                    idx = iter.nextIndex();
-                    cache.put(idx, iter.next());
-                }
+        for (int n : missing) {
+            int idx = checkpointIndex(n);
+            if ((idx - iter.nextIndex()) >= FastDoubling.STEP_LIMIT) {
+                iter.seek(idx);
+            }
 
-                f = iter.next();
-                cache.put(n, f);
+            while (iter.hasNext() && (iter.nextIndex() < n)) {
+                idx = iter.nextIndex();
+                computed.put(idx, iter.next());
             }
+
+            BigInteger f = iter.next();
+            computed.put(n, f);
+            values.put(n, f);
         }
 
-        return f;
+        synchronized (cache) {
+            for (Map.Entry<Integer, BigInteger> entry : computed.entrySet()) {
+                cache.put(entry.getKey(), entry.getValue());
+            }
+        }
     }
 
     /**
@@ -148,10 +186,33 @@ public final class PadovanSequence extends AbstractRecurrenceNumber<BigInteger>
         }
 
         public PadovanIterator(int startIndex, PadovanSequence padovan) {
-            idx = startIndex;
-            this.x = padovan.get(idx);
-            this.y = padovan.get(idx + 1);
-            this.z = padovan.get(idx + 2);
+            seek(startIndex);
+        }
+
+        /**
+         * Constructor for iterator restarted from a checkpoint.
+         */
+        public PadovanIterator(int startIndex, BigInteger x, BigInteger y, BigInteger z) {
+            this.idx = startIndex;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        /**
+         * Compute the three terms of the state in a single pass.
+         */
+        @Override
+        protected void seekTo(int index) {
+            if (Math.abs(index - idx) < FastDoubling.STEP_LIMIT) {
+                step(index);
+            } else {
+                BigInteger[] v = FastDoubling.padovan(index, ONE, ZERO, ZERO);
+                this.idx = index;
+                this.x = v[0];
+                this.y = v[1];
+                this.z = v[2];
+            }
         }
 
         protected BigInteger getNext() {
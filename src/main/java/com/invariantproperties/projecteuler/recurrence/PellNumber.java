@@ -23,16 +23,20 @@
 package com.invariantproperties.projecteuler.recurrence;
 
 import com.invariantproperties.projecteuler.AbstractListIterator;
-import com.invariantproperties.projecteuler.InMemorySequenceCache;
+import com.invariantproperties.projecteuler.CheckpointSequenceCache;
 import com.invariantproperties.projecteuler.SequenceCache;
+import com.invariantproperties.projecteuler.SequenceTermStore;
 
 import java.math.BigInteger;
 
 import static java.math.BigInteger.ONE;
 import static java.math.BigInteger.ZERO;
 
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.ListIterator;
+import java.util.Map;
 
 
 /**
@@ -46,7 +50,8 @@ public final class PellNumber extends AbstractRecurrenceNumber<BigInteger> {
     private static final BigInteger TWO = BigInteger.valueOf(2);
 
     public PellNumber() {
-        super(new InMemorySequenceCache<BigInteger>());
+        super(SequenceTermStore.forSequence(PellNumber.class,
+            () -> new CheckpointSequenceCache<BigInteger>(CHECKPOINT_INTERVAL, 2)));
         initialize();
     }
 
@@ -56,7 +61,7 @@ public final class PellNumber extends AbstractRecurrenceNumber<BigInteger> {
     }
 
     void initialize() {
-        cache.initialize(iterator(), 10);
+        initialize(10);
     }
 
     /**
@@ -68,37 +73,68 @@ public final class PellNumber extends AbstractRecurrenceNumber<BigInteger> {
     }
 
     /**
-     * Get specified Pell number.
+     * Compute specified Pell number.
      *
      * @param n
      * @return
      */
     @Override
-    public BigInteger get(int n) {
-        if (n < 0) {
-            throw new IllegalArgumentException("index must be non-negative");
-        }
+    protected BigInteger compute(int n) {
+        Map<Integer, BigInteger> values = new HashMap<Integer, BigInteger>();
+        computeAll(new int[] { n }, values);
 
-        BigInteger f = null;
+        return values.get(n);
+    }
 
+    /**
+     * Compute the values in a single linear sweep from the checkpoint below
+     * the smallest index, jumping ahead when the next index is too far away
+     * to step. The cache lock is only held to read the checkpoint and to
+     * store the results.
+     */
+    @Override
+    protected void computeAll(int[] missing, Map<Integer, BigInteger> values) {
+        final Map<Integer, BigInteger> computed = new LinkedHashMap<Integer, BigInteger>();
+        int c;
+        BigInteger x = null;
+        BigInteger y = null;
+
+        // only the checkpoint is read under the cache lock - the sweep itself,
+        // including any jumps, runs without it.
         synchronized (cache) {
-            f = cache.get(n);
+            c = floorCheckpoint(missing[0], 2);
+            if (c > 0) {
+                x = cache.get(c);
+                y = cache.get(c + 1);
+            }
+        }
 
-            if (f == null) {
-                PellIterator iter = new PellIterator();
-                int idx;
+        PellIterator iter = new PellIterator();
+        if ((x != null) && (y != null)) {
+            iter = new PellIterator(c, x, y);
+        }
 
-                while (iter.hasNext() && (iter.nextIndex() < n)) {
-                    idx = iter.nextIndex();
-                    cache.put(idx, iter.next());
-                }
+        for (int n : missing) {
+            int idx = checkpointIndex(n);
+            if ((idx - iter.nextIndex()) >= FastDoubling.STEP_LIMIT) {
+                iter.seek(idx);
+            }
 
-                f = iter.next();
-                cache.put(n, f);
+            while (iter.hasNext() && (iter.nextIndex() < n)) {
+                idx = iter.nextIndex();
+                computed.put(idx, iter.next());
             }
+
+            BigInteger f = iter.next();
+            computed.put(n, f);
+            values.put(n, f);
         }
 
-        return f;
+        synchronized (cache) {
+            for (Map.Entry<Integer, BigInteger> entry : computed.entrySet()) {
+                cache.put(entry.getKey(), entry.getValue());
+            }
+        }
     }
 
     /**
@@ -138,10 +174,31 @@ public final class PellNumber extends AbstractRecurrenceNumber<BigInteger> {
         }
 
         public PellIterator(int startIndex, PellNumber pell) {
-            idx = startIndex;
-            // FIXME: initialize without 'get'?
-            this.x = pell.get(idx);
-            this.y = pell.get(idx + 1);
+            seek(startIndex);
+        }
+
+        /**
+         * Constructor for iterator restarted from a checkpoint.
+         */
+        public PellIterator(int startIndex, BigInteger x, BigInteger y) {
+            this.idx = startIndex;
+            this.x = x;
+            this.y = y;
+        }
+
+        /**
+         * Compute P(index) and P(index + 1) in a single pass.
+         */
+        @Override
+        protected void seekTo(int index) {
+            if (Math.abs(index - idx) < FastDoubling.STEP_LIMIT) {
+                step(index);
+            } else {
+                BigInteger[] pair = FastDoubling.pell(index);
+                this.idx = index;
+                this.x = pair[0];
+                this.y = pair[1];
+            }
         }
 
         protected BigInteger getNext() {
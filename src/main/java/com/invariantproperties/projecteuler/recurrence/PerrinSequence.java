@@ -23,8 +23,9 @@
 package com.invariantproperties.projecteuler.recurrence;
 
 import com.invariantproperties.projecteuler.AbstractListIterator;
-import com.invariantproperties.projecteuler.InMemorySequenceCache;
+import com.invariantproperties.projecteuler.WeightedSequenceCache;
 import com.invariantproperties.projecteuler.SequenceCache;
+import com.invariantproperties.projecteuler.SequenceTermStore;
 
 import java.math.BigInteger;
 
@@ -32,6 +33,7 @@ import static java.math.BigInteger.ZERO;
 
 import java.util.Iterator;
 import java.util.ListIterator;
+import java.util.function.IntFunction;
 
 
 /**
@@ -42,6 +44,8 @@ import java.util.ListIterator;
  */
 @com.invariantproperties.projecteuler.annotation.Sequence(oeis = "A001608")
 public final class PerrinSequence extends AbstractRecurrenceNumber<BigInteger> {
+    private static final int INITIAL_COUNT = 100;
+    private static final PerrinPlan PLAN = new PerrinPlan();
     private static final BigInteger TWO = BigInteger.valueOf(2);
     private static final BigInteger THREE = BigInteger.valueOf(3);
     private static final BigInteger FOUR = BigInteger.valueOf(4);
@@ -53,7 +57,8 @@ public final class PerrinSequence extends AbstractRecurrenceNumber<BigInteger> {
     private static final BigInteger V23 = BigInteger.valueOf(23);
 
     public PerrinSequence() {
-        super(new InMemorySequenceCache<BigInteger>());
+        super(SequenceTermStore.forSequence(PerrinSequence.class,
+            () -> WeightedSequenceCache.forBigIntegers("A001608", DEFAULT_CACHE_BYTES, true)));
         initialize();
     }
 
@@ -63,7 +68,7 @@ public final class PerrinSequence extends AbstractRecurrenceNumber<BigInteger> {
     }
 
     void initialize() {
-        cache.initialize(iterator(), 100);
+        initialize(INITIAL_COUNT);
     }
 
     /**
@@ -83,51 +88,22 @@ public final class PerrinSequence extends AbstractRecurrenceNumber<BigInteger> {
     }
 
     /**
-     * Get specified Perrin number.
+     * Compute specified Perrin number.
      *
      * @param n
      * @return
      */
     @Override
-    public BigInteger get(int n) {
-        if (n < 0) {
-            throw new IllegalArgumentException("index must be non-negative");
-        }
-
-        BigInteger value = null;
-
-        synchronized (cache) {
-            value = cache.get(n);
-
-            if (value == null) {
-                int n0 = n / 2;
-                BigInteger u = get(n0 - 1);
-                BigInteger v = get(n0);
-                BigInteger w = get(n0 + 1);
-
-                BigInteger x = null;
-
-                if ((n % 2) == 0) {
-                    x = SEVEN.multiply(v.pow(2)).subtract(SIX.multiply(u.pow(2)))
-                             .subtract(TWO.multiply(w.pow(2)))
-                             .subtract(FOUR.multiply(u).multiply(v))
-                             .add(V18.multiply(u).multiply(w))
-                             .add(SIX.multiply(v).multiply(w));
-                } else {
-                    x = NINE.multiply(u.pow(2)).add(v.pow(2))
-                            .add(THREE.multiply(w.pow(2)))
-                            .add(SIX.multiply(u).multiply(v))
-                            .subtract(FOUR.multiply(u).multiply(w))
-                            .add(V14.multiply(v).multiply(w));
-                }
-                assert (BigInteger.ZERO.equals(x.remainder(V23)));
-
-                value = x.divide(V23);
-                cache.put(n, value);
-            }
-        }
+    protected BigInteger compute(int n) {
+        return PLAN.combine(n, this::get);
+    }
 
-        return value;
+    /**
+     * Get the plan used by batch lookups.
+     */
+    @Override
+    protected DependencyPlan<BigInteger> plan() {
+        return PLAN;
     }
 
     /**
@@ -168,11 +144,23 @@ public final class PerrinSequence extends AbstractRecurrenceNumber<BigInteger> {
         }
 
         public PerrinIterator(int startIndex, PerrinSequence perrin) {
-            idx = startIndex;
-            // FIXME: initialize without 'get'?
-            this.x = perrin.get(idx);
-            this.y = perrin.get(idx + 1);
-            this.z = perrin.get(idx + 2);
+            seek(startIndex);
+        }
+
+        /**
+         * Compute the three terms of the state in a single pass.
+         */
+        @Override
+        protected void seekTo(int index) {
+            if (Math.abs(index - idx) < FastDoubling.STEP_LIMIT) {
+                step(index);
+            } else {
+                BigInteger[] v = FastDoubling.padovan(index, THREE, ZERO, TWO);
+                this.idx = index;
+                this.x = v[0];
+                this.y = v[1];
+                this.z = v[2];
+            }
         }
 
         protected BigInteger getNext() {
@@ -193,4 +181,57 @@ public final class PerrinSequence extends AbstractRecurrenceNumber<BigInteger> {
             return x;
         }
     }
+
+    /**
+     * Plan used by batch lookups.
+     */
+    private static final class PerrinPlan implements DependencyPlan<BigInteger> {
+        /**
+         * The doubling formulas need P(m - 1), P(m) and P(m + 1) where m = n / 2.
+         */
+        @Override
+        public int[] dependencies(int n) {
+            if (n < INITIAL_COUNT) {
+                return null;
+            }
+
+            int m = n / 2;
+
+            return new int[] { m - 1, m, m + 1 };
+        }
+
+        /**
+         * Compute P(n) from P(m - 1), P(m) and P(m + 1) where m = n / 2.
+         */
+        @Override
+        public BigInteger combine(int n, IntFunction<BigInteger> p) {
+            BigInteger value = null;
+
+            int n0 = n / 2;
+            BigInteger u = p.apply(n0 - 1);
+            BigInteger v = p.apply(n0);
+            BigInteger w = p.apply(n0 + 1);
+
+            BigInteger x = null;
+
+            if ((n % 2) == 0) {
+                x = SEVEN.multiply(v.pow(2)).subtract(SIX.multiply(u.pow(2)))
+                         .subtract(TWO.multiply(w.pow(2)))
+                         .subtract(FOUR.multiply(u).multiply(v))
+                         .add(V18.multiply(u).multiply(w))
+                         .add(SIX.multiply(v).multiply(w));
+            } else {
+                x = NINE.multiply(u.pow(2)).add(v.pow(2))
+                        .add(THREE.multiply(w.pow(2)))
+                        .add(SIX.multiply(u).multiply(v))
+                        .subtract(FOUR.multiply(u).multiply(w))
+                        .add(V14.multiply(v).multiply(w));
+            }
+            assert (BigInteger.ZERO.equals(x.remainder(V23)));
+
+            value = x.divide(V23);
+
+            return value;
+        }
+    }
 }
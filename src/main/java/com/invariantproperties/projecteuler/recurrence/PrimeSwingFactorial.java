@@ -0,0 +1,264 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.recurrence;
+
+import com.invariantproperties.projecteuler.IntegerMath;
+import com.invariantproperties.projecteuler.prime.SieveOfAtkin;
+
+import java.math.BigInteger;
+
+import static java.math.BigInteger.ONE;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+
+/**
+ * Fast factorial engine based on Peter Luschny's prime swing algorithm.
+ * The factorial is decomposed as n! = ((n/2)!)^2 * swing(n) where swing(n)
+ * is the "swinging factorial" n!/((n/2)!)^2. The prime factorization of
+ * swing(n) can be read directly from the primes up to n so we never need
+ * to multiply by the composite numbers.
+ *
+ * The factors are combined with a balanced product tree so the expensive
+ * multiplications are always between numbers of similar size. Large trees
+ * are evaluated in parallel.
+ *
+ * We only compute the odd part of n! and add the powers of two with a
+ * single shift at the end since there are exactly n - bitCount(n) of them.
+ *
+ * @author bgiles
+ */
+public final class PrimeSwingFactorial {
+    private static final SieveOfAtkin SIEVE = SieveOfAtkin.SIEVE;
+
+    /**
+     * Product trees with fewer factors than this are evaluated sequentially.
+     */
+    private static final int PARALLEL_THRESHOLD = 4096;
+
+    /**
+     * Product trees with fewer factors than this are multiplied in place.
+     */
+    private static final int LEAF_SIZE = 16;
+
+    private static final ForkJoinPool POOL = ForkJoinPool.commonPool();
+
+    private PrimeSwingFactorial() {
+    }
+
+    /**
+     * Compute n!.
+     *
+     * @param n
+     * @return n!
+     * @throws IllegalArgumentException
+     *             if negative number
+     */
+    public static BigInteger factorial(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("index must be non-negative");
+        }
+
+        if (n < 2) {
+            return ONE;
+        }
+
+        int[] primes = oddPrimes(n);
+
+        return oddFactorial(n, primes).shiftLeft(n - Integer.bitCount(n));
+    }
+
+    /**
+     * Compute the odd part of n!.
+     */
+    private static BigInteger oddFactorial(int n, int[] primes) {
+        if (n < 2) {
+            return ONE;
+        }
+
+        BigInteger f = oddFactorial(n / 2, primes);
+
+        return f.multiply(f).multiply(oddSwing(n, primes));
+    }
+
+    /**
+     * Compute the odd part of the swinging factorial n!/((n/2)!)^2.
+     */
+    private static BigInteger oddSwing(int n, int[] primes) {
+        int sqrt = (int) IntegerMath.isqrt(n);
+        long[] factors = new long[primes.length];
+        int count = 0;
+
+        for (int p : primes) {
+            if (p > n) {
+                break;
+            }
+
+            if (p > (n / 2)) {
+                // primes in (n/2, n] always appear exactly once.
+                factors[count++] = p;
+            } else if (p > (n / 3)) {
+                // primes in (n/3, n/2] never appear.
+                continue;
+            } else if (p > sqrt) {
+                if (((n / p) & 1) == 1) {
+                    factors[count++] = p;
+                }
+            } else {
+                long q = n;
+                long f = 1;
+
+                while ((q /= p) > 0) {
+                    if ((q & 1) == 1) {
+                        f *= p;
+                    }
+                }
+
+                if (f > 1) {
+                    factors[count++] = f;
+                }
+            }
+        }
+
+        return product(factors, 0, count);
+    }
+
+    /**
+     * Get the odd primes up to and including n.
+     */
+    static int[] oddPrimes(int n) {
+        // rough upper bound on pi(n) - it only determines the initial size.
+        int[] primes = new int[Math.max(16, (int) (1.3 * n / Math.log(Math.max(n, 2))))];
+        int count = 0;
+
+        for (int p = 3; p <= n; p += 2) {
+            if (SIEVE.isPrime(p)) {
+                if (count == primes.length) {
+                    primes = Arrays.copyOf(primes, (3 * count) / 2);
+                }
+
+                primes[count++] = p;
+            }
+
+            // avoid overflow when n is close to Integer.MAX_VALUE
+            if (p > (Integer.MAX_VALUE - 2)) {
+                break;
+            }
+        }
+
+        return Arrays.copyOf(primes, count);
+    }
+
+    /**
+     * Compute the product of factors[from] ... factors[to - 1] using a
+     * balanced product tree. Large trees are evaluated in parallel.
+     *
+     * @param factors
+     *            positive factors
+     * @param from
+     *            first index, inclusive
+     * @param to
+     *            last index, exclusive
+     * @return product of the factors
+     */
+    static BigInteger product(long[] factors, int from, int to) {
+        if ((to - from) < PARALLEL_THRESHOLD) {
+            return sequentialProduct(factors, from, to);
+        }
+
+        return POOL.invoke(new ProductTask(factors, from, to));
+    }
+
+    /**
+     * Sequential implementation of the product tree.
+     */
+    private static BigInteger sequentialProduct(long[] factors, int from, int to) {
+        int len = to - from;
+
+        if (len <= LEAF_SIZE) {
+            return leafProduct(factors, from, to);
+        }
+
+        int mid = (from + to) >>> 1;
+
+        return sequentialProduct(factors, from, mid).multiply(sequentialProduct(factors, mid, to));
+    }
+
+    /**
+     * Multiply a handful of factors. We accumulate in a long for as long as
+     * we can before falling back to BigInteger arithmetic.
+     */
+    private static BigInteger leafProduct(long[] factors, int from, int to) {
+        BigInteger result = ONE;
+        long acc = 1;
+
+        for (int i = from; i < to; i++) {
+            long f = factors[i];
+
+            if ((acc != 0) && (f > (Long.MAX_VALUE / acc))) {
+                result = result.multiply(BigInteger.valueOf(acc));
+                acc = f;
+            } else {
+                acc *= f;
+            }
+        }
+
+        return result.multiply(BigInteger.valueOf(acc));
+    }
+
+    /**
+     * Parallel evaluation of the product tree.
+     *
+     * @author bgiles
+     */
+    private static final class ProductTask extends RecursiveTask<BigInteger> {
+        private static final long serialVersionUID = 1L;
+        private final long[] factors;
+        private final int from;
+        private final int to;
+
+        ProductTask(long[] factors, int from, int to) {
+            this.factors = factors;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BigInteger compute() {
+            if ((to - from) < PARALLEL_THRESHOLD) {
+                return sequentialProduct(factors, from, to);
+            }
+
+            int mid = (from + to) >>> 1;
+            ProductTask left = new ProductTask(factors, from, mid);
+            ProductTask right = new ProductTask(factors, mid, to);
+            left.fork();
+
+            BigInteger r = right.compute();
+
+            return left.join().multiply(r);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler;
+
+import java.math.BigInteger;
+
+/**
+ * Arithmetic primitives whose fastest implementation depends on the JDK
+ * release. This is the Java 9 implementation, packaged in the versioned
+ * section of the multi-release jar. It must have the same public API as the
+ * Java 8 implementation in src/main/java.
+ * 
+ * Most callers should use {@link IntegerMath} instead.
+ * 
+ * @author Bear Giles <bgiles@coyotesong.com>
+ */
+public final class PlatformMath {
+    private static final long MASK32 = 0xFFFFFFFFL;
+    private static final long B = 1L << 32;
+
+    private PlatformMath() {
+    }
+
+    /**
+     * Integer square root of a non-negative BigInteger, floor(sqrt(x)).
+     */
+    public static BigInteger sqrt(BigInteger x) {
+        return x.sqrt();
+    }
+
+    /**
+     * Compute (a * b) % m for 0 &lt;= a, b &lt; m. The 128-bit product is
+     * computed with Math.multiplyHigh() and reduced with a two-digit long
+     * division.
+     */
+    public static long mulmod(long a, long b, long m) {
+        if ((a < 3037000499L) && (b < 3037000499L)) {
+            return (a * b) % m;
+        }
+
+        // a, b < m < 2^63 so the product is non-negative and hi < m.
+        long hi = Math.multiplyHigh(a, b);
+        long lo = a * b;
+
+        if (hi == 0) {
+            return Long.remainderUnsigned(lo, m);
+        }
+
+        return remainder(hi, lo, m);
+    }
+
+    /**
+     * Remainder of the unsigned 128-bit value (u1, u0) divided by v, where
+     * u1 &lt; v &lt; 2^63. This is the normalized two-digit division from
+     * Hacker's Delight, with 32-bit digits.
+     */
+    private static long remainder(long u1, long u0, long v) {
+        int s = Long.numberOfLeadingZeros(v);
+        v <<= s;
+
+        long vn1 = v >>> 32;
+        long vn0 = v & MASK32;
+
+        long un32 = (u1 << s) | (u0 >>> (64 - s));
+        long un10 = u0 << s;
+        long un1 = un10 >>> 32;
+        long un0 = un10 & MASK32;
+
+        long q1 = Long.divideUnsigned(un32, vn1);
+        long rhat = un32 - (q1 * vn1);
+
+        while ((q1 >= B) || (Long.compareUnsigned(q1 * vn0, (rhat << 32) + un1) > 0)) {
+            q1--;
+            rhat += vn1;
+            if (rhat >= B) {
+                break;
+            }
+        }
+
+        long un21 = ((un32 << 32) + un1) - (q1 * v);
+
+        long q0 = Long.divideUnsigned(un21, vn1);
+        rhat = un21 - (q0 * vn1);
+
+        while ((q0 >= B) || (Long.compareUnsigned(q0 * vn0, (rhat << 32) + un0) > 0)) {
+            q0--;
+            rhat += vn1;
+            if (rhat >= B) {
+                break;
+            }
+        }
+
+        return (((un21 << 32) + un0) - (q0 * v)) >>> s;
+    }
+}
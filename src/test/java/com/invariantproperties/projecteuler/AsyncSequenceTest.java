@@ -0,0 +1,244 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.invariantproperties.projecteuler.recurrence.FibonacciNumber;
+import com.invariantproperties.projecteuler.recurrence.LucasNumber;
+
+/**
+ * Test asynchronous sequence facade.
+ *
+ * @author bgiles
+ */
+public class AsyncSequenceTest {
+    private ExecutorService executor;
+
+    @Before
+    public void setup() {
+        executor = AsyncSequence.newBoundedExecutor(1, 16);
+    }
+
+    @After
+    public void teardown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Verify values match the synchronous sequence.
+     */
+    @Test
+    public void verifyValues() throws Exception {
+        FibonacciNumber fibonacci = new FibonacciNumber();
+        AsyncSequence<BigInteger> async = new AsyncSequence<BigInteger>(fibonacci, executor);
+
+        Assert.assertEquals(fibonacci.get(10000), async.getAsync(10000).get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(Arrays.asList(fibonacci.get(30), fibonacci.get(10), fibonacci.get(30)),
+                async.getAllAsync(30, 10, 30).get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(0, async.getInFlightCount());
+    }
+
+    /**
+     * Verify batches of uncached recurrence values are computed correctly.
+     */
+    @Test
+    public void verifyRecurrenceBatch() throws Exception {
+        LucasNumber lucas = new LucasNumber();
+        AsyncSequence<BigInteger> async = new AsyncSequence<BigInteger>(lucas, executor);
+
+        List<BigInteger> values = async.getAllAsync(123457, 12345, 123456).get(10, TimeUnit.SECONDS);
+        ListIterator<BigInteger> iter = lucas.listIterator(12345);
+        Assert.assertEquals(iter.next(), values.get(1));
+        iter = lucas.listIterator(123456);
+        Assert.assertEquals(iter.next(), values.get(2));
+        Assert.assertEquals(iter.next(), values.get(0));
+        Assert.assertEquals(0, async.getInFlightCount());
+    }
+
+    /**
+     * Verify duplicate requests share a computation.
+     */
+    @Test
+    public void verifyCoalescing() throws Exception {
+        GatedSequence sequence = new GatedSequence();
+        AsyncSequence<Integer> async = new AsyncSequence<Integer>(sequence, executor);
+
+        CompletableFuture<Integer> a = async.getAsync(7);
+        CompletableFuture<Integer> b = async.getAsync(7);
+        CompletableFuture<List<Integer>> c = async.getAllAsync(7, 8);
+        Assert.assertEquals(2, async.getInFlightCount());
+
+        sequence.gate.countDown();
+
+        Assert.assertEquals(Integer.valueOf(14), a.get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(Integer.valueOf(14), b.get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(Arrays.asList(14, 16), c.get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(2, sequence.calls.get());
+    }
+
+    /**
+     * Verify cancelling one caller doesn't affect the others, and a
+     * computation is skipped once every caller has cancelled.
+     */
+    @Test
+    public void verifyCancellation() throws Exception {
+        GatedSequence sequence = new GatedSequence();
+        AsyncSequence<Integer> async = new AsyncSequence<Integer>(sequence, executor);
+
+        // occupies the only thread.
+        CompletableFuture<Integer> blocker = async.getAsync(1);
+
+        CompletableFuture<Integer> a = async.getAsync(2);
+        CompletableFuture<Integer> b = async.getAsync(2);
+        CompletableFuture<Integer> c = async.getAsync(3);
+
+        Assert.assertTrue(a.cancel(true));
+        Assert.assertTrue(c.cancel(true));
+        Assert.assertEquals(2, async.getInFlightCount());
+
+        sequence.gate.countDown();
+
+        Assert.assertEquals(Integer.valueOf(2), blocker.get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(Integer.valueOf(4), b.get(10, TimeUnit.SECONDS));
+
+        try {
+            a.get();
+            Assert.fail("expected cancellation");
+        } catch (CancellationException e) {
+            // expected
+        }
+
+        // wait for the task for index 3 to be skipped.
+        async.getAsync(4).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(3, sequence.calls.get());
+    }
+
+    /**
+     * Verify failures are propagated.
+     */
+    @Test
+    public void verifyFailure() throws Exception {
+        AsyncSequence<BigInteger> async = new AsyncSequence<BigInteger>(new FibonacciNumber(), executor);
+
+        try {
+            async.getAsync(-1).get(10, TimeUnit.SECONDS);
+            Assert.fail("expected exception");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    /**
+     * Verify requests are rejected when the queue is full.
+     */
+    @Test
+    public void verifyRejection() throws Exception {
+        executor.shutdownNow();
+        executor = AsyncSequence.newBoundedExecutor(1, 1);
+
+        GatedSequence sequence = new GatedSequence();
+        AsyncSequence<Integer> async = new AsyncSequence<Integer>(sequence, executor);
+
+        CompletableFuture<Integer> running = async.getAsync(1);
+        while (sequence.started.get() == 0) {
+            Thread.sleep(1);
+        }
+        CompletableFuture<Integer> queued = async.getAsync(2);
+        CompletableFuture<Integer> rejected = async.getAsync(3);
+
+        try {
+            rejected.get(10, TimeUnit.SECONDS);
+            Assert.fail("expected exception");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+
+        sequence.gate.countDown();
+        Assert.assertEquals(Integer.valueOf(2), running.get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(Integer.valueOf(4), queued.get(10, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Sequence a(n) = 2n that blocks until the gate is opened.
+     */
+    private static final class GatedSequence extends AbstractSequence<Integer> {
+        private final CountDownLatch gate = new CountDownLatch(1);
+        private final AtomicInteger started = new AtomicInteger();
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public Integer get(int n) {
+            started.incrementAndGet();
+            try {
+                gate.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            calls.incrementAndGet();
+            return 2 * n;
+        }
+
+        @Override
+        public String getOeisSequenceNumber() {
+            return "A005843";
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ListIterator<Integer> listIterator() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ListIterator<Integer> listIterator(int startIndex) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SequenceList<Integer> subList(int startIndex, int lastIndex) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
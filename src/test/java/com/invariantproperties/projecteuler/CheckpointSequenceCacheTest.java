@@ -0,0 +1,115 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.invariantproperties.projecteuler.recurrence.FactorialNumber;
+import com.invariantproperties.projecteuler.recurrence.PadovanSequence;
+import com.invariantproperties.projecteuler.recurrence.PellNumber;
+
+/**
+ * Test checkpoint cache.
+ *
+ * @author bgiles
+ */
+public class CheckpointSequenceCacheTest {
+    private static final int MAX_TESTS = 3000;
+
+    /**
+     * Verify only checkpoint windows are retained.
+     */
+    @Test
+    public void verifyCheckpoints() {
+        CheckpointSequenceCache<Integer> cache = new CheckpointSequenceCache<Integer>(10, 2);
+        cache.initialize(new ArrayList<Integer>());
+
+        for (int n = 0; n < 100; n++) {
+            cache.put(n, n);
+        }
+
+        Assert.assertEquals(20, cache.size());
+        Assert.assertEquals(Integer.valueOf(50), cache.get(50));
+        Assert.assertEquals(Integer.valueOf(51), cache.get(51));
+        Assert.assertNull(cache.get(52));
+        Assert.assertEquals(50, cache.floorCheckpoint(57));
+        Assert.assertEquals(50, cache.checkpointIndex(57));
+
+        // most recent values are retained
+        Assert.assertEquals(Integer.valueOf(99), cache.get(99));
+        Assert.assertEquals(98, cache.floorCheckpoint(99));
+    }
+
+    /**
+     * Verify power of two checkpoints.
+     */
+    @Test
+    public void verifyPowersOfTwo() {
+        CheckpointSequenceCache<Integer> cache = CheckpointSequenceCache.powersOfTwo(1);
+
+        for (int n = 1; n < 1000; n++) {
+            cache.put(n, n);
+        }
+
+        Assert.assertEquals(10, cache.size());
+        Assert.assertEquals(512, cache.checkpointIndex(700));
+        Assert.assertEquals(512, cache.floorCheckpoint(700));
+    }
+
+    /**
+     * Verify random access through checkpoints matches iterators.
+     */
+    @Test
+    public void verifyRandomAccess() {
+        BigInteger[] pell = new BigInteger[MAX_TESTS];
+        BigInteger[] padovan = new BigInteger[MAX_TESTS];
+        BigInteger[] factorial = new BigInteger[MAX_TESTS];
+        fill(pell, new PellNumber().iterator());
+        fill(padovan, new PadovanSequence().iterator());
+        fill(factorial, new FactorialNumber().iterator());
+
+        PellNumber p = new PellNumber(new CheckpointSequenceCache<BigInteger>(50, 2));
+        PadovanSequence q = new PadovanSequence(CheckpointSequenceCache.<BigInteger> powersOfTwo(3));
+        FactorialNumber f = new FactorialNumber(new CheckpointSequenceCache<BigInteger>(50, 1));
+        Random r = new Random(1);
+
+        for (int i = 0; i < 500; i++) {
+            int n = r.nextInt(MAX_TESTS);
+            Assert.assertEquals(pell[n], p.get(n));
+            Assert.assertEquals(padovan[n], q.get(n));
+            Assert.assertEquals(factorial[n], f.get(n));
+        }
+    }
+
+    private static void fill(BigInteger[] values, Iterator<BigInteger> iter) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = iter.next();
+        }
+    }
+}
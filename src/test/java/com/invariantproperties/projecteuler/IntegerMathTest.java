@@ -0,0 +1,169 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler;
+
+import java.math.BigInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test exact integer arithmetic.
+ *
+ * @author bgiles
+ */
+public class IntegerMathTest {
+
+    /**
+     * Verify isqrt for perfect squares and their neighbors.
+     */
+    @Test
+    public void verifyIsqrt() {
+        for (long r = 0; r < 100000; r++) {
+            Assert.assertEquals(r, IntegerMath.isqrt(r * r));
+            Assert.assertEquals(r, IntegerMath.isqrt((r * r) + (2 * r)));
+            if (r > 0) {
+                Assert.assertEquals(r - 1, IntegerMath.isqrt((r * r) - 1));
+            }
+        }
+    }
+
+    /**
+     * Verify isqrt near the top of the range where Math.sqrt is inexact.
+     */
+    @Test
+    public void verifyIsqrtLarge() {
+        for (long r = 3037000499L; r > 3037000499L - 10000; r--) {
+            Assert.assertEquals(r, IntegerMath.isqrt(r * r));
+            Assert.assertEquals(r - 1, IntegerMath.isqrt((r * r) - 1));
+        }
+
+        long x = Long.MAX_VALUE;
+        long r = IntegerMath.isqrt(x);
+        Assert.assertEquals(BigInteger.valueOf(3037000499L), BigInteger.valueOf(r));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void verifyIsqrtIllegalArgumentException() {
+        IntegerMath.isqrt(-1);
+    }
+
+    /**
+     * Verify perfect squares against isqrt.
+     */
+    @Test
+    public void verifyIsPerfectSquare() {
+        for (long x = 0; x < 1000000; x++) {
+            long r = IntegerMath.isqrt(x);
+            Assert.assertEquals((r * r) == x, IntegerMath.isPerfectSquare(x));
+        }
+
+        long r = 3037000499L;
+        Assert.assertTrue(IntegerMath.isPerfectSquare(r * r));
+        Assert.assertFalse(IntegerMath.isPerfectSquare((r * r) - 1));
+        Assert.assertFalse(IntegerMath.isPerfectSquare(-1));
+    }
+
+    /**
+     * Verify exact square roots against isqrt.
+     */
+    @Test
+    public void verifySqrtExact() {
+        for (long x = 0; x < 100000; x++) {
+            long r = IntegerMath.isqrt(x);
+            Assert.assertEquals(((r * r) == x) ? r : -1, IntegerMath.sqrtExact(x));
+        }
+
+        long r = 3037000499L;
+        Assert.assertEquals(r, IntegerMath.sqrtExact(r * r));
+        Assert.assertEquals(-1, IntegerMath.sqrtExact((r * r) + 1));
+        Assert.assertEquals(-1, IntegerMath.sqrtExact(-4));
+    }
+
+    /**
+     * Verify ceiling square root.
+     */
+    @Test
+    public void verifyCeilSqrt() {
+        Assert.assertEquals(0, IntegerMath.ceilSqrt(0));
+        Assert.assertEquals(3, IntegerMath.ceilSqrt(9));
+        Assert.assertEquals(4, IntegerMath.ceilSqrt(10));
+    }
+
+    /**
+     * Verify BigInteger square root.
+     */
+    @Test
+    public void verifyIsqrtBigInteger() {
+        BigInteger r = BigInteger.TEN.pow(50).add(BigInteger.valueOf(12345));
+        BigInteger x = r.multiply(r);
+        Assert.assertEquals(r, IntegerMath.isqrt(x));
+        Assert.assertEquals(r.subtract(BigInteger.ONE), IntegerMath.isqrt(x.subtract(BigInteger.ONE)));
+        Assert.assertEquals(r, IntegerMath.isqrt(x.add(r)));
+
+        for (int i = 0; i < 200; i++) {
+            BigInteger y = BigInteger.ONE.shiftLeft(i).add(BigInteger.valueOf(i));
+            BigInteger s = IntegerMath.isqrt(y);
+            Assert.assertTrue(s.multiply(s).compareTo(y) <= 0);
+            Assert.assertTrue(s.add(BigInteger.ONE).pow(2).compareTo(y) > 0);
+        }
+    }
+
+    /**
+     * Verify icbrt for perfect cubes and their neighbors.
+     */
+    @Test
+    public void verifyIcbrt() {
+        for (long r = 0; r < 2097152; r += 7) {
+            long c = r * r * r;
+            Assert.assertEquals(r, IntegerMath.icbrt(c));
+            if (r > 0) {
+                Assert.assertEquals(r - 1, IntegerMath.icbrt(c - 1));
+            }
+        }
+
+        Assert.assertEquals(2097151, IntegerMath.icbrt(Long.MAX_VALUE));
+    }
+
+    /**
+     * Verify checked multiplication and addition.
+     */
+    @Test
+    public void verifyExact() {
+        Assert.assertEquals(6, IntegerMath.multiplyExact(2, 3));
+        Assert.assertEquals(-6, IntegerMath.multiplyExact(-2, 3));
+        Assert.assertEquals(Long.MAX_VALUE - 1, IntegerMath.multiplyExact(Long.MAX_VALUE / 2, 2));
+        Assert.assertEquals(Long.MAX_VALUE, IntegerMath.addExact(Long.MAX_VALUE - 1, 1));
+        Assert.assertEquals(Long.MIN_VALUE, IntegerMath.addExact(Long.MIN_VALUE + 1, -1));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void verifyMultiplyExactArithmeticException() {
+        IntegerMath.multiplyExact(3037000500L, 3037000500L);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void verifyAddExactArithmeticException() {
+        IntegerMath.addExact(Long.MAX_VALUE, 1);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler;
+
+import java.io.File;
+import java.math.BigInteger;
+import java.nio.file.Files;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.invariantproperties.projecteuler.recurrence.FibonacciNumber;
+
+/**
+ * Test persistent cache.
+ *
+ * @author bgiles
+ */
+public class MappedFileSequenceCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Verify values survive closing and reopening the cache.
+     */
+    @Test
+    public void verifyPersistence() throws Exception {
+        File file = new File(folder.getRoot(), "fibonacci.dat");
+        FibonacciNumber expected = new FibonacciNumber();
+
+        try (MappedFileSequenceCache cache = new MappedFileSequenceCache(file)) {
+            Assert.assertFalse(cache.isInitialized());
+            FibonacciNumber fibonacci = new FibonacciNumber(cache);
+            Assert.assertTrue(cache.isInitialized());
+            Assert.assertEquals(expected.get(5000), fibonacci.get(5000));
+        }
+
+        try (MappedFileSequenceCache cache = new MappedFileSequenceCache(file, true)) {
+            Assert.assertTrue(cache.isInitialized());
+            Assert.assertTrue(cache.isReadOnly());
+            for (int n = 0; n < 100; n++) {
+                Assert.assertEquals(expected.get(n), cache.get(n));
+            }
+            Assert.assertEquals(expected.get(5000), cache.get(5000));
+            Assert.assertNull(cache.get(4999));
+
+            // the sequence must not reinitialize or write to the cache.
+            FibonacciNumber fibonacci = new FibonacciNumber(cache);
+            Assert.assertEquals(expected.get(6000), fibonacci.get(6000));
+            Assert.assertNull(cache.get(6000));
+        }
+    }
+
+    /**
+     * Verify reader sees values appended by a writer after it was opened.
+     */
+    @Test
+    public void verifySharedReader() throws Exception {
+        File file = new File(folder.getRoot(), "shared.dat");
+
+        try (MappedFileSequenceCache writer = new MappedFileSequenceCache(file)) {
+            writer.initialize(new FibonacciNumber().iterator(), 10);
+            try (MappedFileSequenceCache reader = new MappedFileSequenceCache(file, true)) {
+                Assert.assertNull(reader.get(100000));
+                BigInteger value = BigInteger.ONE.shiftLeft(100000).negate();
+                writer.put(100000, value);
+                Assert.assertEquals(value, reader.get(100000));
+            }
+        }
+    }
+
+    /**
+     * Verify reset discards values added after initialization.
+     */
+    @Test
+    public void verifyReset() throws Exception {
+        File file = new File(folder.getRoot(), "reset.dat");
+
+        try (MappedFileSequenceCache cache = new MappedFileSequenceCache(file)) {
+            cache.initialize(new FibonacciNumber().iterator(), 10);
+            cache.put(20, BigInteger.TEN);
+            Assert.assertEquals(BigInteger.TEN, cache.get(20));
+            cache.reset();
+            Assert.assertNull(cache.get(20));
+            Assert.assertEquals(BigInteger.valueOf(34), cache.get(9));
+            cache.put(20, BigInteger.ONE);
+            Assert.assertEquals(BigInteger.ONE, cache.get(20));
+        }
+    }
+
+    /**
+     * Verify cache can't be initialized twice.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void verifyInitializeIllegalStateException() throws Exception {
+        File file = new File(folder.getRoot(), "twice.dat");
+
+        try (MappedFileSequenceCache cache = new MappedFileSequenceCache(file)) {
+            cache.initialize(new FibonacciNumber().iterator(), 10);
+            cache.initialize(new FibonacciNumber().iterator(), 10);
+        }
+    }
+
+    /**
+     * Verify a truncated index is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void verifyTruncatedIndex() throws Exception {
+        File file = new File(folder.getRoot(), "truncated.dat");
+        Assert.assertTrue(file.createNewFile());
+        Assert.assertTrue(new File(file.getPath() + ".idx").createNewFile());
+
+        new MappedFileSequenceCache(file, true).close();
+    }
+
+    /**
+     * Verify a file that isn't a cache index is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void verifyNotAnIndex() throws Exception {
+        File file = new File(folder.getRoot(), "garbage.dat");
+        Assert.assertTrue(file.createNewFile());
+        Files.write(new File(file.getPath() + ".idx").toPath(), new byte[64]);
+
+        new MappedFileSequenceCache(file, true).close();
+    }
+}
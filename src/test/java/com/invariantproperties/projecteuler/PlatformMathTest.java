@@ -0,0 +1,75 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the JDK-specific arithmetic. This runs against both the Java 8 classes
+ * and the versioned classes in the multi-release jar.
+ *
+ * @author Bear Giles <bgiles@coyotesong.com>
+ */
+public class PlatformMathTest {
+
+    /**
+     * Verify mulmod against BigInteger arithmetic.
+     */
+    @Test
+    public void verifyMulmod() {
+        Random r = new Random(1L);
+
+        for (int i = 0; i < 100000; i++) {
+            long m = 1 + (r.nextLong() >>> (1 + r.nextInt(62)));
+            long a = (r.nextLong() >>> 1) % m;
+            long b = (r.nextLong() >>> 1) % m;
+            long expected = BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)).mod(BigInteger.valueOf(m))
+                    .longValue();
+            Assert.assertEquals(expected, PlatformMath.mulmod(a, b, m));
+        }
+
+        long m = Long.MAX_VALUE;
+        Assert.assertEquals(1L, PlatformMath.mulmod(m - 1, m - 1, m));
+        Assert.assertEquals(0L, PlatformMath.mulmod(0, m - 1, m));
+    }
+
+    /**
+     * Verify BigInteger square roots.
+     */
+    @Test
+    public void verifySqrt() {
+        Random r = new Random(1L);
+        Assert.assertEquals(BigInteger.ZERO, PlatformMath.sqrt(BigInteger.ZERO));
+
+        for (int i = 0; i < 1000; i++) {
+            BigInteger x = new BigInteger(1 + r.nextInt(2000), r);
+            BigInteger s = PlatformMath.sqrt(x);
+            Assert.assertTrue(s.multiply(s).compareTo(x) <= 0);
+            Assert.assertTrue(s.add(BigInteger.ONE).pow(2).compareTo(x) > 0);
+        }
+    }
+}
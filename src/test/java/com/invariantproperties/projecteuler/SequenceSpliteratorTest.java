@@ -0,0 +1,129 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.invariantproperties.projecteuler.figurate.TriangularNumber;
+import com.invariantproperties.projecteuler.recurrence.FibonacciNumber;
+
+/**
+ * Test streams and spliterators over sequences.
+ *
+ * @author Bear Giles <bgiles@coyotesong.com>
+ */
+public class SequenceSpliteratorTest {
+
+    /**
+     * Verify the stream of a range matches get().
+     */
+    @Test
+    public void verifyRange() {
+        FibonacciNumber seq = new FibonacciNumber();
+        List<BigInteger> values = seq.stream(100, 600).collect(Collectors.toList());
+
+        Assert.assertEquals(500, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            Assert.assertEquals(seq.get(100 + i), values.get(i));
+        }
+    }
+
+    /**
+     * Verify parallel streams produce the same results in the same order.
+     */
+    @Test
+    public void verifyParallel() {
+        FibonacciNumber seq = new FibonacciNumber();
+
+        BigInteger expected = seq.stream(0, 2000).reduce(BigInteger.ZERO, BigInteger::add);
+        BigInteger actual = seq.parallelStream(0, 2000).reduce(BigInteger.ZERO, BigInteger::add);
+        Assert.assertEquals(expected, actual);
+
+        // sum of the first n Fibonacci numbers is F(n+1) - 1
+        Assert.assertEquals(seq.get(2001).subtract(BigInteger.ONE), actual);
+
+        Assert.assertEquals(seq.stream(0, 2000).collect(Collectors.toList()),
+            seq.parallelStream(0, 2000).collect(Collectors.toList()));
+    }
+
+    /**
+     * Verify splitting halves the range.
+     */
+    @Test
+    public void verifySplit() {
+        Spliterator<BigInteger> s = new SequenceSpliterator<BigInteger>(new FibonacciNumber(), 10, 1010);
+        Assert.assertEquals(1000, s.estimateSize());
+        Assert.assertTrue(s.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+
+        Spliterator<BigInteger> prefix = s.trySplit();
+        Assert.assertEquals(500, prefix.estimateSize());
+        Assert.assertEquals(500, s.estimateSize());
+
+        Spliterator<BigInteger> one = new SequenceSpliterator<BigInteger>(new FibonacciNumber(), 5, 6);
+        Assert.assertNull(one.trySplit());
+        Assert.assertTrue(one.tryAdvance(x -> Assert.assertEquals(BigInteger.valueOf(5), x)));
+        Assert.assertFalse(one.tryAdvance(x -> Assert.fail()));
+    }
+
+    /**
+     * Verify list streams split by index.
+     */
+    @Test
+    public void verifyList() {
+        SequenceList<Long> list = new TriangularNumber().subList(0, 100000);
+
+        long expected = 0;
+        for (long n = 0; n < 100000; n++) {
+            expected += (n * (n + 1)) / 2;
+        }
+
+        Assert.assertEquals(expected, list.parallelStream().mapToLong(Long::longValue).sum());
+        Assert.assertEquals(expected, list.stream().mapToLong(Long::longValue).sum());
+        Assert.assertEquals(100000, list.spliterator().getExactSizeIfKnown());
+    }
+
+    /**
+     * Verify the unbounded stream.
+     */
+    @Test
+    public void verifyUnbounded() {
+        FibonacciNumber seq = new FibonacciNumber();
+        List<BigInteger> values = seq.stream().limit(20).collect(Collectors.toList());
+
+        Assert.assertEquals(20, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            Assert.assertEquals(seq.get(i), values.get(i));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void verifyIllegalArgumentException() {
+        new FibonacciNumber().stream(10, 5);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.invariantproperties.projecteuler.recurrence.FibonacciNumber;
+import com.invariantproperties.projecteuler.recurrence.LucasNumber;
+
+/**
+ * Test shared term store.
+ *
+ * @author bgiles
+ */
+public class SequenceTermStoreTest {
+
+    private static SequenceTermStore<Integer> newStore() {
+        InMemorySequenceCache<Integer> cache = new InMemorySequenceCache<Integer>(1000);
+        cache.initialize(new ArrayList<Integer>());
+        return new SequenceTermStore<Integer>(null, cache);
+    }
+
+    /**
+     * Verify the store is shared by all instances of a sequence.
+     */
+    @Test
+    public void verifySharedStore() {
+        SequenceTermStore<BigInteger> fibonacci = SequenceTermStore.forSequence(FibonacciNumber.class, () -> null);
+        SequenceTermStore<BigInteger> lucas = SequenceTermStore.forSequence("A000032", () -> null);
+
+        new FibonacciNumber().get(5000);
+        Assert.assertSame(fibonacci, SequenceTermStore.forSequence("A000045", () -> null));
+        Assert.assertEquals(new FibonacciNumber().get(5000), fibonacci.get(5000));
+        Assert.assertEquals("A000045", fibonacci.getOeisSequenceNumber());
+
+        new LucasNumber().get(4000);
+        Assert.assertNotNull(lucas.get(4000));
+        Assert.assertNotSame(fibonacci, lucas);
+    }
+
+    /**
+     * Verify classes without an annotation are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void verifyMissingAnnotation() {
+        SequenceTermStore.forSequence(String.class, () -> null);
+    }
+
+    /**
+     * Verify concurrent requests for the same value compute it once.
+     */
+    @Test
+    public void verifySingleFlight() throws Exception {
+        final SequenceTermStore<Integer> store = newStore();
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final int threads = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Future<?>[] futures = new Future<?>[threads];
+            for (int i = 0; i < threads; i++) {
+                futures[i] = executor.submit(() -> store.get(42, n -> {
+                    calls.incrementAndGet();
+                    started.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return n * 2;
+                }));
+            }
+
+            Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+            // give the other threads a chance to join the computation.
+            Thread.sleep(50);
+            release.countDown();
+
+            for (Future<?> future : futures) {
+                Assert.assertEquals(Integer.valueOf(84), future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertEquals(1, calls.get());
+        Assert.assertEquals(0, store.getInFlightCount());
+        Assert.assertEquals(Integer.valueOf(84), store.get(42));
+    }
+
+    /**
+     * Verify exceptions are rethrown and the value can be computed again.
+     */
+    @Test
+    public void verifyException() {
+        SequenceTermStore<Integer> store = newStore();
+
+        try {
+            store.get(1, n -> {
+                throw new ArithmeticException("test");
+            });
+            Assert.fail("expected exception");
+        } catch (ArithmeticException e) {
+            Assert.assertEquals("test", e.getMessage());
+        }
+
+        Assert.assertEquals(0, store.getInFlightCount());
+        Assert.assertNull(store.get(1));
+        Assert.assertEquals(Integer.valueOf(3), store.get(1, n -> 3));
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.invariantproperties.projecteuler.recurrence.FibonacciNumber;
+
+/**
+ * Test weight-bounded cache.
+ *
+ * @author bgiles
+ */
+public class WeightedSequenceCacheTest {
+
+    private static WeightedSequenceCache<Integer> newCache(long maxWeight, boolean soft) {
+        // every value weighs 10.
+        WeightedSequenceCache<Integer> cache = new WeightedSequenceCache<Integer>(null, maxWeight,
+                value -> 10L, soft);
+        cache.initialize(new ArrayList<Integer>());
+        return cache;
+    }
+
+    /**
+     * Verify least recently used values are evicted once the weight limit is
+     * reached.
+     */
+    @Test
+    public void verifyEviction() {
+        WeightedSequenceCache<Integer> cache = newCache(50, false);
+
+        for (int n = 0; n < 5; n++) {
+            cache.put(n, n);
+        }
+        Assert.assertEquals(50, cache.getWeight());
+
+        // touch 0 so 1 is the eldest.
+        Assert.assertEquals(Integer.valueOf(0), cache.get(0));
+        cache.put(5, 5);
+
+        Assert.assertEquals(50, cache.getWeight());
+        Assert.assertEquals(5, cache.getStrongSize());
+        Assert.assertEquals(Integer.valueOf(0), cache.get(0));
+        Assert.assertNull(cache.get(1));
+        Assert.assertEquals(Integer.valueOf(5), cache.get(5));
+        Assert.assertEquals(0, cache.getSoftSize());
+    }
+
+    /**
+     * Verify a value heavier than the limit is not retained.
+     */
+    @Test
+    public void verifyOversizedValue() {
+        WeightedSequenceCache<Integer> cache = newCache(5, false);
+        cache.put(0, 0);
+        Assert.assertEquals(0, cache.getWeight());
+        Assert.assertNull(cache.get(0));
+    }
+
+    /**
+     * Verify evicted values move to the soft tier and are promoted on access.
+     */
+    @Test
+    public void verifySoftTier() {
+        WeightedSequenceCache<Integer> cache = newCache(20, true);
+
+        for (int n = 0; n < 4; n++) {
+            cache.put(n, 1000 + n);
+        }
+        Assert.assertEquals(2, cache.getStrongSize());
+        Assert.assertEquals(20, cache.getWeight());
+
+        // the soft tier may have been cleared by the GC but never holds more
+        // than the evicted values.
+        int soft = cache.getSoftSize();
+        Assert.assertTrue(soft <= 2);
+
+        Integer value = cache.get(0);
+        if (value != null) {
+            Assert.assertEquals(Integer.valueOf(1000), value);
+            Assert.assertEquals(2, cache.getStrongSize());
+            Assert.assertEquals(20, cache.getWeight());
+            Assert.assertEquals(Integer.valueOf(1000), cache.get(0));
+        }
+    }
+
+    /**
+     * Verify initial values are always retained and counted.
+     */
+    @Test
+    public void verifyInitialValues() {
+        WeightedSequenceCache<Integer> cache = new WeightedSequenceCache<Integer>(null, 0, value -> 10L, true);
+        cache.initialize(Arrays.asList(7, 8, 9));
+
+        Assert.assertEquals(30, cache.getWeight());
+        Assert.assertEquals(Integer.valueOf(8), cache.get(1));
+        cache.put(1, 100);
+        Assert.assertEquals(Integer.valueOf(8), cache.get(1));
+
+        cache.put(3, 10);
+        cache.reset();
+        Assert.assertEquals(30, cache.getWeight());
+        Assert.assertEquals(0, cache.getSoftSize());
+    }
+
+    /**
+     * Verify BigInteger weights grow with the bit length.
+     */
+    @Test
+    public void verifyBigIntegerWeigher() {
+        long small = WeightedSequenceCache.weigh(BigInteger.ONE);
+        long large = WeightedSequenceCache.weigh(BigInteger.ONE.shiftLeft(1024));
+        Assert.assertEquals(4 * 32, large - small);
+    }
+
+    /**
+     * Verify the footprint of a cache of Fibonacci numbers stays within the
+     * limit.
+     */
+    @Test
+    public void verifyBigIntegerFootprint() {
+        WeightedSequenceCache<BigInteger> cache = WeightedSequenceCache.forBigIntegers(null, 16 * 1024, true);
+        cache.initialize(new ArrayList<BigInteger>());
+
+        FibonacciNumber fibonacci = new FibonacciNumber();
+        for (int n = 0; n < 2000; n++) {
+            cache.put(n, fibonacci.get(n));
+            Assert.assertTrue(cache.getWeight() <= cache.getMaxWeight());
+        }
+
+        Assert.assertEquals(fibonacci.get(1999), cache.get(1999));
+        Assert.assertTrue(cache.getStrongSize() < 2000);
+    }
+}
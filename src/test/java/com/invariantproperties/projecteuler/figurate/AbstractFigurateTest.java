@@ -23,6 +23,8 @@
 package com.invariantproperties.projecteuler.figurate;
 
 import com.invariantproperties.projecteuler.AbstractSequenceTest;
+import com.invariantproperties.projecteuler.LongIterator;
+import com.invariantproperties.projecteuler.LongListIterator;
 import com.invariantproperties.projecteuler.Sequence;
 
 import org.junit.Assert;
@@ -31,6 +33,7 @@ import org.junit.Test;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.List;
+import java.util.ListIterator;
 
 
 /**
@@ -40,8 +43,6 @@ import java.util.List;
  *
  * FIXME: test toArray
  *
- * FIXME: test list operator with index
- *
  * @author bgiles
  *
  * @param <T>
@@ -107,4 +108,33 @@ public abstract class AbstractFigurateTest<T extends Number> extends AbstractSeq
     	List<T> l = seq.subList(0, 10);
     	l.toArray(new BigDecimal[0]);
     }
+
+    /**
+     * Verify primitive iterator matches closed formula.
+     */
+    @Test
+    public void verifyLongIterator() {
+        LongIterator iter = ((PolygonalNumber) seq).longIterator();
+        for (int i = 0; i < getMaxTests(); i++) {
+            Assert.assertEquals(seq.get(i).longValue(), iter.nextLong());
+        }
+    }
+
+    /**
+     * Verify list iterator with starting index in both directions.
+     */
+    @Test
+    public void verifyListIteratorWithIndex() {
+        ListIterator<T> iter = seq.listIterator(100);
+        Assert.assertEquals(100, iter.nextIndex());
+        for (int i = 100; i < getMaxTests(); i++) {
+            Assert.assertEquals(seq.get(i), iter.next());
+        }
+
+        LongListIterator longIter = ((PolygonalNumber) seq).longListIterator(getMaxTests());
+        for (int i = getMaxTests() - 1; i >= 0; i--) {
+            Assert.assertEquals(seq.get(i).longValue(), longIter.previousLong());
+        }
+        Assert.assertFalse(longIter.hasPrevious());
+    }
 }
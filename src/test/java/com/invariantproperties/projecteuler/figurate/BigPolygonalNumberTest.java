@@ -0,0 +1,134 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.figurate;
+
+import java.math.BigInteger;
+import java.util.ListIterator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.invariantproperties.projecteuler.SequenceList;
+
+/**
+ * Test polygonal numbers beyond the long range.
+ *
+ * @author bgiles
+ */
+public class BigPolygonalNumberTest {
+
+    private static BigInteger polygonal(BigInteger s, BigInteger r) {
+        // ((s - 2)r^2 - (s - 4)r) / 2
+        BigInteger a = s.subtract(BigInteger.valueOf(2));
+        BigInteger b = s.subtract(BigInteger.valueOf(4));
+        return a.multiply(r).multiply(r).subtract(b.multiply(r)).divide(BigInteger.valueOf(2));
+    }
+
+    /**
+     * Verify the long values match the polygonal number classes.
+     */
+    @Test
+    public void verifyLongRange() {
+        for (int s = 2; s <= 10; s++) {
+            BigPolygonalNumber seq = new BigPolygonalNumber(s);
+            for (int r = 0; r < 1000; r++) {
+                Assert.assertEquals(PolygonalNumber.get(s, r).longValue(), seq.get(r).longValue());
+            }
+        }
+
+        Assert.assertEquals(BigInteger.valueOf(40755), new TriangularNumber().toBigIntegerSequence().get(285));
+        Assert.assertEquals("A000326", new BigPolygonalNumber(5).getOeisSequenceNumber());
+    }
+
+    /**
+     * Verify the static methods agree with BigInteger arithmetic on both sides
+     * of the overflow boundary.
+     */
+    @Test
+    public void verifyOverflowBoundary() {
+        long[] sides = { 3, 4, 17, 1000, Integer.MAX_VALUE, Long.MAX_VALUE / 3, Long.MAX_VALUE };
+        long[] ranks = { 0, 1, 2, 3, 1000, 3037000499L, 3037000500L, 4294967295L, 4294967296L, Integer.MAX_VALUE,
+                Long.MAX_VALUE };
+
+        for (long s : sides) {
+            for (long r : ranks) {
+                BigInteger expected = polygonal(BigInteger.valueOf(s), BigInteger.valueOf(r));
+                Assert.assertEquals(expected, PolygonalNumber.getBigInteger(s, r));
+
+                if ((s <= Integer.MAX_VALUE) && (r <= Integer.MAX_VALUE)) {
+                    try {
+                        long x = PolygonalNumber.get((int) s, (int) r);
+                        Assert.assertEquals(expected, BigInteger.valueOf(x));
+                    } catch (ArithmeticException e) {
+                        Assert.assertTrue(expected.bitLength() > 63);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void verifyArithmeticException() {
+        PolygonalNumber.get(Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Verify arbitrarily large polygon orders.
+     */
+    @Test
+    public void verifyLargeOrder() {
+        BigInteger s = BigInteger.TEN.pow(40);
+        BigPolygonalNumber seq = new BigPolygonalNumber(s);
+
+        Assert.assertEquals(BigInteger.ZERO, seq.get(0));
+        Assert.assertEquals(BigInteger.ONE, seq.get(1));
+        Assert.assertEquals(s, seq.get(2));
+        Assert.assertEquals(polygonal(s, BigInteger.valueOf(12345)), seq.get(12345));
+        Assert.assertNull(seq.getOeisSequenceNumber());
+    }
+
+    /**
+     * Verify iterators and sublists.
+     */
+    @Test
+    public void verifyIterator() {
+        BigPolygonalNumber seq = new BigPolygonalNumber(1000000);
+        int start = Integer.MAX_VALUE - 100;
+        ListIterator<BigInteger> iter = seq.listIterator(start);
+
+        for (int r = start; r < start + 50; r++) {
+            Assert.assertEquals(polygonal(BigInteger.valueOf(1000000), BigInteger.valueOf(r)), iter.next());
+        }
+
+        Assert.assertEquals(seq.get(start + 49), iter.previous());
+
+        SequenceList<BigInteger> list = seq.subList(10, 20);
+        Assert.assertEquals(10, list.size());
+        Assert.assertEquals(seq.get(15), list.get(5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void verifyIllegalArgumentException() {
+        new BigPolygonalNumber(1);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.figurate;
+
+import java.math.BigInteger;
+import java.util.ListIterator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.invariantproperties.projecteuler.LongListIterator;
+
+/**
+ * Test centered polygonal numbers.
+ *
+ * @author bgiles
+ */
+public class CenteredPolygonalNumberTest {
+
+    /**
+     * Verify initial values against OEIS.
+     */
+    @Test
+    public void verifyInitialValues() {
+        long[][] expected = { { 1, 4, 10, 19, 31, 46 }, { 1, 5, 13, 25, 41, 61 }, { 1, 6, 16, 31, 51, 76 },
+                { 1, 7, 19, 37, 61, 91 }, { 1, 8, 22, 43, 71, 106 }, { 1, 9, 25, 49, 81, 121 } };
+
+        for (int k = 3; k <= 8; k++) {
+            CenteredPolygonalNumber seq = new CenteredPolygonalNumber(k);
+            for (int n = 0; n < expected[k - 3].length; n++) {
+                Assert.assertEquals(expected[k - 3][n], seq.get(n).longValue());
+            }
+        }
+
+        Assert.assertEquals("A001844", new CenteredPolygonalNumber(4).getOeisSequenceNumber());
+    }
+
+    /**
+     * Verify the iterator matches the closed form in both directions.
+     */
+    @Test
+    public void verifyIterator() {
+        CenteredPolygonalNumber seq = new CenteredPolygonalNumber(5);
+        LongListIterator iter = seq.longListIterator(1000);
+
+        for (int n = 1000; n < 2000; n++) {
+            Assert.assertEquals(n, iter.nextIndex());
+            Assert.assertEquals(seq.getLong(n), iter.nextLong());
+        }
+
+        for (int n = 1999; n >= 1000; n--) {
+            Assert.assertEquals(seq.getLong(n), iter.previousLong());
+        }
+
+        ListIterator<Long> boxed = seq.listIterator();
+        Assert.assertEquals(Long.valueOf(1), boxed.next());
+        Assert.assertEquals(Long.valueOf(6), boxed.next());
+    }
+
+    /**
+     * Verify iteration is exact up to the end of the long range.
+     */
+    @Test
+    public void verifyIteratorAtMaxIndex() {
+        CenteredPolygonalNumber seq = new CenteredPolygonalNumber(8);
+        int max = seq.getMaxIndex();
+        LongListIterator iter = seq.longListIterator(max - 10);
+
+        for (int n = max - 10; n <= max; n++) {
+            Assert.assertEquals(seq.getBigInteger(n).longValue(), iter.nextLong());
+        }
+
+        Assert.assertFalse(iter.hasNext());
+    }
+
+    /**
+     * Verify rank and indexOf.
+     */
+    @Test
+    public void verifyRank() {
+        for (int k = 3; k <= 12; k++) {
+            CenteredPolygonalNumber seq = new CenteredPolygonalNumber(k);
+            for (int n = 0; n < 1000; n++) {
+                long x = seq.getLong(n);
+                Assert.assertEquals(n, seq.rank(x));
+                Assert.assertEquals(-1, seq.rank(x + 1));
+                Assert.assertEquals(n, seq.indexOf(x));
+            }
+
+            int max = seq.getMaxIndex();
+            Assert.assertEquals(max, seq.rank(seq.getLong(max)));
+            Assert.assertEquals(-1, seq.rank(seq.getLong(max) - 1));
+            Assert.assertEquals(-1, seq.rank(0));
+            Assert.assertEquals(-1, seq.rank(-5));
+        }
+    }
+
+    /**
+     * Verify BigInteger fallback beyond the long range.
+     */
+    @Test
+    public void verifyBigInteger() {
+        CenteredPolygonalNumber seq = new CenteredPolygonalNumber(6);
+        int max = seq.getMaxIndex();
+        BigInteger n = BigInteger.valueOf(max + 1L);
+        BigInteger expected = n.multiply(n.add(BigInteger.ONE)).multiply(BigInteger.valueOf(3)).add(BigInteger.ONE);
+
+        Assert.assertEquals(expected, seq.getBigInteger(max + 1));
+        Assert.assertTrue(expected.bitLength() > 63);
+        Assert.assertEquals(BigInteger.valueOf(seq.getLong(max)), seq.getBigInteger(max));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void verifyArithmeticException() {
+        CenteredPolygonalNumber seq = new CenteredPolygonalNumber(6);
+        seq.get(seq.getMaxIndex() + 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void verifyIllegalArgumentException() {
+        new CenteredPolygonalNumber(2);
+    }
+}
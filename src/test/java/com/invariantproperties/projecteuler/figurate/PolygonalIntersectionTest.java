@@ -0,0 +1,135 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.figurate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test figurate intersections.
+ *
+ * @author bgiles
+ */
+public class PolygonalIntersectionTest {
+
+    /**
+     * Verify Project Euler 45: triangular, pentagonal and hexagonal.
+     */
+    @Test
+    public void verifyTriangularPentagonalHexagonal() {
+        PolygonalIntersection iter = new PolygonalIntersection(3, 5, 6);
+        long[] expected = { 0L, 1L, 40755L, 1533776805L, 57722156241751L };
+
+        for (long x : expected) {
+            Assert.assertTrue(iter.hasNext());
+            Assert.assertEquals(x, iter.nextLong());
+        }
+
+        // T(285) = P(165) = H(143)
+        iter = new PolygonalIntersection(3, 5, 6);
+        iter.nextLong();
+        iter.nextLong();
+        Assert.assertEquals(40755L, iter.nextLong());
+        Assert.assertEquals(285L, iter.getRank(0));
+        Assert.assertEquals(165L, iter.getRank(1));
+        Assert.assertEquals(143L, iter.getRank(2));
+    }
+
+    /**
+     * Verify square triangular numbers (A001110) and ranks.
+     */
+    @Test
+    public void verifySquareTriangular() {
+        PolygonalIntersection iter = new PolygonalIntersection(3, 4);
+        long[] expected = { 0L, 1L, 36L, 1225L, 41616L, 1413721L, 48024900L, 1631432881L };
+
+        for (long x : expected) {
+            long value = iter.nextLong();
+            Assert.assertEquals(x, value);
+            Assert.assertEquals(value, PolygonalNumber.get(3, (int) iter.getRank(0)).longValue());
+            Assert.assertEquals(value, PolygonalNumber.get(4, (int) iter.getRank(1)).longValue());
+        }
+    }
+
+    /**
+     * Verify values agree with the membership test.
+     */
+    @Test
+    public void verifyAgainstScreen() {
+        PolygonalScreen screen = new PolygonalScreen(5, 7);
+        PolygonalIntersection iter = new PolygonalIntersection(5, 7);
+        long[] candidates = new long[200000];
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] = PolygonalNumber.get(7, i);
+        }
+
+        for (int i : screen.matches(candidates)) {
+            Assert.assertEquals(candidates[i], iter.nextLong());
+        }
+    }
+
+    /**
+     * Verify iteration stops at the end of the long range.
+     */
+    @Test
+    public void verifyOverflow() {
+        PolygonalIntersection iter = new PolygonalIntersection(1000000000, 1000000001);
+        long previous = -1;
+        int count = 0;
+
+        while (iter.hasNext()) {
+            long x = iter.nextLong();
+            Assert.assertTrue(x > previous);
+            previous = x;
+            count++;
+        }
+
+        // only 0 and 1
+        Assert.assertEquals(2, count);
+    }
+
+    /**
+     * Verify iteration continues up to the largest value that fits in a long,
+     * including values between Long.MAX_VALUE / 2 and Long.MAX_VALUE.
+     */
+    @Test
+    public void verifyLastValue() {
+        long a = Integer.MAX_VALUE - 2L;
+        long r = 0;
+        while (PolygonalNumber.value(a, r + 1) >= 0) {
+            r++;
+        }
+
+        PolygonalIntersection iter = new PolygonalIntersection(Integer.MAX_VALUE);
+        long count = 0;
+        long last = -1;
+        while (iter.hasNext()) {
+            last = iter.nextLong();
+            count++;
+        }
+
+        Assert.assertEquals(r + 1, count);
+        Assert.assertEquals(PolygonalNumber.value(a, r), last);
+        Assert.assertTrue(last > (Long.MAX_VALUE / 2));
+    }
+}
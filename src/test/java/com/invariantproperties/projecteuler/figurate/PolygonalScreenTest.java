@@ -0,0 +1,109 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.figurate;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test bulk figurate membership.
+ *
+ * @author bgiles
+ */
+public class PolygonalScreenTest {
+
+    /**
+     * Verify rank against the closed formula.
+     */
+    @Test
+    public void verifyRank() {
+        for (int s = 2; s <= 10; s++) {
+            for (int r = 0; r < 10000; r++) {
+                long x = PolygonalNumber.get(s, r);
+                Assert.assertEquals(r, PolygonalNumber.rank(s, x));
+                if ((s > 2) && (r > 1)) {
+                    Assert.assertEquals(-1, PolygonalNumber.rank(s, x - 1));
+                }
+            }
+        }
+        Assert.assertEquals(-1, PolygonalNumber.rank(3, -1));
+    }
+
+    /**
+     * Verify rank above 2^52 where the floating point test is wrong.
+     */
+    @Test
+    public void verifyRankLarge() {
+        for (int s = 3; s <= 8; s++) {
+            // largest ranks where r * ((s - 2)r - (s - 4)) fits in a long
+            long r = (long) Math.sqrt(Long.MAX_VALUE / (s - 2.0)) - 10;
+            for (long i = r - 1000; i < r; i++) {
+                long x = (i * ((s - 2L) * i - (s - 4L))) / 2L;
+                Assert.assertEquals(i, PolygonalNumber.rank(s, x));
+                Assert.assertEquals(-1, PolygonalNumber.rank(s, x + 1));
+            }
+        }
+    }
+
+    /**
+     * Verify Project Euler 45: T(285) = P(165) = H(143) = 40755.
+     */
+    @Test
+    public void verifyMatches() {
+        long[] candidates = new long[100000];
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] = PolygonalNumber.get(3, i);
+        }
+
+        PolygonalScreen screen = new PolygonalScreen(3, 5, 6);
+        int[] matches = screen.matches(candidates);
+        Assert.assertArrayEquals(new int[] { 0, 1, 285, 55385 }, matches);
+        Assert.assertArrayEquals(matches, screen.matchesParallel(candidates));
+    }
+
+    /**
+     * Verify sequential and parallel masks agree.
+     */
+    @Test
+    public void verifyMask() {
+        Random r = new Random(1);
+        long[] candidates = new long[100000];
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] = r.nextInt(100000);
+        }
+
+        PolygonalScreen screen = new PolygonalScreen(3, 4, 5);
+        int[] masks = screen.mask(candidates);
+        Assert.assertArrayEquals(masks, screen.maskParallel(candidates));
+
+        for (int i = 0; i < candidates.length; i++) {
+            int expected = 0;
+            expected |= (new TriangularNumber().contains(candidates[i])) ? 1 : 0;
+            expected |= (new SquareNumber().contains(candidates[i])) ? 2 : 0;
+            expected |= (new PentagonalNumber().contains(candidates[i])) ? 4 : 0;
+            Assert.assertEquals(expected, masks[i]);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.figurate;
+
+import java.math.BigInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.invariantproperties.projecteuler.LongListIterator;
+
+/**
+ * Test polytope numbers.
+ *
+ * @author bgiles
+ */
+public class PolytopeNumberTest {
+
+    private static BigInteger binomial(long n, int k) {
+        BigInteger r = BigInteger.ONE;
+        for (int i = 1; i <= k; i++) {
+            r = r.multiply(BigInteger.valueOf(n - k + i)).divide(BigInteger.valueOf(i));
+        }
+        return r;
+    }
+
+    /**
+     * Verify low dimensions match the familiar sequences.
+     */
+    @Test
+    public void verifyLowDimensions() {
+        PolytopeNumber triangular = new PolytopeNumber(2);
+        PolytopeNumber tetrahedral = new PolytopeNumber(3);
+        PyramidalNumber pyramidal = new PyramidalNumber(3);
+
+        for (int n = 0; n < 1000; n++) {
+            Assert.assertEquals(PolygonalNumber.get(3, n).longValue(), triangular.getLong(n));
+            Assert.assertEquals(pyramidal.getLong(n), tetrahedral.getLong(n));
+            Assert.assertEquals(n, new PolytopeNumber(1).getLong(n));
+        }
+
+        Assert.assertEquals("A000332", new PolytopeNumber(4).getOeisSequenceNumber());
+    }
+
+    /**
+     * Verify values against binomial coefficients.
+     */
+    @Test
+    public void verifyBinomial() {
+        for (int d = 1; d <= 12; d++) {
+            PolytopeNumber seq = new PolytopeNumber(d);
+            for (int n = 0; n < 200; n++) {
+                Assert.assertEquals(binomial(n + d - 1, d), seq.getBigInteger(n));
+            }
+
+            int max = seq.getMaxIndex();
+            Assert.assertEquals(binomial(max + d - 1L, d).longValue(), seq.getLong(max));
+            if (max < Integer.MAX_VALUE - d - 1) {
+                Assert.assertTrue(binomial(max + (long) d, d).bitLength() > 63);
+                Assert.assertEquals(binomial(max + (long) d, d), seq.getBigInteger(max + 1));
+            }
+        }
+    }
+
+    /**
+     * Verify the iterator matches the closed form in both directions.
+     */
+    @Test
+    public void verifyIterator() {
+        for (int d = 1; d <= 6; d++) {
+            PolytopeNumber seq = new PolytopeNumber(d);
+            LongListIterator iter = seq.longListIterator(50);
+
+            for (int n = 50; n < 500; n++) {
+                Assert.assertEquals(seq.getLong(n), iter.nextLong());
+            }
+
+            for (int n = 499; n >= 0; n--) {
+                Assert.assertEquals(seq.getLong(n), iter.previousLong());
+            }
+        }
+
+        PolytopeNumber seq = new PolytopeNumber(5);
+        int max = seq.getMaxIndex();
+        LongListIterator iter = seq.longListIterator(max - 10);
+        for (int n = max - 10; n <= max; n++) {
+            Assert.assertEquals(seq.getLong(n), iter.nextLong());
+        }
+        Assert.assertFalse(iter.hasNext());
+    }
+
+    /**
+     * Verify rank and indexOf.
+     */
+    @Test
+    public void verifyRank() {
+        for (int d = 1; d <= 8; d++) {
+            PolytopeNumber seq = new PolytopeNumber(d);
+            int max = Math.min(seq.getMaxIndex(), 1000);
+            for (int n = 1; n < max; n++) {
+                long x = seq.getLong(n);
+                Assert.assertEquals(n, seq.rank(x));
+                if (d > 1 && n > 1) {
+                    Assert.assertEquals(-1, seq.rank(x + 1));
+                }
+            }
+        }
+
+        PolytopeNumber seq = new PolytopeNumber(4);
+        int max = seq.getMaxIndex();
+        Assert.assertEquals(max, seq.indexOf(seq.getLong(max)));
+        Assert.assertEquals(-1, seq.indexOf(seq.getLong(max) - 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void verifyIllegalArgumentException() {
+        new PolytopeNumber(0);
+    }
+}
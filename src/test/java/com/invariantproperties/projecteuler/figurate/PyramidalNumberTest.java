@@ -0,0 +1,140 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.figurate;
+
+import java.math.BigInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.invariantproperties.projecteuler.LongListIterator;
+import com.invariantproperties.projecteuler.SequenceList;
+
+/**
+ * Test pyramidal numbers.
+ *
+ * @author bgiles
+ */
+public class PyramidalNumberTest {
+
+    /**
+     * Verify the values are the partial sums of the polygonal numbers.
+     */
+    @Test
+    public void verifyPartialSums() {
+        for (int s = 3; s <= 8; s++) {
+            PyramidalNumber seq = new PyramidalNumber(s);
+            long sum = 0;
+            for (int n = 0; n < 1000; n++) {
+                sum += PolygonalNumber.get(s, n).longValue();
+                Assert.assertEquals(sum, seq.getLong(n));
+            }
+        }
+
+        Assert.assertEquals("A000330", new PyramidalNumber(4).getOeisSequenceNumber());
+        Assert.assertNull(new PyramidalNumber(20).getOeisSequenceNumber());
+    }
+
+    /**
+     * Verify initial values of the tetrahedral numbers.
+     */
+    @Test
+    public void verifyTetrahedral() {
+        long[] expected = { 0, 1, 4, 10, 20, 35, 56, 84, 120, 165, 220 };
+        SequenceList<Long> list = new PyramidalNumber(3).subList(0, expected.length);
+
+        for (int n = 0; n < expected.length; n++) {
+            Assert.assertEquals(expected[n], list.get(n).longValue());
+        }
+    }
+
+    /**
+     * Verify the iterator matches the closed form in both directions and up
+     * to the end of the long range.
+     */
+    @Test
+    public void verifyIterator() {
+        PyramidalNumber seq = new PyramidalNumber(7);
+        LongListIterator iter = seq.longListIterator(0);
+
+        for (int n = 0; n < 1000; n++) {
+            Assert.assertEquals(seq.getLong(n), iter.nextLong());
+        }
+
+        for (int n = 999; n >= 500; n--) {
+            Assert.assertEquals(seq.getLong(n), iter.previousLong());
+        }
+
+        int max = seq.getMaxIndex();
+        iter = seq.longListIterator(max - 10);
+        for (int n = max - 10; n <= max; n++) {
+            Assert.assertEquals(seq.getBigInteger(n).longValue(), iter.nextLong());
+        }
+        Assert.assertFalse(iter.hasNext());
+    }
+
+    /**
+     * Verify rank and indexOf.
+     */
+    @Test
+    public void verifyRank() {
+        for (int s = 3; s <= 12; s++) {
+            PyramidalNumber seq = new PyramidalNumber(s);
+            for (int n = 0; n < 1000; n++) {
+                long x = seq.getLong(n);
+                Assert.assertEquals(n, seq.rank(x));
+                if (n > 0) {
+                    Assert.assertEquals(-1, seq.rank(x + 1));
+                }
+            }
+
+            int max = seq.getMaxIndex();
+            for (int n = max - 100; n <= max; n++) {
+                long x = seq.getLong(n);
+                Assert.assertEquals(n, seq.indexOf(x));
+                Assert.assertFalse(seq.contains(x - 1));
+            }
+        }
+    }
+
+    /**
+     * Verify BigInteger fallback beyond the long range.
+     */
+    @Test
+    public void verifyBigInteger() {
+        PyramidalNumber seq = new PyramidalNumber(4);
+        int max = seq.getMaxIndex();
+        BigInteger n = BigInteger.valueOf(max + 1L);
+        BigInteger expected = n.multiply(n.add(BigInteger.ONE)).multiply(n.shiftLeft(1).add(BigInteger.ONE))
+                .divide(BigInteger.valueOf(6));
+
+        Assert.assertEquals(expected, seq.getBigInteger(max + 1));
+        Assert.assertTrue(expected.bitLength() > 63);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void verifyArithmeticException() {
+        PyramidalNumber seq = new PyramidalNumber(5);
+        seq.get(seq.getMaxIndex() + 1);
+    }
+}
@@ -25,6 +25,8 @@ package com.invariantproperties.projecteuler.figurate;
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.invariantproperties.projecteuler.InMemorySequenceCache;
+import com.invariantproperties.projecteuler.SequenceList;
 import com.invariantproperties.projecteuler.figurate.TriangularNumber;
 
 import java.util.Arrays;
@@ -61,4 +63,52 @@ public class TriangularNumberTest extends AbstractFigurateTest<Long> {
         verifyInitialTerms(Arrays.asList(0L, 1L, 3L, 6L, 10L, 15L, 21L, 28L,
                 36L, 45L, 55L, 66L));
     }
+
+    /**
+     * Verify the full sequence fails fast instead of running out of memory.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void verifyToArrayTooLarge() {
+        new TriangularNumber().toArray();
+    }
+
+    /**
+     * Verify values are cached by absolute rank.
+     */
+    @Test
+    public void verifyCache() {
+        InMemorySequenceCache<Long> cache = new InMemorySequenceCache<Long>();
+        TriangularNumber t = new TriangularNumber(cache);
+        SequenceList<Long> l = t.subList(100, 200).subList(10, 20);
+
+        Assert.assertEquals(10, l.size());
+        Assert.assertFalse(l.isEmpty());
+        Assert.assertEquals(Long.valueOf(6105L), l.get(0));
+        Assert.assertEquals(Long.valueOf(6105L), cache.get(110));
+    }
+
+    /**
+     * Verify large sublists can be materialized as primitives.
+     */
+    @Test
+    public void verifyToLongArray() {
+        TriangularNumber t = new TriangularNumber(1000000, 1100000);
+        long[] values = t.toLongArray();
+
+        Assert.assertEquals(100000, values.length);
+        for (int i = 0; i < values.length; i++) {
+            long r = 1000000L + i;
+            Assert.assertEquals((r * (r + 1)) / 2, values[i]);
+        }
+    }
+
+    /**
+     * Verify values past the end of the list are rejected.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void verifyGetLongIndexOutOfBoundsException() {
+        TriangularNumber t = new TriangularNumber(10, 20);
+        Assert.assertEquals(190L, t.getLong(9));
+        t.getLong(10);
+    }
 }
@@ -0,0 +1,176 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.invariantproperties.projecteuler.InMemorySequenceCache;
+import com.invariantproperties.projecteuler.prime.SieveOfAtkin;
+import com.invariantproperties.projecteuler.recurrence.PellNumber;
+
+/**
+ * Test metrics.
+ *
+ * @author bgiles
+ */
+public class MetricsTest {
+    private final CountingListener listener = new CountingListener();
+
+    @After
+    public void tearDown() {
+        Metrics.setEnabled(false);
+        Metrics.removeListener(listener);
+    }
+
+    /**
+     * Verify nothing is recorded while metrics are disabled.
+     */
+    @Test
+    public void verifyDisabled() {
+        SequenceMetrics metrics = Metrics.cache("disabled");
+        InMemorySequenceCache<BigInteger> cache = new InMemorySequenceCache<BigInteger>("disabled", 10);
+        cache.put(1, BigInteger.ONE);
+        cache.get(1);
+        cache.get(2);
+
+        Assert.assertEquals(0, metrics.getHits());
+        Assert.assertEquals(0, metrics.getMisses());
+    }
+
+    /**
+     * Verify cache hits, misses and evictions.
+     */
+    @Test
+    public void verifyCache() {
+        Metrics.setEnabled(true);
+        Metrics.addListener(listener);
+
+        SequenceMetrics metrics = Metrics.cache("test");
+        metrics.reset();
+        InMemorySequenceCache<BigInteger> cache = new InMemorySequenceCache<BigInteger>("test", 10);
+        for (int i = 0; i < 20; i++) {
+            cache.put(i, BigInteger.valueOf(i));
+        }
+
+        Assert.assertNull(cache.get(0));
+        Assert.assertEquals(BigInteger.TEN, cache.get(10));
+
+        Assert.assertEquals(1, metrics.getHits());
+        Assert.assertEquals(1, metrics.getMisses());
+        Assert.assertEquals(10, metrics.getEvictions());
+        Assert.assertEquals(0.5, metrics.getHitRatio(), 0.0001);
+        Assert.assertEquals(10, listener.evictions.get());
+    }
+
+    /**
+     * Verify sequence metrics and MBean registration.
+     */
+    @Test
+    public void verifySequence() throws Exception {
+        Metrics.setEnabled(true);
+        Metrics.addListener(listener);
+
+        PellNumber pell = new PellNumber();
+        SequenceMetrics metrics = Metrics.sequence(pell.getOeisSequenceNumber());
+        metrics.reset();
+
+        pell.get(500);
+        pell.get(500);
+
+        Assert.assertEquals(1, metrics.getHits());
+        Assert.assertEquals(1, metrics.getMisses());
+        Assert.assertEquals(2, metrics.getGets());
+        Assert.assertTrue(metrics.getGetTime() > 0);
+        Assert.assertEquals(2, listener.gets.get());
+
+        ObjectName name = new ObjectName("com.invariantproperties.projecteuler:type=Sequence,name=\"A000129\"");
+        Assert.assertEquals(2L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Gets"));
+    }
+
+    /**
+     * Verify sieve growth.
+     */
+    @Test
+    public void verifySieve() {
+        Metrics.setEnabled(true);
+        Metrics.addListener(listener);
+
+        // make sure the sieve has been initialized
+        SieveOfAtkin.SIEVE.isPrime(3);
+
+        SieveMetrics metrics = Metrics.sieve("SieveOfAtkin");
+        long growths = metrics.getGrowths();
+        int n = (int) Math.min(Integer.MAX_VALUE / 2, 2 * metrics.getSize() + 1);
+
+        SieveOfAtkin.SIEVE.isPrime(n);
+
+        Assert.assertEquals(growths + 1, metrics.getGrowths());
+        Assert.assertTrue(metrics.getSize() >= n);
+        Assert.assertTrue(metrics.getLockAcquisitions() > 0);
+        Assert.assertEquals(1, listener.growths.get());
+    }
+
+    /**
+     * Listener that counts events.
+     */
+    static final class CountingListener implements MetricsListener {
+        final AtomicInteger growths = new AtomicInteger();
+        final AtomicInteger evictions = new AtomicInteger();
+        final AtomicInteger gets = new AtomicInteger();
+
+        @Override
+        public void sieveGrown(String sieve, long oldSize, long newSize, long nanos) {
+            growths.incrementAndGet();
+        }
+
+        @Override
+        public void lockWaited(String sieve, long nanos) {
+        }
+
+        @Override
+        public void cacheHit(String name, int n) {
+        }
+
+        @Override
+        public void cacheMiss(String name, int n) {
+        }
+
+        @Override
+        public void cacheEvicted(String name, int n) {
+            evictions.incrementAndGet();
+        }
+
+        @Override
+        public void sequenceGet(String name, int n, long nanos) {
+            gets.incrementAndGet();
+        }
+    }
+}
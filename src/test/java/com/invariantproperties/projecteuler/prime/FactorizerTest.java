@@ -0,0 +1,102 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.prime;
+
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test factorization beyond the sieves.
+ *
+ * @author Bear Giles <bgiles@coyotesong.com>
+ */
+public class FactorizerTest {
+
+    private static void verify(long n, Map<Long, Integer> factors) {
+        BigInteger product = BigInteger.ONE;
+        for (Map.Entry<Long, Integer> entry : factors.entrySet()) {
+            Assert.assertTrue(BigInteger.valueOf(entry.getKey()).isProbablePrime(50));
+            product = product.multiply(BigInteger.valueOf(entry.getKey()).pow(entry.getValue()));
+        }
+        Assert.assertEquals(BigInteger.valueOf(n), product);
+    }
+
+    /**
+     * Verify small values against SloanesUtil.
+     */
+    @Test
+    public void verifySmall() {
+        for (long n = 1; n < 10000; n++) {
+            verify(n, Factorizer.factor(n));
+        }
+    }
+
+    /**
+     * Verify random large values, semiprimes and prime powers.
+     */
+    @Test
+    public void verifyLarge() {
+        Random r = new Random(1L);
+        for (int i = 0; i < 200; i++) {
+            long n = 1 + (r.nextLong() >>> 1);
+            verify(n, Factorizer.factor(n));
+        }
+
+        long p = 1000000007L;
+        long q = 998244353L;
+        Map<Long, Integer> factors = Factorizer.factor(p * q);
+        Assert.assertEquals(2, factors.size());
+        verify(p * q, factors);
+
+        factors = Factorizer.factor(p * p);
+        Assert.assertEquals(Integer.valueOf(2), factors.get(p));
+
+        verify(Long.MAX_VALUE, Factorizer.factor(Long.MAX_VALUE));
+        verify(9223372036854775783L, Factorizer.factor(9223372036854775783L));
+    }
+
+    /**
+     * Verify BigInteger values.
+     */
+    @Test
+    public void verifyBigInteger() {
+        BigInteger p = BigInteger.valueOf(1000000007L);
+        BigInteger q = BigInteger.valueOf(998244353L);
+        BigInteger n = p.pow(3).multiply(q).multiply(BigInteger.valueOf(12));
+
+        Map<BigInteger, Integer> factors = Factorizer.factor(n);
+        Assert.assertEquals(Integer.valueOf(3), factors.get(p));
+        Assert.assertEquals(Integer.valueOf(1), factors.get(q));
+        Assert.assertEquals(Integer.valueOf(2), factors.get(BigInteger.valueOf(2)));
+        Assert.assertEquals(Integer.valueOf(1), factors.get(BigInteger.valueOf(3)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void verifyIllegalArgumentException() {
+        Factorizer.factor(0);
+    }
+}
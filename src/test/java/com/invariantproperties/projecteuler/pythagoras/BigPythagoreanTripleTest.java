@@ -29,6 +29,7 @@ import org.junit.Test;
 import com.invariantproperties.projecteuler.pythagoras.BigPythagoreanTriple;
 
 import java.math.BigInteger;
+import java.util.Random;
 
 import static java.math.BigInteger.ONE;
 import static java.math.BigInteger.ZERO;
@@ -129,4 +130,101 @@ public class BigPythagoreanTripleTest {
         recurse(depth + 1, THREE.multiply(idx).add(THREE),
             m.add(TWO.multiply(n)), n); // D
     }
+
+    /**
+     * Walk the path for an index one level at a time.
+     */
+    private static BigInteger[] walk(BigInteger idx) {
+        StringBuilder path = new StringBuilder();
+
+        while (idx.signum() > 0) {
+            BigInteger[] qr = idx.subtract(ONE).divideAndRemainder(THREE);
+            path.append(qr[1].intValue());
+            idx = qr[0];
+        }
+
+        BigInteger m = TWO;
+        BigInteger n = ONE;
+
+        for (int i = path.length() - 1; i >= 0; i--) {
+            BigInteger t = m;
+            switch (path.charAt(i)) {
+            case '0':
+                m = TWO.multiply(m).subtract(n);
+                n = t;
+                break;
+            case '1':
+                m = TWO.multiply(m).add(n);
+                n = t;
+                break;
+            default:
+                m = m.add(TWO.multiply(n));
+                break;
+            }
+        }
+
+        return new BigInteger[] { m, n };
+    }
+
+    /**
+     * Verify indices near the start and end of each level.
+     */
+    @Test
+    public void verifyLevelBoundaries() {
+        BigInteger start = ZERO;
+        BigInteger width = ONE;
+
+        for (int k = 0; k < 100; k++) {
+            BigInteger[] indices = { start, start.add(ONE), start.add(width).subtract(ONE),
+                start.add(width).subtract(TWO) };
+            for (BigInteger idx : indices) {
+                if (idx.signum() >= 0) {
+                    BigInteger[] expected = walk(idx);
+                    BigPythagoreanTriple t = BigPythagoreanTriple.getInstance(idx);
+                    assertEquals(expected[0], t.getM());
+                    assertEquals(expected[1], t.getN());
+                }
+            }
+
+            start = start.add(width);
+            width = width.multiply(THREE);
+        }
+    }
+
+    /**
+     * Verify indices with thousands of digits.
+     */
+    @Test
+    public void verifyLargeIndex() {
+        Random r = new Random(1L);
+
+        for (int i = 0; i < 5; i++) {
+            BigInteger idx = new BigInteger(10000, r);
+            BigInteger[] expected = walk(idx);
+            BigPythagoreanTriple t = BigPythagoreanTriple.getInstance(idx);
+            assertEquals(expected[0], t.getM());
+            assertEquals(expected[1], t.getN());
+            assertEquals(t.getC().pow(2), t.getA().pow(2).add(t.getB().pow(2)));
+        }
+    }
+
+    /**
+     * Verify the long and BigInteger implementations agree.
+     */
+    @Test
+    public void verifyLongIndex() {
+        long[] indices = { 1L, 12L, 1000000L, 3486784400L, 3486784401L, 123456789012L };
+
+        for (long idx : indices) {
+            PythagoreanTriple expected = PythagoreanTriple.getInstance(idx);
+            BigPythagoreanTriple t = BigPythagoreanTriple.getInstance(BigInteger.valueOf(idx));
+            assertEquals(BigInteger.valueOf(expected.getM()), t.getM());
+            assertEquals(BigInteger.valueOf(expected.getN()), t.getN());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void verifyIllegalArgumentException() {
+        BigPythagoreanTriple.getInstance(BigInteger.valueOf(-1));
+    }
 }
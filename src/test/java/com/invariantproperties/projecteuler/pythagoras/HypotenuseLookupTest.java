@@ -0,0 +1,134 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.pythagoras;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test lookup of triples by hypotenuse.
+ *
+ * @author bgiles
+ */
+public class HypotenuseLookupTest {
+
+    /**
+     * Verify against brute force.
+     */
+    @Test
+    public void verifyBruteForce() {
+        for (long c = 1; c <= 3000; c++) {
+            long[] actual = HypotenuseLookup.triples(c);
+            int count = 0;
+
+            for (long a = 1; a < c; a++) {
+                long b2 = (c * c) - (a * a);
+                long b = (long) Math.sqrt(b2);
+                if ((b * b) == b2) {
+                    // each unordered triple is counted from both legs
+                    count++;
+                }
+            }
+
+            Assert.assertEquals(count / 2, actual.length / 3);
+            Assert.assertEquals(count / 2, HypotenuseLookup.count(c));
+
+            for (int i = 0; i < actual.length; i += 3) {
+                Assert.assertEquals(c, actual[i + 2]);
+                Assert.assertEquals(c * c, (actual[i] * actual[i]) + (actual[i + 1] * actual[i + 1]));
+                if (i > 0) {
+                    Assert.assertTrue(actual[i - 3] < actual[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Verify 5^3 13^2: 25 triples.
+     */
+    @Test
+    public void verifyPrimePowers() {
+        long c = 125L * 169L;
+        long[] triples = HypotenuseLookup.triples(c);
+        Assert.assertEquals(3 * 17, triples.length);
+    }
+
+    /**
+     * Verify large hypotenuses and the BigInteger version.
+     */
+    @Test
+    public void verifyLarge() {
+        long c = 5L * 13L * 17L * 29L * 37L * 41L * 53L * 61L * 73L * 89L * 97L;
+        long[] triples = HypotenuseLookup.triples(c);
+        Assert.assertEquals(((long) Math.pow(3, 11) - 1) / 2, triples.length / 3);
+
+        BigInteger C = BigInteger.valueOf(c);
+        for (int i = 0; i < triples.length; i += 3) {
+            BigInteger a = BigInteger.valueOf(triples[i]);
+            BigInteger b = BigInteger.valueOf(triples[i + 1]);
+            Assert.assertEquals(C.pow(2), a.pow(2).add(b.pow(2)));
+        }
+
+        List<BigInteger[]> big = HypotenuseLookup.triples(C);
+        Assert.assertEquals(triples.length / 3, big.size());
+        for (int i = 0; i < big.size(); i++) {
+            Assert.assertEquals(BigInteger.valueOf(triples[3 * i]), big.get(i)[0]);
+            Assert.assertEquals(BigInteger.valueOf(triples[(3 * i) + 1]), big.get(i)[1]);
+        }
+
+        C = C.multiply(BigInteger.valueOf(1000000009L)).multiply(BigInteger.valueOf(3));
+        big = HypotenuseLookup.triples(C);
+        Assert.assertEquals(((long) Math.pow(3, 12) - 1) / 2, big.size());
+        for (int i = 0; i < big.size(); i += 97) {
+            BigInteger[] t = big.get(i);
+            Assert.assertEquals(C.pow(2), t[0].pow(2).add(t[1].pow(2)));
+        }
+    }
+
+    /**
+     * Verify the decomposition of primes into sums of two squares.
+     */
+    @Test
+    public void verifySumOfSquares() {
+        long[] primes = { 5, 13, 17, 29, 1000000009L, 9223372036854775549L };
+        for (long p : primes) {
+            if (BigInteger.valueOf(p).isProbablePrime(50) && ((p % 4) == 1)) {
+                BigInteger[] xy = HypotenuseLookup.sumOfSquares(BigInteger.valueOf(p));
+                Assert.assertEquals(BigInteger.valueOf(p), xy[0].pow(2).add(xy[1].pow(2)));
+            }
+        }
+    }
+
+    /**
+     * Verify hypotenuses without triples.
+     */
+    @Test
+    public void verifyEmpty() {
+        Assert.assertEquals(0, HypotenuseLookup.triples(1).length);
+        Assert.assertEquals(0, HypotenuseLookup.triples(2L * 3 * 7 * 11).length);
+        Assert.assertEquals(0, HypotenuseLookup.count(1L << 40));
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.pythagoras;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test compact triple batches.
+ *
+ * @author bgiles
+ */
+public class PythagoreanTripleBatchTest {
+
+    private static PythagoreanTripleBatch generate(long maxPerimeter) {
+        PythagoreanTripleBatch batch = new PythagoreanTripleBatch(4);
+        PythagoreanTripleGenerator.byPerimeter(maxPerimeter).generate(batch);
+        return batch;
+    }
+
+    /**
+     * Verify the columns match PythagoreanTriple.
+     */
+    @Test
+    public void verifyColumns() {
+        PythagoreanTripleBatch batch = new PythagoreanTripleBatch();
+
+        for (int i = 0; i < 1000; i++) {
+            PythagoreanTriple t = PythagoreanTriple.getInstance(i);
+            batch.add(t.getM(), t.getN());
+        }
+
+        Assert.assertEquals(1000, batch.size());
+
+        for (int i = 0; i < 1000; i++) {
+            PythagoreanTriple t = PythagoreanTriple.getInstance(i);
+            Assert.assertEquals(t.getA(), batch.getA(i));
+            Assert.assertEquals(t.getB(), batch.getB(i));
+            Assert.assertEquals(t.getC(), batch.getC(i));
+            Assert.assertEquals(t.getPerimeter(), batch.getPerimeter(i));
+            Assert.assertEquals(t.getArea(), batch.getArea(i));
+            Assert.assertEquals(t.getInRadius(), batch.getInRadius(i));
+            Assert.assertEquals(t.getD(), batch.getTriple(i).getD());
+        }
+    }
+
+    /**
+     * Verify filtering keeps exactly the matching triples in order.
+     */
+    @Test
+    public void verifyRetain() {
+        PythagoreanTripleBatch batch = generate(100000);
+        long[] c = batch.toArray(PythagoreanTripleBatch.Column.C);
+        long[] r = batch.toArray(PythagoreanTripleBatch.Column.INRADIUS);
+        int size = batch.size();
+
+        int removed = batch.retain(PythagoreanTripleBatch.Column.INRADIUS, 100, 1000);
+        Assert.assertEquals(size, batch.size() + removed);
+        Assert.assertTrue(removed > 0);
+
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            if ((100 <= r[i]) && (r[i] <= 1000)) {
+                Assert.assertEquals(c[i], batch.getC(j));
+                Assert.assertEquals(r[i], batch.getInRadius(j));
+                j++;
+            }
+        }
+        Assert.assertEquals(batch.size(), j);
+
+        batch.retain(PythagoreanTripleBatch.Column.AREA, 0, 0);
+        Assert.assertTrue(batch.isEmpty());
+    }
+
+    /**
+     * Verify sorting on stored and derived columns.
+     */
+    @Test
+    public void verifySort() {
+        for (PythagoreanTripleBatch.Column column : PythagoreanTripleBatch.Column.values()) {
+            PythagoreanTripleBatch batch = generate(200000);
+            long[] expected = batch.toArray(column);
+            Arrays.sort(expected);
+
+            batch.sort(column);
+
+            Assert.assertArrayEquals(expected, batch.toArray(column));
+            for (int i = 0; i < batch.size(); i++) {
+                Assert.assertEquals(batch.getC(i), (batch.getM(i) * batch.getM(i)) + (batch.getN(i) * batch.getN(i)));
+                Assert.assertEquals(batch.getC(i) * batch.getC(i),
+                    (batch.getA(i) * batch.getA(i)) + (batch.getB(i) * batch.getB(i)));
+            }
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void verifyIndexOutOfBoundsException() {
+        PythagoreanTripleBatch batch = generate(1000);
+        batch.getA(batch.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void verifyIllegalArgumentException() {
+        new PythagoreanTripleBatch().add(3, 3);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.pythagoras;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test streaming generation of primitive triples.
+ *
+ * @author bgiles
+ */
+public class PythagoreanTripleGeneratorTest {
+
+    private static long gcd(long a, long b) {
+        return (b == 0) ? a : gcd(b, a % b);
+    }
+
+    /**
+     * Enumerate primitive triples by brute force over (m, n).
+     */
+    private static Set<String> bruteForce(PythagoreanTripleGenerator.Bound bound, long max) {
+        Set<String> results = new HashSet<String>();
+
+        for (long m = 2; (m * m) <= max; m++) {
+            for (long n = 1 + (m % 2); n < m; n += 2) {
+                if (gcd(m, n) == 1) {
+                    long a = (m * m) - (n * n);
+                    long b = 2 * m * n;
+                    long c = (m * m) + (n * n);
+                    long x = (bound == PythagoreanTripleGenerator.Bound.PERIMETER) ? (a + b + c) : c;
+                    if (x <= max) {
+                        results.add(a + "," + b + "," + c);
+                    }
+                }
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Verify the visitor sees every primitive triple exactly once.
+     */
+    @Test
+    public void verifyVisitor() {
+        for (PythagoreanTripleGenerator.Bound bound : PythagoreanTripleGenerator.Bound.values()) {
+            final Set<String> actual = new HashSet<String>();
+            final long[] count = new long[1];
+
+            long n = new PythagoreanTripleGenerator(bound, 20000).generate(new PythagoreanTripleVisitor() {
+                @Override
+                public void visit(long m, long n, long a, long b, long c) {
+                    Assert.assertEquals(c * c, (a * a) + (b * b));
+                    Assert.assertEquals(c, (m * m) + (n * n));
+                    actual.add(a + "," + b + "," + c);
+                    count[0]++;
+                }
+            });
+
+            Assert.assertEquals(bruteForce(bound, 20000), actual);
+            Assert.assertEquals(actual.size(), count[0]);
+            Assert.assertEquals(count[0], n);
+        }
+    }
+
+    /**
+     * Verify filling a buffer in several passes.
+     */
+    @Test
+    public void verifyFill() {
+        PythagoreanTripleGenerator gen = PythagoreanTripleGenerator.byPerimeter(100000);
+        Set<String> actual = new HashSet<String>();
+        long[] buffer = new long[3 * 100];
+        int count;
+
+        while ((count = gen.fill(buffer)) > 0) {
+            for (int i = 0; i < count; i++) {
+                actual.add(buffer[3 * i] + "," + buffer[(3 * i) + 1] + "," + buffer[(3 * i) + 2]);
+            }
+        }
+
+        Assert.assertFalse(gen.hasNext());
+        Assert.assertEquals(bruteForce(PythagoreanTripleGenerator.Bound.PERIMETER, 100000), actual);
+    }
+
+    /**
+     * Verify the known number of primitive triples with perimeter up to 10^6
+     * (A101931).
+     */
+    @Test
+    public void verifyCount() {
+        PythagoreanTripleGenerator gen = PythagoreanTripleGenerator.byPerimeter(1000000);
+        long count = gen.generate(new PythagoreanTripleVisitor() {
+            @Override
+            public void visit(long m, long n, long a, long b, long c) {
+            }
+        });
+
+        Assert.assertEquals(70229, count);
+    }
+
+    /**
+     * Verify degenerate bounds.
+     */
+    @Test
+    public void verifySmallBounds() {
+        Assert.assertFalse(PythagoreanTripleGenerator.byPerimeter(11).hasNext());
+        Assert.assertTrue(PythagoreanTripleGenerator.byPerimeter(12).hasNext());
+        Assert.assertFalse(PythagoreanTripleGenerator.byHypotenuse(4).hasNext());
+        Assert.assertEquals(0, PythagoreanTripleGenerator.byHypotenuse(Long.MAX_VALUE).fill(new long[3], 0, 0));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.pythagoras;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test triple histograms.
+ *
+ * @author bgiles
+ */
+public class PythagoreanTripleHistogramTest {
+
+    /**
+     * Count all triples by brute force.
+     */
+    private static int[] bruteForce(boolean byPerimeter, int limit) {
+        int[] counts = new int[limit + 1];
+
+        for (long c = 1; c <= limit; c++) {
+            for (long a = 1; (2 * a * a) < (c * c); a++) {
+                long b2 = (c * c) - (a * a);
+                long b = (long) Math.sqrt(b2);
+                if ((b * b) == b2) {
+                    long x = byPerimeter ? (a + b + c) : c;
+                    if (x <= limit) {
+                        counts[(int) x]++;
+                    }
+                }
+            }
+        }
+
+        return counts;
+    }
+
+    /**
+     * Verify counts against brute force.
+     */
+    @Test
+    public void verifyBruteForce() {
+        Assert.assertArrayEquals(bruteForce(true, 2000), PythagoreanTripleHistogram.countByPerimeter(2000));
+        Assert.assertArrayEquals(bruteForce(false, 2000), PythagoreanTripleHistogram.countByHypotenuse(2000));
+    }
+
+    /**
+     * Verify the saturated counts agree with the full counts.
+     */
+    @Test
+    public void verifySaturated() {
+        int[] expected = PythagoreanTripleHistogram.countByPerimeter(1000000);
+        byte[] actual = PythagoreanTripleHistogram.saturatedCountByPerimeter(1000000);
+
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals(Math.min(255, expected[i]), actual[i] & 0xFF);
+        }
+    }
+
+    /**
+     * Verify Project Euler 75: number of perimeters up to 1,500,000 with
+     * exactly one right triangle.
+     */
+    @Test
+    public void verifySingularPerimeters() {
+        byte[] counts = PythagoreanTripleHistogram.saturatedCountByPerimeter(1500000);
+        int singular = 0;
+
+        for (byte b : counts) {
+            if (b == 1) {
+                singular++;
+            }
+        }
+
+        Assert.assertEquals(161667, singular);
+    }
+
+    /**
+     * Verify small limits.
+     */
+    @Test
+    public void verifySmallLimits() {
+        Assert.assertEquals(1, PythagoreanTripleHistogram.countByPerimeter(0).length);
+        Assert.assertEquals(1, PythagoreanTripleHistogram.countByPerimeter(12)[12]);
+        Assert.assertEquals(2, PythagoreanTripleHistogram.countByHypotenuse(25)[25]);
+    }
+}
@@ -22,7 +22,10 @@
  */
 package com.invariantproperties.projecteuler.recurrence;
 
+import com.invariantproperties.projecteuler.AbstractListIterator;
 import com.invariantproperties.projecteuler.AbstractSequenceTest;
+import com.invariantproperties.projecteuler.InMemorySequenceCache;
+import com.invariantproperties.projecteuler.SequenceCache;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -30,6 +33,7 @@ import org.junit.Test;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.List;
+import java.util.ListIterator;
 
 
 /**
@@ -50,6 +54,71 @@ public abstract class AbstractRecurrenceSequenceTest<E extends Number>
         super(clzz);
     }
 
+    /**
+     * Verify the list iterator can be repositioned in both directions, both
+     * by stepping and by computing the state directly.
+     */
+    @Test
+    public void verifySeek() {
+        AbstractListIterator<E> iter = (AbstractListIterator<E>) seq.listIterator();
+        int[] indices = { 5, 3, 2500, 2510, 1200, 0, 3000, 1 };
+
+        for (int index : indices) {
+            iter.seek(index);
+            Assert.assertEquals(index, iter.nextIndex());
+            Assert.assertEquals(seq.get(index), iter.next());
+            Assert.assertEquals(seq.get(index + 1), iter.next());
+            Assert.assertEquals(seq.get(index + 1), iter.previous());
+        }
+
+        iter.skip(-2);
+        Assert.assertEquals(0, iter.nextIndex());
+        iter.skip(2000);
+        Assert.assertEquals(seq.get(2000), iter.next());
+    }
+
+    /**
+     * Verify the offset list iterator for a large offset.
+     */
+    @Test
+    public void verifyLargeOffsetListIterator() {
+        int startIndex = 2000;
+        ListIterator<E> iter = seq.listIterator(startIndex);
+
+        for (int n = 0; n < 10; n++) {
+            Assert.assertEquals(seq.get(startIndex + n), iter.next());
+        }
+    }
+
+    /**
+     * Verify batch get matches the list iterator, including duplicate and
+     * unsorted indices. A private cache is used so the values aren't already
+     * in the shared store.
+     */
+    @Test
+    public void verifyGetAll() throws Exception {
+        AbstractRecurrenceNumber<E> sequence = (AbstractRecurrenceNumber<E>) ctor.getDeclaringClass()
+            .getConstructor(SequenceCache.class).newInstance(new InMemorySequenceCache<E>(1000));
+        int[] indices = { 4321, 17, 0, 250, 8765, 17, 1234, 5000, 251, 3 };
+        List<E> values = sequence.getAll(indices);
+
+        Assert.assertEquals(indices.length, values.size());
+        for (int i = 0; i < indices.length; i++) {
+            Assert.assertEquals(seq.listIterator(indices[i]).next(), values.get(i));
+            Assert.assertEquals(seq.get(indices[i]), values.get(i));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void verifyGetAllIllegalArgumentException() {
+        ((AbstractRecurrenceNumber<E>) seq).getAll(3, -1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void verifySeekIllegalArgumentException() {
+        ((AbstractListIterator<E>) seq.listIterator()).seek(-1);
+    }
+
     /**
      * Verify toArray(Integer[])
      */
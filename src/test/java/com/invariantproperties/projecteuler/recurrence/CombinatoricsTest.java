@@ -0,0 +1,154 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.recurrence;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+
+/**
+ * Test binomial coefficients.
+ *
+ * @author bgiles
+ */
+public class CombinatoricsTest {
+    private static final int MAX_TESTS = 200;
+    private final FactorialNumber factorial = new FactorialNumber();
+
+    /**
+     * Verify binomials against definition.
+     */
+    @Test
+    public void verifyBinomial() {
+        for (int n = 0; n < MAX_TESTS; n++) {
+            for (int k = 0; k <= n; k++) {
+                BigInteger x = factorial.get(n).divide(factorial.get(k)).divide(factorial.get(n - k));
+                Assert.assertEquals(x, Combinatorics.binomial(n, k));
+            }
+        }
+    }
+
+    /**
+     * Verify values out of range.
+     */
+    @Test
+    public void verifyBinomialOutOfRange() {
+        Assert.assertEquals(BigInteger.ZERO, Combinatorics.binomial(10, -1));
+        Assert.assertEquals(BigInteger.ZERO, Combinatorics.binomial(10, 11));
+    }
+
+    /**
+     * Verify multinomials against definition.
+     */
+    @Test
+    public void verifyMultinomial() {
+        for (int a = 0; a < 20; a++) {
+            for (int b = 0; b < 20; b++) {
+                for (int c = 0; c < 20; c++) {
+                    BigInteger x = factorial.get(a + b + c).divide(factorial.get(a)).divide(factorial.get(b))
+                            .divide(factorial.get(c));
+                    Assert.assertEquals(x, Combinatorics.multinomial(a, b, c));
+                }
+            }
+        }
+    }
+
+    /**
+     * Verify multinomials of n ones equal n!. The exponent of 2 is n -
+     * popcount(n) so the prime powers don't fit in a long.
+     */
+    @Test
+    public void verifyMultinomialOfOnes() {
+        for (int n : new int[] { 63, 64, 70, 200, 1000 }) {
+            int[] k = new int[n];
+            Arrays.fill(k, 1);
+            Assert.assertEquals(factorial.get(n), Combinatorics.multinomial(k));
+        }
+    }
+
+    /**
+     * Verify multinomials with many large parts.
+     */
+    @Test
+    public void verifyMultinomialLargeParts() {
+        int[] k = new int[40];
+        Arrays.fill(k, 3);
+
+        BigInteger x = factorial.get(120).divide(factorial.get(3).pow(40));
+        Assert.assertEquals(x, Combinatorics.multinomial(k));
+
+        k = new int[] { 500, 300, 7, 7, 7, 7, 1, 1, 1 };
+        x = factorial.get(831);
+        for (int ki : k) {
+            x = x.divide(factorial.get(ki));
+        }
+        Assert.assertEquals(x, Combinatorics.multinomial(k));
+    }
+
+    /**
+     * Verify modular factorials and inverses.
+     */
+    @Test
+    public void verifyModularFactorials() {
+        int p = 1009;
+        ModularFactorials table = new ModularFactorials(p, 2000);
+        Assert.assertEquals(p - 1, table.getMaxIndex());
+
+        for (int n = 0; n < p; n++) {
+            BigInteger x = factorial.get(n).mod(BigInteger.valueOf(p));
+            Assert.assertEquals(x.longValue(), table.factorial(n));
+            Assert.assertEquals(1L, (table.factorial(n) * table.inverseFactorial(n)) % p);
+        }
+
+        Assert.assertEquals(0L, table.factorial(p));
+    }
+
+    /**
+     * Verify modular binomials, including Lucas' theorem.
+     */
+    @Test
+    public void verifyModularBinomial() {
+        int p = 13;
+        ModularFactorials table = new ModularFactorials(p, p);
+
+        for (int n = 0; n < MAX_TESTS; n++) {
+            for (int k = 0; k <= n; k++) {
+                BigInteger x = Combinatorics.binomial(n, k).mod(BigInteger.valueOf(p));
+                Assert.assertEquals(x.longValue(), table.binomial(n, k));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void verifyCompositeModulus() {
+        new ModularFactorials(15, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void verifyTableTooSmall() {
+        new ModularFactorials(1009, 10).factorial(20);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * This code was written by Bear Giles <bgiles@coyotesong.com> and he
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Any contributions made by others are licensed to this project under
+ * one or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright (c) 2014 Bear Giles <bgiles@coyotesong.com>
+ */
+package com.invariantproperties.projecteuler.recurrence;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+
+/**
+ * Test prime swing factorial engine.
+ *
+ * @author bgiles
+ */
+public class PrimeSwingFactorialTest {
+    private static final int MAX_TESTS = 1000;
+
+    /**
+     * Verify the engine against the naive definition.
+     */
+    @Test
+    public void verifyDefinition() {
+        BigInteger f = BigInteger.ONE;
+
+        for (int n = 0; n < MAX_TESTS; n++) {
+            if (n > 0) {
+                f = f.multiply(BigInteger.valueOf(n));
+            }
+
+            Assert.assertEquals(f, PrimeSwingFactorial.factorial(n));
+        }
+    }
+
+    /**
+     * Verify a value large enough to use the parallel product tree.
+     */
+    @Test
+    public void verifyLargeValue() {
+        int n = 50000;
+        BigInteger f = PrimeSwingFactorial.factorial(n - 1).multiply(BigInteger.valueOf(n));
+        Assert.assertEquals(f, PrimeSwingFactorial.factorial(n));
+    }
+
+    /**
+     * Verify the product tree.
+     */
+    @Test
+    public void verifyProduct() {
+        long[] factors = new long[10000];
+        BigInteger p = BigInteger.ONE;
+
+        for (int i = 0; i < factors.length; i++) {
+            factors[i] = Long.MAX_VALUE - i;
+            p = p.multiply(BigInteger.valueOf(factors[i]));
+        }
+
+        Assert.assertEquals(p, PrimeSwingFactorial.product(factors, 0, factors.length));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void verifyIllegalArgumentException() {
+        PrimeSwingFactorial.factorial(-1);
+    }
+}